@@ -0,0 +1,240 @@
+package main.core;
+
+import org.openjdk.jmh.util.ListStatistics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Compares two versions of a program on the same inputs. Every round runs both versions once
+ * on every size, sizes in a fresh random order and A and B back to back in a random order, so
+ * drift and background load fall on both alike. Each round gives a ratio of A's run to B's;
+ * their geometric mean is bracketed by a Student t interval on the log ratios, which holds
+ * for the few rounds a comparison has. B counts as better or worse only when the whole
+ * interval lies on one side of 1.
+ */
+public class ABComparison {
+    public static final int DEFAULT_ROUNDS = 5;
+    public static final int MIN_ROUNDS = 3;
+    public static final int VERSION_A = 0;
+    public static final int VERSION_B = 1;
+    private static final double CONFIDENCE = 0.95;
+
+    public enum Metric {
+        TIME("Time", AnalysisResult::getExecutionTime),
+        ALLOCATION("Allocation", AnalysisResult::getMemoryUsed),
+        P99("p99 latency", AnalysisResult::getP99Latency);
+
+        private final String label;
+        private final ToDoubleFunction<AnalysisResult> value;
+
+        Metric(String label, ToDoubleFunction<AnalysisResult> value) {
+            this.label = label;
+            this.value = value;
+        }
+
+        public String getLabel() { return label; }
+
+        public double of(AnalysisResult result) { return value.applyAsDouble(result); }
+    }
+
+    public enum Verdict {
+        BETTER("B better"),
+        WORSE("B worse"),
+        NO_DIFFERENCE("No significant difference"),
+        NOT_MEASURED("Not measured");
+
+        private final String label;
+
+        Verdict(String label) {
+            this.label = label;
+        }
+
+        public String getLabel() { return label; }
+    }
+
+    public interface RunMeasurer {
+        // One run of the given version on the size at index.
+        AnalysisResult measure(int version, int index, int round) throws Exception;
+    }
+
+    // A over B, the geometric mean of the per-round ratios, with its confidence interval:
+    // above 1 means B needs less.
+    public static class Ratio {
+        private final double ratio;
+        private final double lower;
+        private final double upper;
+
+        Ratio(double ratio, double lower, double upper) {
+            this.ratio = ratio;
+            this.lower = lower;
+            this.upper = upper;
+        }
+
+        public double getRatio() { return ratio; }
+        public double getLower() { return lower; }
+        public double getUpper() { return upper; }
+
+        public Verdict getVerdict() {
+            if (Double.isNaN(ratio) || Double.isNaN(lower) || Double.isNaN(upper)) {
+                return Verdict.NOT_MEASURED;
+            }
+            return lower > 1 ? Verdict.BETTER : upper < 1 ? Verdict.WORSE : Verdict.NO_DIFFERENCE;
+        }
+    }
+
+    public static class Point {
+        private final int inputSize;
+        private final List<AnalysisResult> runsA;
+        private final List<AnalysisResult> runsB;
+        private final Ratio[] ratios;
+
+        Point(int inputSize, List<AnalysisResult> runsA, List<AnalysisResult> runsB, Ratio[] ratios) {
+            this.inputSize = inputSize;
+            this.runsA = runsA;
+            this.runsB = runsB;
+            this.ratios = ratios;
+        }
+
+        public int getInputSize() { return inputSize; }
+        // Each version's runs, one per round.
+        public List<AnalysisResult> getRunsA() { return runsA; }
+        public List<AnalysisResult> getRunsB() { return runsB; }
+        public Ratio getRatio(Metric metric) { return ratios[metric.ordinal()]; }
+        public double getMeanA(Metric metric) { return mean(runsA, metric); }
+        public double getMeanB(Metric metric) { return mean(runsB, metric); }
+    }
+
+    public static class Report {
+        private final List<Point> points;
+        private final int rounds;
+        private final List<Integer> mismatchedSizes;
+
+        Report(List<Point> points, int rounds, List<Integer> mismatchedSizes) {
+            this.points = points;
+            this.rounds = rounds;
+            this.mismatchedSizes = mismatchedSizes;
+        }
+
+        public Report withMismatchedSizes(List<Integer> mismatchedSizes) {
+            return new Report(points, rounds, mismatchedSizes);
+        }
+
+        public List<Point> getPoints() { return points; }
+        public int getRounds() { return rounds; }
+        // Sizes for which the two versions printed different output.
+        public List<Integer> getMismatchedSizes() { return mismatchedSizes; }
+        public boolean isOutputsMatch() { return mismatchedSizes.isEmpty(); }
+    }
+
+    private final int rounds;
+    private final Random random;
+
+    public ABComparison(int rounds) {
+        this(rounds, new Random());
+    }
+
+    public ABComparison(int rounds, Random random) {
+        this.rounds = Math.max(MIN_ROUNDS, rounds);
+        this.random = random;
+    }
+
+    public int getRounds() { return rounds; }
+
+    // {version, index, round} triples in the order they are run.
+    List<int[]> plan(int pointCount) {
+        List<int[]> order = new ArrayList<>();
+        List<Integer> indices = new ArrayList<>();
+        for (int i = 0; i < pointCount; i++) {
+            indices.add(i);
+        }
+        for (int round = 0; round < rounds; round++) {
+            Collections.shuffle(indices, random);
+            for (int index : indices) {
+                int first = random.nextBoolean() ? VERSION_A : VERSION_B;
+                order.add(new int[]{first, index, round});
+                order.add(new int[]{1 - first, index, round});
+            }
+        }
+        return order;
+    }
+
+    public Report run(List<Integer> sizes, RunMeasurer measurer) throws Exception {
+        int pointCount = sizes.size();
+        List<List<List<AnalysisResult>>> runs = new ArrayList<>();
+        for (int version = VERSION_A; version <= VERSION_B; version++) {
+            List<List<AnalysisResult>> versionRuns = new ArrayList<>();
+            for (int i = 0; i < pointCount; i++) {
+                versionRuns.add(new ArrayList<>(Collections.nCopies(rounds, null)));
+            }
+            runs.add(versionRuns);
+        }
+
+        for (int[] step : plan(pointCount)) {
+            if (Thread.currentThread().isInterrupted()) {
+                throw new InterruptedException();
+            }
+            runs.get(step[0]).get(step[1]).set(step[2], measurer.measure(step[0], step[1], step[2]));
+        }
+
+        List<Point> points = new ArrayList<>();
+        for (int i = 0; i < pointCount; i++) {
+            List<AnalysisResult> runsA = runs.get(VERSION_A).get(i);
+            List<AnalysisResult> runsB = runs.get(VERSION_B).get(i);
+            Ratio[] ratios = new Ratio[Metric.values().length];
+            for (Metric metric : Metric.values()) {
+                ratios[metric.ordinal()] = compare(values(runsA, metric), values(runsB, metric));
+            }
+            points.add(new Point(sizes.get(i), runsA, runsB, ratios));
+        }
+        return new Report(points, rounds, new ArrayList<>());
+    }
+
+    private static double mean(List<AnalysisResult> runs, Metric metric) {
+        return Arrays.stream(values(runs, metric)).average().orElse(Double.NaN);
+    }
+
+    private static double[] values(List<AnalysisResult> runs, Metric metric) {
+        double[] values = new double[runs.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = metric.of(runs.get(i));
+        }
+        return values;
+    }
+
+    // Mean of the per-round log ratios with a t interval, exponentiated. Pairing by round
+    // cancels what both versions of a round share. NaN bounds, and so no verdict, when only one
+    // version of a round measured zero.
+    static Ratio compare(double[] a, double[] b) {
+        int n = a.length;
+        ListStatistics logRatios = new ListStatistics();
+        for (int i = 0; i < n; i++) {
+            if (Double.isNaN(a[i]) || Double.isNaN(b[i])) {
+                return new Ratio(Double.NaN, Double.NaN, Double.NaN);
+            }
+            if (a[i] <= 0 || b[i] <= 0) {
+                if (a[i] > 0 || b[i] > 0) {
+                    return new Ratio(ratio(Arrays.stream(a).sum(), Arrays.stream(b).sum()), Double.NaN, Double.NaN);
+                }
+                logRatios.addValue(0);
+            } else {
+                logRatios.addValue(Math.log(a[i] / b[i]));
+            }
+        }
+        double mean = logRatios.getMean();
+        double halfWidth = n < 2 ? Double.NaN : logRatios.getStandardDeviation() == 0 ? 0
+                : logRatios.getMeanErrorAt(CONFIDENCE);
+        return new Ratio(Math.exp(mean), Math.exp(mean - halfWidth), Math.exp(mean + halfWidth));
+    }
+
+    private static double ratio(double a, double b) {
+        if (b == 0) {
+            return a == 0 ? 1 : Double.POSITIVE_INFINITY;
+        }
+        return a / b;
+    }
+}
@@ -0,0 +1,200 @@
+package main.core;
+
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.BenchmarkResult;
+import org.openjdk.jmh.results.IterationResult;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+import org.openjdk.jmh.util.ListStatistics;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Convergence-driven replacement for fixed JMH iteration counts. Short in-process rounds are
+ * run until the AverageTime scores stop drifting, then measured until the confidence interval
+ * of the mean is within the target or the time budget is spent. The user's classes stay
+ * loaded across rounds so the JIT's work carries over.
+ */
+public class AdaptiveBenchmarkRunner {
+    public static final double CONFIDENCE = 0.95;
+    public static final double DEFAULT_TARGET_PRECISION = 0.03;
+    public static final long DEFAULT_BUDGET_MILLIS = 10_000;
+
+    private static final long ITERATION_MILLIS = 200;
+    private static final int ITERATIONS_PER_ROUND = 3;
+    // Consecutive warm-up rounds whose means differ by less than this are steady.
+    private static final double STEADY_STATE_TOLERANCE = 0.05;
+
+    private final double targetPrecision;
+    private final long budgetMillis;
+
+    public AdaptiveBenchmarkRunner() {
+        this(DEFAULT_TARGET_PRECISION, DEFAULT_BUDGET_MILLIS);
+    }
+
+    // targetPrecision is the CI half-width as a fraction of the mean; the budget is per input.
+    public AdaptiveBenchmarkRunner(double targetPrecision, long budgetMillis) {
+        this.targetPrecision = targetPrecision;
+        this.budgetMillis = budgetMillis;
+    }
+
+    public double getTargetPrecision() { return targetPrecision; }
+    public long getBudgetMillis() { return budgetMillis; }
+
+    // Form used on the benchmark JVM's command line.
+    String toArgument() {
+        return targetPrecision + ":" + budgetMillis;
+    }
+
+    // Null for "fixed", the argument used when iteration counts are not adaptive.
+    static AdaptiveBenchmarkRunner fromArgument(String argument) {
+        if (argument == null || argument.equals("fixed")) {
+            return null;
+        }
+        String[] parts = argument.split(":");
+        return new AdaptiveBenchmarkRunner(Double.parseDouble(parts[0]), Long.parseLong(parts[1]));
+    }
+
+    // CI half-width of the mean over the mean; NaN with fewer than two scores.
+    public static double relativeHalfWidth(List<Double> scores) {
+        if (scores.size() < 2) {
+            return Double.NaN;
+        }
+        ListStatistics statistics = new ListStatistics();
+        for (double score : scores) {
+            statistics.addValue(score);
+        }
+        return statistics.getMeanErrorAt(CONFIDENCE) / Math.abs(statistics.getMean());
+    }
+
+    // Standard deviation over the mean; NaN with fewer than two scores.
+    public static double coefficientOfVariation(List<Double> scores) {
+        if (scores.size() < 2) {
+            return Double.NaN;
+        }
+        ListStatistics statistics = new ListStatistics();
+        for (double score : scores) {
+            statistics.addValue(score);
+        }
+        return statistics.getStandardDeviation() / Math.abs(statistics.getMean());
+    }
+
+    // Runs inside the benchmark JVM; one input at a time, each with freshly loaded classes.
+    List<BenchmarkRecord> run(String classDir, String className, List<String> inputFilePaths,
+                              String captureOutput) throws Exception {
+        List<BenchmarkRecord> records = new ArrayList<>();
+        for (int i = 0; i < inputFilePaths.size(); i++) {
+            CodeExecutor.UserCodeBenchmark.retainClasses(true);
+            try {
+                records.addAll(runInput(classDir, className, inputFilePaths.get(i), i, captureOutput));
+            } finally {
+                CodeExecutor.UserCodeBenchmark.retainClasses(false);
+            }
+        }
+        return records;
+    }
+
+    private List<BenchmarkRecord> runInput(String classDir, String className, String inputFilePath,
+                                           int inputIndex, String captureOutput) throws Exception {
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(budgetMillis);
+        long warmupDeadline = start + TimeUnit.MILLISECONDS.toNanos(budgetMillis / 2);
+
+        double previousMean = Double.NaN;
+        while (true) {
+            long roundStart = System.nanoTime();
+            List<Double> scores = new ArrayList<>();
+            for (RunResult result : runRound(classDir, className, inputFilePath, captureOutput, true)) {
+                scores.addAll(iterationScores(result));
+            }
+            double mean = mean(scores);
+            long now = System.nanoTime();
+            if (!Double.isNaN(previousMean) && Math.abs(mean - previousMean) <= STEADY_STATE_TOLERANCE * previousMean) {
+                break;
+            }
+            if (now + (now - roundStart) > warmupDeadline) {
+                break;
+            }
+            previousMean = mean;
+        }
+
+        // Every mode's rounds are kept and merged at the end as if each round were a fork.
+        Map<Mode, BenchmarkParams> params = new EnumMap<>(Mode.class);
+        Map<Mode, List<BenchmarkResult>> measured = new EnumMap<>(Mode.class);
+        List<Double> timeScores = new ArrayList<>();
+        while (true) {
+            long roundStart = System.nanoTime();
+            for (RunResult result : runRound(classDir, className, inputFilePath, captureOutput, false)) {
+                Mode mode = result.getParams().getMode();
+                params.putIfAbsent(mode, result.getParams());
+                measured.computeIfAbsent(mode, k -> new ArrayList<>()).addAll(result.getBenchmarkResults());
+                if (mode == Mode.AverageTime) {
+                    timeScores.addAll(iterationScores(result));
+                }
+            }
+            long now = System.nanoTime();
+            if (relativeHalfWidth(timeScores) <= targetPrecision) {
+                break;
+            }
+            if (now + (now - roundStart) > deadline) {
+                break;
+            }
+        }
+
+        List<BenchmarkRecord> records = new ArrayList<>();
+        for (Map.Entry<Mode, List<BenchmarkResult>> entry : measured.entrySet()) {
+            RunResult merged = new RunResult(params.get(entry.getKey()), entry.getValue());
+            records.add(BenchmarkRecord.from(merged, inputIndex));
+        }
+        return records;
+    }
+
+    // Warm-up rounds only time the calls; measurement rounds run every mode with the GC profiler.
+    private static Collection<RunResult> runRound(String classDir, String className, String inputFilePath,
+                                                  String captureOutput, boolean warmup) throws Exception {
+        OptionsBuilder options = CodeExecutor.benchmarkOptionsBuilder(classDir, className,
+                Collections.singletonList(inputFilePath), captureOutput);
+        options.forks(0)
+                .warmupIterations(0)
+                .measurementIterations(ITERATIONS_PER_ROUND)
+                .measurementTime(TimeValue.milliseconds(ITERATION_MILLIS));
+        if (warmup) {
+            options.mode(Mode.AverageTime);
+        } else {
+            options.addProfiler(GCProfiler.class);
+        }
+        Collection<RunResult> results = new Runner(options.build()).run();
+        if (results == null || results.isEmpty()) {
+            throw new Exception("no benchmark results");
+        }
+        return results;
+    }
+
+    private static List<Double> iterationScores(RunResult result) {
+        List<Double> scores = new ArrayList<>();
+        for (BenchmarkResult benchmarkResult : result.getBenchmarkResults()) {
+            for (IterationResult iteration : benchmarkResult.getIterationResults()) {
+                scores.add(iteration.getPrimaryResult().getScore());
+            }
+        }
+        return scores;
+    }
+
+    private static double mean(List<Double> values) {
+        double sum = 0;
+        for (double value : values) {
+            sum += value;
+        }
+        return values.isEmpty() ? Double.NaN : sum / values.size();
+    }
+}
@@ -10,10 +10,50 @@ public class AnalysisResult {
     private final double p50Latency;
     private final double p95Latency;
     private final double p99Latency;
+    private final double precision;
+    private final double peakLiveHeap;
+    private final double retainedHeap;
+    private final double coefficientOfVariation;
+    private final int retries;
+    private final boolean outlier;
+    private final boolean extrapolated;
 
     public AnalysisResult(double executionTime, double memoryUsed, int inputSize,
                           double throughput, double gcPauseTime, double heapAllocationRate,
                           double p50Latency, double p95Latency, double p99Latency) {
+        this(executionTime, memoryUsed, inputSize, throughput, gcPauseTime, heapAllocationRate,
+                p50Latency, p95Latency, p99Latency, Double.NaN);
+    }
+
+    public AnalysisResult(double executionTime, double memoryUsed, int inputSize,
+                          double throughput, double gcPauseTime, double heapAllocationRate,
+                          double p50Latency, double p95Latency, double p99Latency, double precision) {
+        this(executionTime, memoryUsed, inputSize, throughput, gcPauseTime, heapAllocationRate,
+                p50Latency, p95Latency, p99Latency, precision, Double.NaN, Double.NaN);
+    }
+
+    public AnalysisResult(double executionTime, double memoryUsed, int inputSize,
+                          double throughput, double gcPauseTime, double heapAllocationRate,
+                          double p50Latency, double p95Latency, double p99Latency, double precision,
+                          double peakLiveHeap, double retainedHeap) {
+        this(executionTime, memoryUsed, inputSize, throughput, gcPauseTime, heapAllocationRate,
+                p50Latency, p95Latency, p99Latency, precision, peakLiveHeap, retainedHeap, Double.NaN);
+    }
+
+    public AnalysisResult(double executionTime, double memoryUsed, int inputSize,
+                          double throughput, double gcPauseTime, double heapAllocationRate,
+                          double p50Latency, double p95Latency, double p99Latency, double precision,
+                          double peakLiveHeap, double retainedHeap, double coefficientOfVariation) {
+        this(executionTime, memoryUsed, inputSize, throughput, gcPauseTime, heapAllocationRate,
+                p50Latency, p95Latency, p99Latency, precision, peakLiveHeap, retainedHeap,
+                coefficientOfVariation, 0, false, false);
+    }
+
+    private AnalysisResult(double executionTime, double memoryUsed, int inputSize,
+                           double throughput, double gcPauseTime, double heapAllocationRate,
+                           double p50Latency, double p95Latency, double p99Latency, double precision,
+                           double peakLiveHeap, double retainedHeap, double coefficientOfVariation,
+                           int retries, boolean outlier, boolean extrapolated) {
         this.executionTime = executionTime;
         this.memoryUsed = memoryUsed;
         this.inputSize = inputSize;
@@ -23,6 +63,28 @@ public class AnalysisResult {
         this.p50Latency = p50Latency;
         this.p95Latency = p95Latency;
         this.p99Latency = p99Latency;
+        this.precision = precision;
+        this.peakLiveHeap = peakLiveHeap;
+        this.retainedHeap = retainedHeap;
+        this.coefficientOfVariation = coefficientOfVariation;
+        this.retries = retries;
+        this.outlier = outlier;
+        this.extrapolated = extrapolated;
+    }
+
+    // A size that was predicted from the measured ones rather than run; only time and memory
+    // are known.
+    public static AnalysisResult extrapolated(int inputSize, double executionTime, double memoryUsed) {
+        return new AnalysisResult(executionTime, memoryUsed, inputSize, Double.NaN, Double.NaN, Double.NaN,
+                Double.NaN, Double.NaN, Double.NaN, Double.NaN, Double.NaN, Double.NaN, Double.NaN, 0, false, true);
+    }
+
+    // Copy carrying the outcome of OutlierScreen: how often the point was measured again and
+    // whether it still looks wrong.
+    public AnalysisResult withScreening(int retries, boolean outlier) {
+        return new AnalysisResult(executionTime, memoryUsed, inputSize, throughput, gcPauseTime, heapAllocationRate,
+                p50Latency, p95Latency, p99Latency, precision, peakLiveHeap, retainedHeap, coefficientOfVariation,
+                retries, outlier, extrapolated);
     }
 
     public double getExecutionTime() { return executionTime; }
@@ -34,4 +96,16 @@ public class AnalysisResult {
     public double getP50Latency() { return p50Latency; }
     public double getP95Latency() { return p95Latency; }
     public double getP99Latency() { return p99Latency; }
+    // Relative 95% CI half-width of the execution time; NaN when it could not be estimated.
+    public double getPrecision() { return precision; }
+    // Bytes the program held at once, as opposed to getMemoryUsed(), which is what it allocated
+    // per call; NaN when not measured.
+    public double getPeakLiveHeap() { return peakLiveHeap; }
+    public double getRetainedHeap() { return retainedHeap; }
+    // Standard deviation over mean of the per-iteration times; NaN when not measured.
+    public double getCoefficientOfVariation() { return coefficientOfVariation; }
+    // Extra measurements OutlierScreen made of this point.
+    public int getRetries() { return retries; }
+    public boolean isOutlier() { return outlier; }
+    public boolean isExtrapolated() { return extrapolated; }
 }
@@ -0,0 +1,68 @@
+package main.core;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The values InputGenerator writes for array input. Random and the sorted orders show the
+ * usual cases; the others are the inputs that make sorts, searches and hash tables slow, so a
+ * sweep can look for the worst case instead of the typical one. The key is what follows
+ * "array:" in an input type.
+ */
+public enum ArrayDistribution {
+    RANDOM("random", "Random (0–99)"),
+    RANDOM_FULL_RANGE("random-full", "Random (Full Range)"),
+    SORTED("sorted", "Sorted"),
+    REVERSE_SORTED("reverse-sorted", "Reverse Sorted"),
+    NEARLY_SORTED("nearly-sorted", "Nearly Sorted"),
+    FEW_UNIQUE("few-unique", "Few Unique"),
+    ALL_EQUAL("all-equal", "All Equal"),
+    // Rising to the middle, then falling.
+    ORGAN_PIPE("organ-pipe", "Organ Pipe"),
+    // Runs of about √n rising values.
+    SAWTOOTH("sawtooth", "Sawtooth"),
+    // Value k - 1 about 1/k as often as 0.
+    ZIPFIAN("zipfian", "Zipfian"),
+    // Musser's permutation that makes median-of-3 quicksort take quadratic time.
+    MEDIAN_OF_3_KILLER("median-of-3-killer", "Median-of-3 Killer"),
+    // Keys java.util.HashMap puts in one bucket.
+    HASH_COLLISIONS("hash-collisions", "Hash Collisions");
+
+    // The distribution the band's middle line is measured with.
+    public static final ArrayDistribution AVERAGE = RANDOM_FULL_RANGE;
+    public static final String BAND_LABEL = "Best / Average / Worst";
+
+    private final String key;
+    private final String label;
+
+    ArrayDistribution(String key, String label) {
+        this.key = key;
+        this.label = label;
+    }
+
+    public String getKey() { return key; }
+    public String getLabel() { return label; }
+
+    // Everything measured for the best/worst band. Random (0–99) is left out; its hundred
+    // distinct values make it a kinder case of Few Unique.
+    public static List<ArrayDistribution> bandCases() {
+        List<ArrayDistribution> cases = new ArrayList<>(List.of(values()));
+        cases.remove(RANDOM);
+        return cases;
+    }
+
+    // Null for a label that names no distribution, such as the band's.
+    public static ArrayDistribution fromLabel(String label) {
+        for (ArrayDistribution distribution : values()) {
+            if (distribution.label.equals(label)) {
+                return distribution;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public String toString() {
+        return label;
+    }
+}
@@ -0,0 +1,159 @@
+package main.core;
+
+import org.openjdk.jmh.results.BenchmarkResult;
+import org.openjdk.jmh.results.IterationResult;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.util.Statistics;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Everything the analyzer keeps from one JMH RunResult: primary and secondary scores with
+ * their error, the primary score's raw sample histogram and the per-iteration scores.
+ */
+public class BenchmarkRecord {
+
+    public static class Score {
+        public final String label;
+        public final double score;
+        public final double error;
+        public final String unit;
+        public final long sampleCount;
+
+        public Score(String label, double score, double error, String unit, long sampleCount) {
+            this.label = label;
+            this.score = score;
+            this.error = error;
+            this.unit = unit;
+            this.sampleCount = sampleCount;
+        }
+
+        static Score of(Result<?> result) {
+            return new Score(result.getLabel(), result.getScore(), result.getScoreError(),
+                    result.getScoreUnit(), result.getSampleCount());
+        }
+    }
+
+    private final int inputIndex;
+    private final String mode;
+    private final Map<String, String> params;
+    private final Score primary;
+    private final Map<String, Score> secondaries;
+    private final List<Double> iterationScores;
+    private final Map<String, List<Double>> secondaryIterationScores;
+    // Distinct sample values and how often each occurred, ascending by value.
+    private final List<double[]> histogram;
+
+    public BenchmarkRecord(int inputIndex, String mode, Map<String, String> params, Score primary,
+                           Map<String, Score> secondaries, List<Double> iterationScores,
+                           Map<String, List<Double>> secondaryIterationScores, List<double[]> histogram) {
+        this.inputIndex = inputIndex;
+        this.mode = mode;
+        this.params = Collections.unmodifiableMap(params);
+        this.primary = primary;
+        this.secondaries = Collections.unmodifiableMap(secondaries);
+        this.iterationScores = Collections.unmodifiableList(iterationScores);
+        this.secondaryIterationScores = Collections.unmodifiableMap(secondaryIterationScores);
+        this.histogram = Collections.unmodifiableList(histogram);
+    }
+
+    public static BenchmarkRecord from(RunResult result, int inputIndex) {
+        Map<String, String> params = new LinkedHashMap<>();
+        for (String key : result.getParams().getParamsKeys()) {
+            params.put(key, result.getParams().getParam(key));
+        }
+
+        Map<String, Score> secondaries = new LinkedHashMap<>();
+        // JMH's map holds raw Results; looking values up by key keeps the raw type out of here.
+        for (String key : result.getSecondaryResults().keySet()) {
+            Result<?> secondary = result.getSecondaryResults().get(key);
+            secondaries.put(key, Score.of(secondary));
+        }
+
+        List<Double> iterationScores = new ArrayList<>();
+        Map<String, List<Double>> secondaryIterationScores = new LinkedHashMap<>();
+        for (BenchmarkResult benchmarkResult : result.getBenchmarkResults()) {
+            for (IterationResult iteration : benchmarkResult.getIterationResults()) {
+                iterationScores.add(iteration.getPrimaryResult().getScore());
+                for (String key : iteration.getSecondaryResults().keySet()) {
+                    Result<?> secondary = iteration.getSecondaryResults().get(key);
+                    secondaryIterationScores.computeIfAbsent(key, k -> new ArrayList<>()).add(secondary.getScore());
+                }
+            }
+        }
+
+        List<double[]> histogram = new ArrayList<>();
+        Statistics statistics = result.getPrimaryResult().getStatistics();
+        Iterator<Map.Entry<Double, Long>> rawData = statistics.getRawData();
+        while (rawData.hasNext()) {
+            Map.Entry<Double, Long> bin = rawData.next();
+            histogram.add(new double[]{bin.getKey(), bin.getValue()});
+        }
+        histogram.sort((a, b) -> Double.compare(a[0], b[0]));
+
+        return new BenchmarkRecord(inputIndex, result.getParams().getMode().name(), params,
+                Score.of(result.getPrimaryResult()), secondaries, iterationScores,
+                secondaryIterationScores, histogram);
+    }
+
+    // Copy of this record with one more param.
+    public BenchmarkRecord withParam(String key, String value) {
+        Map<String, String> copy = new LinkedHashMap<>(params);
+        copy.put(key, value);
+        return new BenchmarkRecord(inputIndex, mode, copy, primary, secondaries, iterationScores,
+                secondaryIterationScores, histogram);
+    }
+
+    public int getInputIndex() { return inputIndex; }
+    public String getMode() { return mode; }
+    public Map<String, String> getParams() { return params; }
+    public Score getPrimary() { return primary; }
+    public Map<String, Score> getSecondaries() { return secondaries; }
+    public List<Double> getIterationScores() { return iterationScores; }
+    public Map<String, List<Double>> getSecondaryIterationScores() { return secondaryIterationScores; }
+    public List<double[]> getHistogram() { return histogram; }
+
+    public double secondaryScore(String name) {
+        Score score = secondaries.get(name);
+        return score == null ? 0 : score.score;
+    }
+
+    // Percentile (0-100) over the raw sample histogram, matching JMH's Statistics.getPercentile.
+    public double percentile(double percentile) {
+        long total = 0;
+        for (double[] bin : histogram) {
+            total += (long) bin[1];
+        }
+        if (total == 0) {
+            return Double.NaN;
+        }
+        double position = percentile / 100.0 * (total + 1);
+        if (position < 1) {
+            return histogram.get(0)[0];
+        }
+        if (position >= total) {
+            return histogram.get(histogram.size() - 1)[0];
+        }
+        double lower = valueAt(Math.max(1, (long) Math.floor(position)));
+        double upper = valueAt((long) Math.floor(position) + 1);
+        return lower + (position - Math.floor(position)) * (upper - lower);
+    }
+
+    // Value of the 1-based rank in the sorted sample.
+    private double valueAt(long rank) {
+        long seen = 0;
+        for (double[] bin : histogram) {
+            seen += (long) bin[1];
+            if (seen >= rank) {
+                return bin[0];
+            }
+        }
+        return histogram.get(histogram.size() - 1)[0];
+    }
+}
@@ -0,0 +1,294 @@
+package main.core;
+
+import java.io.*;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryUsage;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Pool of long-lived benchmark JVMs. Each worker runs JMH in-process unless fork isolation is
+ * requested, loading the user's classes in a fresh URLClassLoader per trial, and is replaced
+ * after a fixed number of jobs or
+ * once its heap or metaspace grows past a threshold. Jobs go to the worker's stdin as
+ * tab-separated lines; results and replies come back on its stdout as a ResultChannel stream.
+ */
+public class BenchmarkWorkerPool implements AutoCloseable {
+    private static final int DEFAULT_MAX_JOBS_PER_WORKER = 25;
+    private static final double HEAP_RECYCLE_FRACTION = 0.75;
+    private static final long METASPACE_RECYCLE_BYTES = 128L * 1024 * 1024;
+
+    private final int size;
+    private final int maxJobsPerWorker;
+    private final BlockingQueue<Worker> idle = new LinkedBlockingQueue<>();
+    private final List<Worker> workers = new ArrayList<>();
+    private final ExecutorService replyReaders = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "benchmark-worker-reply");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private boolean closed = false;
+
+    private static class Worker {
+        final Process process;
+        final BufferedWriter commands;
+        final ResultChannel.Reader replies;
+        int jobs = 0;
+
+        Worker(Process process) {
+            this.process = process;
+            this.commands = new BufferedWriter(new OutputStreamWriter(process.getOutputStream(), StandardCharsets.UTF_8));
+            this.replies = new ResultChannel.Reader(process.getInputStream());
+        }
+    }
+
+    public BenchmarkWorkerPool() {
+        this(defaultSize(), DEFAULT_MAX_JOBS_PER_WORKER);
+    }
+
+    public BenchmarkWorkerPool(int size, int maxJobsPerWorker) {
+        this.size = Math.max(1, size);
+        this.maxJobsPerWorker = Math.max(1, maxJobsPerWorker);
+    }
+
+    // One core per worker for the benchmark thread, one left over for JIT and GC threads.
+    public static int defaultSize() {
+        return Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    private static class Reply {
+        final List<BenchmarkRecord> records = new ArrayList<>();
+        String failure;
+        long[] memory = new long[0];
+    }
+
+    public List<BenchmarkRecord> run(File classDir, String className, List<Path> inputFiles,
+                                     boolean captureOutput, int forks, boolean batchInvocations,
+                                     String iterationControl) throws Exception {
+        return run(classDir, className, inputFiles, captureOutput, forks, batchInvocations, iterationControl, 0);
+    }
+
+    // A job still running after timeoutMillis (0 for none) takes its worker down with it.
+    public List<BenchmarkRecord> run(File classDir, String className, List<Path> inputFiles,
+                                     boolean captureOutput, int forks, boolean batchInvocations,
+                                     String iterationControl, long timeoutMillis) throws Exception {
+        Worker worker = borrow();
+        boolean reusable = false;
+        try {
+            StringBuilder job = new StringBuilder(String.join("\t", "RUN",
+                    classDir.getAbsolutePath(), className,
+                    String.valueOf(captureOutput), String.valueOf(forks), String.valueOf(batchInvocations),
+                    iterationControl));
+            for (Path inputFile : inputFiles) {
+                job.append('\t').append(inputFile.toAbsolutePath());
+            }
+            worker.commands.write(job.toString());
+            worker.commands.newLine();
+            worker.commands.flush();
+
+            Reply reply = awaitReply(worker, timeoutMillis);
+            if (reply == null) {
+                throw new Exception("Benchmark worker exited unexpectedly");
+            }
+            worker.jobs++;
+            if (reply.failure != null) {
+                reusable = worker.jobs < maxJobsPerWorker;
+                throw new Exception("JMH benchmarking failed in worker: " + reply.failure);
+            }
+            reusable = !needsRecycle(worker, reply.memory);
+            return reply.records;
+        } finally {
+            giveBack(worker, reusable);
+        }
+    }
+
+    private Reply awaitReply(Worker worker, long timeoutMillis) throws Exception {
+        Future<Reply> reply = replyReaders.submit(() -> readReply(worker.replies));
+        try {
+            return timeoutMillis > 0 ? reply.get(timeoutMillis, TimeUnit.MILLISECONDS) : reply.get();
+        } catch (TimeoutException e) {
+            CodeExecutor.destroyProcessTree(worker.process);
+            throw CodeExecutor.timeout(timeoutMillis);
+        } catch (InterruptedException e) {
+            // The reader thread stays blocked until the worker is gone.
+            CodeExecutor.destroyProcessTree(worker.process);
+            throw e;
+        } catch (ExecutionException e) {
+            return null;
+        }
+    }
+
+    // Collects records until the job's DONE or FAILED frame; null if the worker went away.
+    private static Reply readReply(ResultChannel.Reader replies) throws IOException {
+        Reply reply = new Reply();
+        ResultChannel.Frame frame;
+        while ((frame = replies.next()) != null) {
+            if (frame.getTag() == ResultChannel.TAG_RECORD) {
+                reply.records.add(frame.getRecord());
+            } else if (frame.getTag() == ResultChannel.TAG_DONE) {
+                reply.memory = frame.getValues();
+                return reply;
+            } else if (frame.getTag() == ResultChannel.TAG_FAILED) {
+                reply.failure = frame.getMessage();
+                return reply;
+            }
+        }
+        return null;
+    }
+
+    private boolean needsRecycle(Worker worker, long[] memory) {
+        if (worker.jobs >= maxJobsPerWorker || memory.length < 3) {
+            return true;
+        }
+        long heapUsed = memory[0];
+        long heapMax = memory[1];
+        long metaspaceUsed = memory[2];
+        return (heapMax > 0 && heapUsed > heapMax * HEAP_RECYCLE_FRACTION)
+                || metaspaceUsed > METASPACE_RECYCLE_BYTES;
+    }
+
+    private Worker borrow() throws Exception {
+        while (true) {
+            synchronized (this) {
+                if (closed) {
+                    throw new IllegalStateException("Benchmark worker pool is closed");
+                }
+                Worker worker = idle.poll();
+                if (worker != null) {
+                    return worker;
+                }
+                if (workers.size() < size) {
+                    worker = start();
+                    workers.add(worker);
+                    return worker;
+                }
+            }
+            Worker worker = idle.poll(1, java.util.concurrent.TimeUnit.SECONDS);
+            if (worker != null) {
+                return worker;
+            }
+        }
+    }
+
+    private void giveBack(Worker worker, boolean reusable) {
+        synchronized (this) {
+            if (reusable && !closed && worker.process.isAlive()) {
+                idle.add(worker);
+                return;
+            }
+            workers.remove(worker);
+            stop(worker);
+            if (!closed && workers.size() < size) {
+                try {
+                    // Start the replacement now so the next job does not wait on a cold JVM.
+                    Worker replacement = start();
+                    workers.add(replacement);
+                    idle.add(replacement);
+                } catch (IOException e) {
+                    System.err.println("Could not start benchmark worker: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    private static Worker start() throws IOException {
+        ProcessBuilder pb = new ProcessBuilder(
+                CodeExecutor.javaExecutable(),
+                // Several workers may run JMH at the same time on this host.
+                "-Djmh.ignoreLock=true",
+                "-cp",
+                System.getProperty("java.class.path"),
+                BenchmarkWorkerPool.class.getName()
+        );
+        pb.redirectError(ProcessBuilder.Redirect.DISCARD);
+        return new Worker(pb.start());
+    }
+
+    private static void stop(Worker worker) {
+        try {
+            worker.commands.write("QUIT");
+            worker.commands.newLine();
+            worker.commands.flush();
+        } catch (IOException e) {
+            // Already gone.
+        }
+        CompletableFuture.runAsync(() -> {
+            try {
+                if (!worker.process.waitFor(5, java.util.concurrent.TimeUnit.SECONDS)) {
+                    worker.process.destroyForcibly();
+                }
+            } catch (InterruptedException e) {
+                worker.process.destroyForcibly();
+            }
+        });
+    }
+
+    @Override
+    public void close() {
+        synchronized (this) {
+            closed = true;
+            for (Worker worker : workers) {
+                stop(worker);
+            }
+            workers.clear();
+            idle.clear();
+        }
+        replyReaders.shutdownNow();
+    }
+
+    // Worker side: reads jobs from stdin until QUIT or end of stream.
+    public static void main(String[] args) throws Exception {
+        ResultChannel.Writer replies = new ResultChannel.Writer(new FileOutputStream(FileDescriptor.out));
+        BufferedReader commands = new BufferedReader(new InputStreamReader(new FileInputStream(FileDescriptor.in), StandardCharsets.UTF_8));
+        // JMH and the user's code must never write into the reply channel.
+        System.setOut(System.err);
+
+        String line;
+        while ((line = commands.readLine()) != null) {
+            String[] job = line.split("\t");
+            if (!"RUN".equals(job[0]) || job.length < 8) {
+                break;
+            }
+            try {
+                List<String> inputFilePaths = Arrays.asList(job).subList(7, job.length);
+                List<BenchmarkRecord> records = CodeExecutor.runBenchmarks(job[1], job[2], inputFilePaths,
+                        job[3], Integer.parseInt(job[4]), Boolean.parseBoolean(job[5]), job[6]);
+                for (BenchmarkRecord record : records) {
+                    replies.writeRecord(record);
+                }
+
+                System.gc();
+                MemoryUsage heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+                replies.writeDone(heap.getUsed(), heap.getMax(), metaspaceUsed());
+            } catch (Throwable e) {
+                replies.writeFailed(String.valueOf(e.getMessage()).replaceAll("\\s+", " "));
+            }
+        }
+    }
+
+    private static long metaspaceUsed() {
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if ("Metaspace".equals(pool.getName())) {
+                return pool.getUsage().getUsed();
+            }
+        }
+        return 0;
+    }
+}
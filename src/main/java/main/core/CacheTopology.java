@@ -0,0 +1,115 @@
+package main.core;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Data cache sizes of this machine as Linux reports them under /sys/devices/system/cpu, plus
+ * the reach of the data TLB where /proc/cpuinfo states it. Empty on other systems.
+ */
+public class CacheTopology {
+    private static final Path CACHE_DIR = Paths.get("/sys/devices/system/cpu/cpu0/cache");
+    private static final Path CPUINFO = Paths.get("/proc/cpuinfo");
+    // e.g. "TLB size	: 3072 4K pages", only given by some CPUs.
+    private static final Pattern TLB_SIZE = Pattern.compile("^TLB size\\s*:\\s*(\\d+)\\s+(\\d+[KMG])\\s+pages",
+            Pattern.MULTILINE);
+
+    private static List<Level> levels;
+
+    public static class Level {
+        private final String name;
+        private final long bytes;
+
+        public Level(String name, long bytes) {
+            this.name = name;
+            this.bytes = bytes;
+        }
+
+        public String getName() { return name; }
+        public long getBytes() { return bytes; }
+
+        @Override
+        public String toString() {
+            return name + " (" + formatBytes(bytes) + ")";
+        }
+    }
+
+    // Smallest first; read once, since the hardware does not change while we run.
+    public static synchronized List<Level> read() {
+        if (levels == null) {
+            levels = Collections.unmodifiableList(read(CACHE_DIR, CPUINFO));
+        }
+        return levels;
+    }
+
+    static List<Level> read(Path cacheDir, Path cpuinfo) {
+        List<Level> found = new ArrayList<>();
+        if (Files.isDirectory(cacheDir)) {
+            try (DirectoryStream<Path> indexes = Files.newDirectoryStream(cacheDir, "index*")) {
+                for (Path index : indexes) {
+                    try {
+                        String type = readLine(index.resolve("type"));
+                        if ("Instruction".equals(type)) {
+                            continue;
+                        }
+                        String level = readLine(index.resolve("level"));
+                        long bytes = parseSize(readLine(index.resolve("size")));
+                        found.add(new Level("Data".equals(type) ? "L" + level + "d" : "L" + level, bytes));
+                    } catch (IOException | NumberFormatException ignored) {
+                        // Some entries are missing on virtual machines; the rest still count.
+                    }
+                }
+            } catch (IOException ignored) {
+            }
+        }
+        try {
+            if (Files.isReadable(cpuinfo)) {
+                Matcher matcher = TLB_SIZE.matcher(Files.readString(cpuinfo));
+                if (matcher.find()) {
+                    found.add(new Level("TLB reach",
+                            Long.parseLong(matcher.group(1)) * parseSize(matcher.group(2))));
+                }
+            }
+        } catch (IOException | NumberFormatException ignored) {
+        }
+        found.sort(Comparator.comparingLong(Level::getBytes));
+        return found;
+    }
+
+    // Sizes as sysfs writes them: "48K", "2048K", "32M", or plain bytes.
+    static long parseSize(String size) {
+        String text = size.trim().toUpperCase();
+        long unit = 1;
+        switch (text.isEmpty() ? ' ' : text.charAt(text.length() - 1)) {
+            case 'K': unit = 1024L; break;
+            case 'M': unit = 1024L * 1024; break;
+            case 'G': unit = 1024L * 1024 * 1024; break;
+            default: return Long.parseLong(text);
+        }
+        return Long.parseLong(text.substring(0, text.length() - 1)) * unit;
+    }
+
+    public static String formatBytes(double bytes) {
+        if (bytes >= 1024.0 * 1024 * 1024) {
+            return String.format("%.1f GiB", bytes / (1024.0 * 1024 * 1024));
+        } else if (bytes >= 1024.0 * 1024) {
+            return String.format("%.1f MiB", bytes / (1024.0 * 1024));
+        } else if (bytes >= 1024) {
+            return String.format("%.0f KiB", bytes / 1024.0);
+        }
+        return String.format("%.0f B", bytes);
+    }
+
+    private static String readLine(Path file) throws IOException {
+        return Files.readString(file).trim();
+    }
+}
@@ -2,32 +2,109 @@ package main.core;
 
 import java.io.File;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
 import java.util.regex.Pattern;
 
 public class CodeAnalyzer {
     private static final int WARMUP_RUNS = 3;
     private static final int MEASUREMENT_RUNS = 5;
+    // Shortest adaptive budget a slice gets, enough to warm up and take a few iterations.
+    private static final long MIN_SLICE_MILLIS = 1_000;
 
     private final CodeCompiler codeCompiler = new CodeCompiler();
+    private final CompilationCache compilationCache = new CompilationCache(codeCompiler);
     private final CodeExecutor codeExecutor = new CodeExecutor();
     private final InputGenerator inputGenerator = new InputGenerator();
+    private long sweepBudgetMillis = 0;
+    private int outlierRetryBudget = OutlierScreen.DEFAULT_RETRY_BUDGET;
+    private ArrayDistribution arrayDistribution = ArrayDistribution.RANDOM;
+    private String stringType = StringDistribution.WORDS.spec(null);
 
+    // Generated inputs are shared through the on-disk cache with every other analysis.
+    public CodeAnalyzer() {
+        inputGenerator.setCache(new InputCache(InputCache.defaultDirectory(), InputCache.DEFAULT_MAX_BYTES));
+    }
 
     public String getGeneratedInput() {
         return inputGenerator.getGeneratedInput();
     }
 
+    // Range sweeps reuse warm worker JVMs; the pool is started on first use.
+    public synchronized void setUseWorkerPool(boolean useWorkerPool) {
+        if (useWorkerPool && codeExecutor.getWorkerPool() == null) {
+            codeExecutor.setWorkerPool(new BenchmarkWorkerPool());
+        } else if (!useWorkerPool && codeExecutor.getWorkerPool() != null) {
+            codeExecutor.getWorkerPool().close();
+            codeExecutor.setWorkerPool(null);
+        }
+    }
+
+    public long getSweepBudgetMillis() {
+        return sweepBudgetMillis;
+    }
+
+    // Deadline for a whole point-by-point sweep; 0 means none. See SweepBudget.
+    public void setSweepBudgetMillis(long sweepBudgetMillis) {
+        this.sweepBudgetMillis = sweepBudgetMillis;
+    }
+
+    public int getOutlierRetryBudget() {
+        return outlierRetryBudget;
+    }
+
+    // Re-runs OutlierScreen may spend on suspect points per sweep; 0 only flags them.
+    public void setOutlierRetryBudget(int outlierRetryBudget) {
+        this.outlierRetryBudget = outlierRetryBudget;
+    }
+
+    public ArrayDistribution getArrayDistribution() {
+        return arrayDistribution;
+    }
+
+    // Values of the array inputs sweeps generate, including the ones generated here.
+    public void setArrayDistribution(ArrayDistribution arrayDistribution) {
+        this.arrayDistribution = arrayDistribution;
+    }
+
+    public String getStringType() {
+        return stringType;
+    }
+
+    // Text generated for programs that read a line; a blank alphabet means the default one.
+    // Throws IllegalArgumentException for an alphabet the distribution cannot use.
+    public void setStringDistribution(StringDistribution distribution, String alphabet) {
+        this.stringType = distribution.spec(alphabet);
+    }
+
+    public void shutdown() {
+        setUseWorkerPool(false);
+    }
+
+    public CompilationCache getCompilationCache() {
+        return compilationCache;
+    }
+
     public String getExecutionOutput() {
         return codeExecutor.getExecutionOutput();
     }
 
-    public String generateInput(String code, int size) {
-        return inputGenerator.generateInput(code, size);
+    public OutputCapture getOutputCapture() {
+        return codeExecutor.getOutputCapture();
+    }
+
+    // Generated inputs live in temp files; whoever asks for one discards it when done.
+    public ProgramInput generateInput(String code, int size) {
+        return inputGenerator.generateInput(code, size, arrayDistribution.getKey(), stringType);
     }
-    
-    public String generateInput(String code, int size, String arrayType) {
-        return inputGenerator.generateInput(code, size, arrayType);
+
+    public ProgramInput generateInput(String code, int size, String arrayType) {
+        return inputGenerator.generateInput(code, size, arrayType, stringType);
     }
 
     public boolean hasMainMethod(String code) {
@@ -71,6 +148,17 @@ public class CodeAnalyzer {
                         .find();
     }
 
+    // The InputGenerator spec of the input generated for code.
+    public String getInputSpec(String code) {
+        return inputGenerator.specFor(code, arrayDistribution.getKey(), stringType);
+    }
+
+    // True when the input generated for code is made of int arrays, the only input the array
+    // distributions change.
+    public boolean readsGeneratedArrays(String code) {
+        return InputGenerator.isArraySpec(getInputSpec(code));
+    }
+
     public boolean hasHardcodedInput(String code) {
         String codeWithoutComments = stripComments(code);
         String[] patterns = {
@@ -106,42 +194,31 @@ public class CodeAnalyzer {
             throw new Exception("Could not find class name in the code.");
         }
 
-        File tempDir = codeCompiler.createTempDirectory();
-        File sourceFile = new File(tempDir, className + ".java");
-
-        try {
-            try (java.io.PrintWriter writer = new java.io.PrintWriter(sourceFile)) {
-                writer.println(code);
-            }
-
-            String compilationError = codeCompiler.compileCode(sourceFile);
-            if (compilationError != null) {
-                throw new Exception("Compilation failed: " + compilationError);
-            }
+        try (CompilationCache.Lease lease = compilationCache.acquire(className, code)) {
+            File classDir = lease.getClassDirectory();
 
             if (input.startsWith("generate:")) {
                 String[] parts = input.split(":", 3);
                 if (parts.length == 3 && parts[0].equals("generate")) {
                     String inputType = parts[1];
-                    String[] sizesStr = parts[2].split(",");
-                    int[] sizes = new int[sizesStr.length];
-                    for (int i = 0; i < sizesStr.length; i++) {
-                        sizes[i] = Integer.parseInt(sizesStr[i]);
-                    }
-                    List<AnalysisResult> measurements = new ArrayList<>();
-                    for (int size : sizes) {
-                        String generatedInput = inputGenerator.generateInputForType(inputType, size);
-                        inputGenerator.setGeneratedInput(generatedInput);
+                    List<Integer> sizes = new ArrayList<>();
+                    List<ProgramInput> inputs = new ArrayList<>();
+                    try {
+                        for (String sizeStr : parts[2].split(",")) {
+                            int size = Integer.parseInt(sizeStr);
+                            sizes.add(size);
+                            inputs.add(inputGenerator.generateInputForType(inputType, size));
+                        }
+                        inputGenerator.setGeneratedInput(inputs.get(inputs.size() - 1).getPreview());
                         System.gc();
                         Thread.sleep(100);
-                        CodeExecutor.PerformanceMetrics metrics = codeExecutor.executeAndMeasure(tempDir, className, generatedInput);
-                        measurements.add(new AnalysisResult(metrics.executionTime, metrics.memoryUsed, size,
-                                metrics.throughput, metrics.gcPauseTime, metrics.heapAllocationRate,
-                                metrics.p50Latency, metrics.p95Latency, metrics.p99Latency));
-                    }
+                        List<AnalysisResult> measurements = measureSweep(classDir, className, sizes, inputs, false);
 
-                    // Return result with last measurement
-                    return measurements.get(measurements.size() - 1);
+                        // Return result with last measurement
+                        return measurements.get(measurements.size() - 1);
+                    } finally {
+                        inputs.forEach(ProgramInput::discard);
+                    }
                 } else {
                     throw new Exception("Invalid input format for detailed analysis");
                 }
@@ -165,13 +242,526 @@ public class CodeAnalyzer {
 
                 System.gc();
                 Thread.sleep(100);
-                CodeExecutor.PerformanceMetrics metrics = codeExecutor.executeAndMeasure(tempDir, className, input);
-                return new AnalysisResult(metrics.executionTime, metrics.memoryUsed, inputSize,
-                        metrics.throughput, metrics.gcPauseTime, metrics.heapAllocationRate,
-                        metrics.p50Latency, metrics.p95Latency, metrics.p99Latency);
+                CodeExecutor.PerformanceMetrics metrics = codeExecutor.executeAndMeasure(classDir, className,
+                        ProgramInput.ofText(input));
+                return toResult(metrics, inputSize);
+            }
+        }
+    }
+
+    // One benchmark point on an input the caller generated for the given size.
+    public AnalysisResult analyzeCode(String code, ProgramInput input, int inputSize) throws Exception {
+        String className = codeCompiler.extractClassName(code);
+        if (className == null) {
+            throw new Exception("Could not find class name in the code.");
+        }
+
+        try (CompilationCache.Lease lease = compilationCache.acquire(className, code)) {
+            inputGenerator.setGeneratedInput(input.getPreview());
+            System.gc();
+            Thread.sleep(100);
+            return toResult(codeExecutor.executeAndMeasure(lease.getClassDirectory(), className, input), inputSize);
+        }
+    }
+
+    // Benchmarks all sizes in one JMH invocation. Each size only gets a fork of its own when
+    // isolateSizes is set; otherwise they share one benchmark JVM.
+    // Suspect points are then measured again one at a time; see OutlierScreen.
+    public List<AnalysisResult> analyzeSweep(String code, List<Integer> sizes, List<ProgramInput> inputs,
+                                             boolean isolateSizes) throws Exception {
+        String className = codeCompiler.extractClassName(code);
+        if (className == null) {
+            throw new Exception("Could not find class name in the code.");
+        }
+        if (sizes.isEmpty() || sizes.size() != inputs.size()) {
+            throw new IllegalArgumentException("Each sweep size needs exactly one input");
+        }
+
+        try (CompilationCache.Lease lease = compilationCache.acquire(className, code)) {
+            inputGenerator.setGeneratedInput(inputs.get(inputs.size() - 1).getPreview());
+            System.gc();
+            Thread.sleep(100);
+            List<AnalysisResult> results = measureSweep(lease.getClassDirectory(), className, sizes, inputs, isolateSizes);
+            return screenOutliers(lease.getClassDirectory(), className, code, results, sizes, inputs,
+                    isolateSizes, null);
+        }
+    }
+
+    // Benchmarks up to `concurrency` sizes at a time on disjoint cores, handing each result
+    // to onResult in size order as soon as every smaller size is done. With a sweep budget,
+    // sizes predicted not to fit in what is left are measured smaller or extrapolated.
+    // The report's results have been through OutlierScreen, so they can differ from those
+    // onResult saw.
+    public SweepScheduler.Report analyzeSweepParallel(String code, List<Integer> sizes, List<ProgramInput> inputs,
+                                                      boolean isolateSizes, int concurrency,
+                                                      Consumer<AnalysisResult> onResult) throws Exception {
+        String className = codeCompiler.extractClassName(code);
+        if (className == null) {
+            throw new Exception("Could not find class name in the code.");
+        }
+        if (sizes.isEmpty() || sizes.size() != inputs.size()) {
+            throw new IllegalArgumentException("Each sweep size needs exactly one input");
+        }
+
+        try (CompilationCache.Lease lease = compilationCache.acquire(className, code)) {
+            inputGenerator.setGeneratedInput(inputs.get(inputs.size() - 1).getPreview());
+            SweepBudget budget = newSweepBudget();
+            SweepScheduler.Report report = measurePoints(lease.getClassDirectory(), className, code, sizes, inputs,
+                    isolateSizes, concurrency, budget, sizes.size() - 1, onResult);
+            return new SweepScheduler.Report(screenOutliers(lease.getClassDirectory(), className, code,
+                    report.getResults(), sizes, inputs, isolateSizes, budget), report.isInterferenceSuspected(),
+                    report.getDivergence(), report.getCheckedSizes());
+        }
+    }
+
+    // Measures a coarse log-spaced pass from minSize to maxSize, then keeps adding sizes where
+    // the curve needs them (see SizeSchedule.refine) until `points` sizes are done or the sweep
+    // budget cannot afford more. Results come back sorted by size; onResult sees them per round.
+    public SweepScheduler.Report analyzeSweepAdaptive(String code, int minSize, int maxSize, int points,
+                                                      boolean isolateSizes, int concurrency,
+                                                      Consumer<AnalysisResult> onResult) throws Exception {
+        String className = codeCompiler.extractClassName(code);
+        if (className == null) {
+            throw new Exception("Could not find class name in the code.");
+        }
+
+        try (CompilationCache.Lease lease = compilationCache.acquire(className, code)) {
+            File classDir = lease.getClassDirectory();
+            SweepBudget budget = newSweepBudget();
+            List<Integer> sizes = new ArrayList<>(SizeSchedule.geometric(minSize, maxSize,
+                    Math.min(points, SizeSchedule.COARSE_POINTS)));
+            List<ProgramInput> inputs = generateInputs(code, sizes);
+            try {
+                inputGenerator.setGeneratedInput(inputs.get(inputs.size() - 1).getPreview());
+
+                SweepScheduler.Report round = measurePoints(classDir, className, code, sizes, inputs, isolateSizes,
+                        concurrency, budget, sizes.size() - 1, onResult);
+                List<AnalysisResult> results = new ArrayList<>(round.getResults());
+                boolean interferenceSuspected = round.isInterferenceSuspected();
+                double divergence = round.getDivergence();
+                List<Integer> checkedSizes = new ArrayList<>(round.getCheckedSizes());
+
+                while (results.size() < points) {
+                    if (Thread.currentThread().isInterrupted()) {
+                        throw new InterruptedException();
+                    }
+                    List<Integer> measuredSizes = new ArrayList<>();
+                    List<Double> times = new ArrayList<>();
+                    for (AnalysisResult result : results) {
+                        if (!result.isExtrapolated()) {
+                            measuredSizes.add(result.getInputSize());
+                            times.add(result.getExecutionTime());
+                        }
+                    }
+                    // One size per lane keeps every round's information fresh for the next.
+                    List<Integer> next = new ArrayList<>();
+                    for (int size : SizeSchedule.refine(measuredSizes, times,
+                            Math.min(Math.max(1, concurrency), points - results.size()))) {
+                        if (budget == null || budget.canAfford(size)) {
+                            next.add(size);
+                        }
+                    }
+                    if (next.isEmpty()) {
+                        break;
+                    }
+                    List<ProgramInput> nextInputs = generateInputs(code, next);
+                    sizes.addAll(next);
+                    inputs.addAll(nextInputs);
+                    round = measurePoints(classDir, className, code, next, nextInputs, isolateSizes,
+                            concurrency, budget, -1, onResult);
+                    results.addAll(round.getResults());
+                    interferenceSuspected |= round.isInterferenceSuspected();
+                    if (Math.abs(round.getDivergence()) > Math.abs(divergence)) {
+                        divergence = round.getDivergence();
+                    }
+                    checkedSizes.addAll(round.getCheckedSizes());
+                }
+                results = screenOutliers(classDir, className, code, results, sizes, inputs, isolateSizes, budget);
+                return new SweepScheduler.Report(results, interferenceSuspected, divergence, checkedSizes);
+            } finally {
+                inputs.forEach(ProgramInput::discard);
             }
+        }
+    }
+
+    // Measures each size in `slices` shorter runs, interleaved across sizes in random order
+    // so that drift over the sweep cancels out; see InterleavedScheduler. Each slice gets an
+    // equal share of the adaptive runner's per-input budget.
+    public InterleavedScheduler.Report analyzeSweepInterleaved(String code, List<Integer> sizes, List<ProgramInput> inputs,
+                                                               boolean isolateSizes, int slices) throws Exception {
+        String className = codeCompiler.extractClassName(code);
+        if (className == null) {
+            throw new Exception("Could not find class name in the code.");
+        }
+        if (sizes.isEmpty() || sizes.size() != inputs.size()) {
+            throw new IllegalArgumentException("Each sweep size needs exactly one input");
+        }
+
+        try (CompilationCache.Lease lease = compilationCache.acquire(className, code)) {
+            File classDir = lease.getClassDirectory();
+            inputGenerator.setGeneratedInput(inputs.get(inputs.size() - 1).getPreview());
+            SweepBudget budget = newSweepBudget();
+            AdaptiveBenchmarkRunner runner = codeExecutor.getAdaptiveRunner();
+            AdaptiveBenchmarkRunner sliceRunner = runner == null ? null
+                    : new AdaptiveBenchmarkRunner(runner.getTargetPrecision(),
+                    Math.max(MIN_SLICE_MILLIS, runner.getBudgetMillis() / Math.max(1, slices)));
+            int captureIndex = sizes.size() - 1;
+
+            InterleavedScheduler.Report report = new InterleavedScheduler(slices).run(sizes, (index, slice) -> {
+                int size = sizes.get(index);
+                if (budget != null && budget.remainingMillis() <= 0) {
+                    return budget.extrapolate(size);
+                }
+                CodeExecutor lane = newLane(budget);
+                if (lane == null) {
+                    return budget.extrapolate(size);
+                }
+                lane.setAdaptiveRunner(sliceRunner);
+                CodeExecutor.PerformanceMetrics metrics;
+                try {
+                    metrics = lane.executeSweep(classDir, className, Collections.singletonList(inputs.get(index)),
+                            isolateSizes, null).get(0);
+                } catch (TimeoutException e) {
+                    if (budget == null) {
+                        throw e;
+                    }
+                    budget.exhaust();
+                    return budget.extrapolate(size);
+                }
+                if (index == captureIndex && slice == 0) {
+                    codeExecutor.setOutputCapture(lane.getOutputCapture());
+                } else {
+                    lane.getOutputCapture().discard();
+                }
+                return toResult(metrics, size);
+            }, budget);
+            return report.withResults(screenOutliers(classDir, className, code, report.getResults(), sizes, inputs,
+                    isolateSizes, budget));
+        }
+    }
+
+    // Benchmarks two versions of a program against each other on the same inputs, alternating
+    // between them; see ABComparison. Each run gets an equal share of the adaptive runner's
+    // per-input budget. The first round's outputs are compared, but none of them is kept.
+    public ABComparison.Report compare(String codeA, String codeB, List<Integer> sizes, List<ProgramInput> inputs,
+                                       boolean isolateSizes, int rounds) throws Exception {
+        String classNameA = codeCompiler.extractClassName(codeA);
+        String classNameB = codeCompiler.extractClassName(codeB);
+        if (classNameA == null || classNameB == null) {
+            throw new Exception("Could not find class name in " + (classNameA == null ? "version A." : "version B."));
+        }
+        if (sizes.isEmpty() || sizes.size() != inputs.size()) {
+            throw new IllegalArgumentException("Each sweep size needs exactly one input");
+        }
+
+        try (CompilationCache.Lease leaseA = compilationCache.acquire(classNameA, codeA);
+             CompilationCache.Lease leaseB = compilationCache.acquire(classNameB, codeB)) {
+            File[] classDirs = {leaseA.getClassDirectory(), leaseB.getClassDirectory()};
+            String[] classNames = {classNameA, classNameB};
+            inputGenerator.setGeneratedInput(inputs.get(inputs.size() - 1).getPreview());
+            ABComparison comparison = new ABComparison(rounds);
+            AdaptiveBenchmarkRunner runner = codeExecutor.getAdaptiveRunner();
+            AdaptiveBenchmarkRunner runRunner = runner == null ? null
+                    : new AdaptiveBenchmarkRunner(runner.getTargetPrecision(),
+                    Math.max(MIN_SLICE_MILLIS, runner.getBudgetMillis() / comparison.getRounds()));
+            String[][] outputHashes = new String[2][sizes.size()];
+
+            ABComparison.Report report = comparison.run(sizes, (version, index, round) -> {
+                CodeExecutor lane = newLane(null);
+                lane.setAdaptiveRunner(runRunner);
+                try {
+                    CodeExecutor.PerformanceMetrics metrics = lane.executeSweep(classDirs[version], classNames[version],
+                            Collections.singletonList(inputs.get(index)), isolateSizes, null).get(0);
+                    if (round == 0) {
+                        outputHashes[version][index] = lane.getOutputCapture().getSha256();
+                    }
+                    return toResult(metrics, sizes.get(index));
+                } finally {
+                    lane.getOutputCapture().discard();
+                }
+            });
+
+            List<Integer> mismatchedSizes = new ArrayList<>();
+            for (int i = 0; i < sizes.size(); i++) {
+                if (!outputHashes[ABComparison.VERSION_A][i].equals(outputHashes[ABComparison.VERSION_B][i])) {
+                    mismatchedSizes.add(sizes.get(i));
+                }
+            }
+            return report.withMismatchedSizes(mismatchedSizes);
+        }
+    }
+
+    // Searches [minSize, maxSize] for the size where the two versions' times cross; see
+    // CrossoverFinder. Inputs come from generateInputForType when an input type such as
+    // "array:sorted" is given, otherwise from version A's reads; both versions get the same
+    // input for a size.
+    public CrossoverFinder.Result findCrossover(String codeA, String codeB, String inputType, int minSize,
+                                                int maxSize, boolean isolateSizes) throws Exception {
+        String classNameA = codeCompiler.extractClassName(codeA);
+        String classNameB = codeCompiler.extractClassName(codeB);
+        if (classNameA == null || classNameB == null) {
+            throw new Exception("Could not find class name in " + (classNameA == null ? "version A." : "version B."));
+        }
+
+        try (CompilationCache.Lease leaseA = compilationCache.acquire(classNameA, codeA);
+             CompilationCache.Lease leaseB = compilationCache.acquire(classNameB, codeB)) {
+            File[] classDirs = {leaseA.getClassDirectory(), leaseB.getClassDirectory()};
+            String[] classNames = {classNameA, classNameB};
+            Map<Integer, ProgramInput> inputsBySize = new HashMap<>();
+
+            try {
+                CrossoverFinder.Result result = new CrossoverFinder().find(minSize, maxSize, (version, size) -> {
+                    ProgramInput input = inputsBySize.computeIfAbsent(size, s -> inputType == null
+                            ? generateInput(codeA, s) : inputGenerator.generateInputForType(inputType, s));
+                    CodeExecutor lane = newLane(null);
+                    try {
+                        return toResult(lane.executeSweep(classDirs[version], classNames[version],
+                                Collections.singletonList(input), isolateSizes, null).get(0), size);
+                    } finally {
+                        lane.getOutputCapture().discard();
+                    }
+                });
+                inputGenerator.setGeneratedInput(inputsBySize.get(result.getSamples()
+                        .get(result.getSamples().size() - 1).getInputSize()).getPreview());
+                return result;
+            } finally {
+                inputsBySize.values().forEach(ProgramInput::discard);
+            }
+        }
+    }
+
+    // Benchmarks a JDK reference program on the given inputs, one size at a time. Its output
+    // is dropped; the captured output and shown input stay those of the user's program.
+    public List<AnalysisResult> analyzeBaseline(ReferenceBaseline baseline, List<Integer> sizes, List<ProgramInput> inputs,
+                                                boolean isolateSizes) throws Exception {
+        if (sizes.size() != inputs.size()) {
+            throw new IllegalArgumentException("Each sweep size needs exactly one input");
+        }
+        try (CompilationCache.Lease lease = compilationCache.acquire(baseline.getClassName(), baseline.getSource())) {
+            List<AnalysisResult> results = new ArrayList<>();
+            for (int i = 0; i < sizes.size(); i++) {
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new InterruptedException();
+                }
+                CodeExecutor lane = newLane(null);
+                try {
+                    results.add(toResult(lane.executeSweep(lease.getClassDirectory(), baseline.getClassName(),
+                            Collections.singletonList(inputs.get(i)), isolateSizes, null).get(0), sizes.get(i)));
+                } finally {
+                    lane.getOutputCapture().discard();
+                }
+            }
+            return results;
+        }
+    }
+
+    // Benchmarks the program at each size on inputs of every given distribution and adds the
+    // times to band, for the best and worst cases around a sweep. Like analyzeBaseline it
+    // leaves the captured output and shown input those of the sweep; onDistribution hears
+    // which distribution is next. Sizes are expected smallest first. Within budget, if not
+    // null, each distribution's costs are predicted from its own points; sizes it cannot
+    // afford are left out of the band, as are those above a point that had to be killed.
+    public void analyzeBand(String code, List<Integer> sizes, List<ArrayDistribution> distributions,
+                            boolean isolateSizes, SweepBudget budget, DistributionBand band,
+                            Consumer<ArrayDistribution> onDistribution) throws Exception {
+        String className = codeCompiler.extractClassName(code);
+        if (className == null) {
+            throw new Exception("Could not find class name in the code.");
+        }
+
+        String shownInput = inputGenerator.getGeneratedInput();
+        try (CompilationCache.Lease lease = compilationCache.acquire(className, code)) {
+            for (ArrayDistribution distribution : distributions) {
+                onDistribution.accept(distribution);
+                // Same deadline, but fitted to this distribution alone.
+                SweepBudget distributionBudget = budget == null ? null : new SweepBudget(budget.remainingMillis());
+                for (int size : sizes) {
+                    if (Thread.currentThread().isInterrupted()) {
+                        throw new InterruptedException();
+                    }
+                    if (distributionBudget != null && !distributionBudget.canAfford(size)) {
+                        break;
+                    }
+                    ProgramInput input = inputGenerator.generateInput(code, size, distribution.getKey(), stringType);
+                    CodeExecutor lane = newLane(distributionBudget);
+                    if (lane == null) {
+                        input.discard();
+                        break;
+                    }
+                    long start = System.nanoTime();
+                    AnalysisResult result;
+                    try {
+                        result = toResult(lane.executeSweep(lease.getClassDirectory(), className,
+                                Collections.singletonList(input), isolateSizes, null).get(0), size);
+                    } catch (TimeoutException e) {
+                        // Larger sizes would take longer still.
+                        break;
+                    } finally {
+                        lane.getOutputCapture().discard();
+                        input.discard();
+                    }
+                    band.add(distribution, size, result.getExecutionTime());
+                    if (distributionBudget != null) {
+                        distributionBudget.record(result, (System.nanoTime() - start) / 1_000_000);
+                    }
+                }
+            }
+        } finally {
+            inputGenerator.setGeneratedInput(shownInput);
+        }
+    }
+
+    private List<ProgramInput> generateInputs(String code, List<Integer> sizes) {
+        List<ProgramInput> inputs = new ArrayList<>();
+        for (int size : sizes) {
+            inputs.add(generateInput(code, size));
+        }
+        return inputs;
+    }
+
+    private SweepBudget newSweepBudget() {
+        return sweepBudgetMillis > 0 ? new SweepBudget(sweepBudgetMillis) : null;
+    }
+
+    // One SweepScheduler pass over the given sizes. The output of the point at captureIndex
+    // becomes the analyzer's output; -1 keeps the current one.
+    private SweepScheduler.Report measurePoints(File classDir, String className, String code,
+                                                List<Integer> sizes, List<ProgramInput> inputs, boolean isolateSizes,
+                                                int concurrency, SweepBudget budget, int captureIndex,
+                                                Consumer<AnalysisResult> onResult) throws Exception {
+        SweepScheduler scheduler = new SweepScheduler(concurrency);
+        return scheduler.run(sizes.size(), (index, cpuSet) -> {
+            int size = sizes.get(index);
+            ProgramInput input = inputs.get(index);
+            if (budget != null && !budget.canAfford(size)) {
+                int downscaled = budget.downscale(size);
+                if (downscaled < 0) {
+                    return budget.extrapolate(size);
+                }
+                size = downscaled;
+                input = generateInput(code, downscaled);
+            }
+
+            CodeExecutor lane = newLane(budget);
+            if (lane == null) {
+                if (input != inputs.get(index)) {
+                    input.discard();
+                }
+                return budget.extrapolate(sizes.get(index));
+            }
+            long start = System.nanoTime();
+            CodeExecutor.PerformanceMetrics metrics;
+            try {
+                metrics = lane.executeSweep(classDir, className, Collections.singletonList(input),
+                        isolateSizes, cpuSet).get(0);
+            } catch (TimeoutException e) {
+                if (budget == null) {
+                    throw e;
+                }
+                budget.exhaust();
+                return budget.extrapolate(sizes.get(index));
+            } finally {
+                if (input != inputs.get(index)) {
+                    input.discard();
+                }
+            }
+            if (index == captureIndex) {
+                codeExecutor.setOutputCapture(lane.getOutputCapture());
+            } else {
+                lane.getOutputCapture().discard();
+            }
+            AnalysisResult result = toResult(metrics, size);
+            if (budget != null) {
+                budget.record(result, (System.nanoTime() - start) / 1_000_000);
+            }
+            return result;
+        }, onResult);
+    }
+
+    // Each lane gets its own executor so captured output does not interleave. With a budget,
+    // the lane is stopped at its deadline; null if the deadline has already passed, as it can
+    // while a large input is being generated, since a point timeout of 0 means no limit.
+    private CodeExecutor newLane(SweepBudget budget) {
+        long remainingMillis = budget == null ? 0 : budget.remainingMillis();
+        if (budget != null && remainingMillis <= 0) {
+            return null;
+        }
+        CodeExecutor lane = new CodeExecutor();
+        lane.setVerifyInBenchmarkFork(codeExecutor.isVerifyInBenchmarkFork());
+        lane.setBatchInvocations(codeExecutor.isBatchInvocations());
+        lane.setAdaptiveRunner(codeExecutor.getAdaptiveRunner());
+        // Unpinned lanes can use the warm workers; pinned runs bypass the pool anyway.
+        lane.setWorkerPool(codeExecutor.getWorkerPool());
+        if (budget != null) {
+            lane.setPointTimeoutMillis(remainingMillis);
+        }
+        return lane;
+    }
+
+    // Runs OutlierScreen over a finished sweep, sorted by size. Re-runs happen one at a time on
+    // the same input as the first run and within what is left of the budget; their output is
+    // dropped, the captured output stays that of the sweep.
+    private List<AnalysisResult> screenOutliers(File classDir, String className, String code,
+                                                List<AnalysisResult> results, List<Integer> sizes,
+                                                List<ProgramInput> inputs, boolean isolateSizes,
+                                                SweepBudget budget) throws Exception {
+        List<AnalysisResult> sorted = new ArrayList<>(results);
+        sorted.sort(Comparator.comparingInt(AnalysisResult::getInputSize));
+        Map<Integer, ProgramInput> inputsBySize = new HashMap<>();
+        for (int i = 0; i < sizes.size(); i++) {
+            inputsBySize.put(sizes.get(i), inputs.get(i));
+        }
+        List<ProgramInput> generated = new ArrayList<>();
+        String shownInput = inputGenerator.getGeneratedInput();
+        try {
+            return new OutlierScreen(outlierRetryBudget).screen(sorted, index -> {
+                int size = sorted.get(index).getInputSize();
+                if (budget != null && !budget.canAfford(size)) {
+                    return budget.extrapolate(size);
+                }
+                // Sizes the budget shrank were generated on the fly.
+                ProgramInput input = inputsBySize.computeIfAbsent(size, s -> {
+                    ProgramInput downscaled = generateInput(code, s);
+                    generated.add(downscaled);
+                    return downscaled;
+                });
+                CodeExecutor lane = newLane(budget);
+                if (lane == null) {
+                    return budget.extrapolate(size);
+                }
+                try {
+                    return toResult(lane.executeSweep(classDir, className, Collections.singletonList(input),
+                            isolateSizes, null).get(0), size);
+                } catch (TimeoutException e) {
+                    if (budget == null) {
+                        throw e;
+                    }
+                    budget.exhaust();
+                    return budget.extrapolate(size);
+                } finally {
+                    lane.getOutputCapture().discard();
+                }
+            });
         } finally {
-            codeCompiler.deleteDirectory(tempDir);
+            inputGenerator.setGeneratedInput(shownInput);
+            generated.forEach(ProgramInput::discard);
         }
     }
+
+    private List<AnalysisResult> measureSweep(File classDir, String className, List<Integer> sizes,
+                                              List<ProgramInput> inputs, boolean isolateSizes) throws Exception {
+        List<CodeExecutor.PerformanceMetrics> metrics = codeExecutor.executeSweep(classDir, className, inputs, isolateSizes);
+        List<AnalysisResult> results = new ArrayList<>();
+        for (int i = 0; i < sizes.size(); i++) {
+            results.add(toResult(metrics.get(i), sizes.get(i)));
+        }
+        return results;
+    }
+
+    private static AnalysisResult toResult(CodeExecutor.PerformanceMetrics metrics, int inputSize) {
+        return new AnalysisResult(metrics.executionTime, metrics.memoryUsed, inputSize,
+                metrics.throughput, metrics.gcPauseTime, metrics.heapAllocationRate,
+                metrics.p50Latency, metrics.p95Latency, metrics.p99Latency, metrics.precision,
+                metrics.peakLiveBytes, metrics.retainedBytes, metrics.coefficientOfVariation);
+    }
 }
@@ -1,11 +1,143 @@
 package main.core;
 
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.FileObject;
+import javax.tools.ForwardingJavaFileManager;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileManager;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
 import java.io.*;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 public class CodeCompiler {
 
+    // javac flags used for every submission; the snippets are self-contained, so annotation
+    // processors and the analyzer's own classpath are kept out of the compilation.
+    static final List<String> COMPILER_OPTIONS = List.of("-proc:none", "-classpath", "");
+
+    private static final Path TMPFS_ROOT = Paths.get("/dev/shm");
+
+    public static class CompilationDiagnostic {
+        private final String kind;
+        private final long line;
+        private final long column;
+        private final String message;
+
+        public CompilationDiagnostic(String kind, long line, long column, String message) {
+            this.kind = kind;
+            this.line = line;
+            this.column = column;
+            this.message = message;
+        }
+
+        public String getKind() { return kind; }
+        public long getLine() { return line; }
+        public long getColumn() { return column; }
+        public String getMessage() { return message; }
+
+        @Override
+        public String toString() {
+            if (line <= 0) {
+                return kind + ": " + message;
+            }
+            return "Line " + line + ", column " + column + ": " + kind + ": " + message;
+        }
+    }
+
+    public static class CompilationResult {
+        private final String className;
+        private final Map<String, byte[]> classBytes;
+        private final List<CompilationDiagnostic> diagnostics;
+        private final boolean success;
+
+        public CompilationResult(String className, Map<String, byte[]> classBytes,
+                                 List<CompilationDiagnostic> diagnostics, boolean success) {
+            this.className = className;
+            this.classBytes = Collections.unmodifiableMap(classBytes);
+            this.diagnostics = Collections.unmodifiableList(diagnostics);
+            this.success = success;
+        }
+
+        public String getClassName() { return className; }
+        public Map<String, byte[]> getClassBytes() { return classBytes; }
+        public List<CompilationDiagnostic> getDiagnostics() { return diagnostics; }
+        public boolean isSuccess() { return success; }
+
+        public String formatDiagnostics() {
+            StringBuilder sb = new StringBuilder();
+            for (CompilationDiagnostic diagnostic : diagnostics) {
+                sb.append(diagnostic).append("\n");
+            }
+            return sb.toString();
+        }
+    }
+
+    private static class SourceObject extends SimpleJavaFileObject {
+        private final String code;
+
+        SourceObject(String className, String code) {
+            super(URI.create("string:///" + className.replace('.', '/') + Kind.SOURCE.extension), Kind.SOURCE);
+            this.code = code;
+        }
+
+        @Override
+        public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+            return code;
+        }
+    }
+
+    private static class ClassObject extends SimpleJavaFileObject {
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        ClassObject(String className) {
+            super(URI.create("bytes:///" + className.replace('.', '/') + Kind.CLASS.extension), Kind.CLASS);
+        }
+
+        @Override
+        public OutputStream openOutputStream() {
+            return bytes;
+        }
+    }
+
+    private static class InMemoryFileManager extends ForwardingJavaFileManager<StandardJavaFileManager> {
+        private final Map<String, ClassObject> outputs = new LinkedHashMap<>();
+
+        InMemoryFileManager(StandardJavaFileManager fileManager) {
+            super(fileManager);
+        }
+
+        @Override
+        public JavaFileObject getJavaFileForOutput(Location location, String className,
+                                                   JavaFileObject.Kind kind, FileObject sibling) {
+            ClassObject classObject = new ClassObject(className);
+            outputs.put(className, classObject);
+            return classObject;
+        }
+
+        Map<String, byte[]> getClassBytes() {
+            Map<String, byte[]> result = new LinkedHashMap<>();
+            for (Map.Entry<String, ClassObject> entry : outputs.entrySet()) {
+                result.put(entry.getKey(), entry.getValue().bytes.toByteArray());
+            }
+            return result;
+        }
+    }
+
     public String extractClassName(String code) {
         Pattern pattern = Pattern.compile("public\\s+class\\s+(\\w+)");
         Matcher matcher = pattern.matcher(code);
@@ -16,11 +148,10 @@ public class CodeCompiler {
     }
 
     public File createTempDirectory() throws IOException {
-        File tempDir = new File(System.getProperty("java.io.tmpdir"), "codeanalysis_" + System.currentTimeMillis());
-        if (!tempDir.mkdir()) {
-            throw new IOException("Failed to create temporary directory");
-        }
-        return tempDir;
+        Path root = Files.isDirectory(TMPFS_ROOT) && Files.isWritable(TMPFS_ROOT)
+                ? TMPFS_ROOT
+                : Paths.get(System.getProperty("java.io.tmpdir"));
+        return Files.createTempDirectory(root, "codeanalysis_").toFile();
     }
 
     public void deleteDirectory(File directory) {
@@ -40,32 +171,51 @@ public class CodeCompiler {
         directory.delete();
     }
 
-    public String compileCode(File sourceFile) throws IOException {
-        ProcessBuilder compileBuilder = new ProcessBuilder(
-                "javac",
-                sourceFile.getAbsolutePath()
-        );
-        compileBuilder.redirectErrorStream(true);
-        Process compileProcess = compileBuilder.start();
-
-        StringBuilder output = new StringBuilder();
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(compileProcess.getInputStream()))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                output.append(line).append("\n");
+    public CompilationResult compile(String className, String code) throws IOException {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        if (compiler == null) {
+            throw new IOException("No Java compiler available. Run the analyzer on a JDK, not a JRE.");
+        }
+
+        DiagnosticCollector<JavaFileObject> collector = new DiagnosticCollector<>();
+        try (InMemoryFileManager fileManager = new InMemoryFileManager(
+                compiler.getStandardFileManager(collector, Locale.ROOT, null))) {
+            JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, collector,
+                    COMPILER_OPTIONS, null, List.of(new SourceObject(className, code)));
+            boolean success = task.call();
+
+            List<CompilationDiagnostic> diagnostics = new ArrayList<>();
+            for (Diagnostic<? extends JavaFileObject> diagnostic : collector.getDiagnostics()) {
+                diagnostics.add(new CompilationDiagnostic(
+                        diagnostic.getKind().name().toLowerCase(Locale.ROOT),
+                        diagnostic.getLineNumber(),
+                        diagnostic.getColumnNumber(),
+                        diagnostic.getMessage(Locale.ROOT)));
             }
+            return new CompilationResult(className,
+                    success ? fileManager.getClassBytes() : new LinkedHashMap<>(), diagnostics, success);
         }
+    }
 
+    public File writeClasses(CompilationResult result) throws IOException {
+        File directory = createTempDirectory();
         try {
-            int exitCode = compileProcess.waitFor();
-            if (exitCode != 0) {
-                return output.toString();
-            }
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            throw new IOException("Compilation interrupted", e);
+            writeClasses(result, directory);
+        } catch (IOException e) {
+            deleteDirectory(directory);
+            throw e;
         }
+        return directory;
+    }
 
-        return null;
+    public void writeClasses(CompilationResult result, File directory) throws IOException {
+        for (Map.Entry<String, byte[]> entry : result.getClassBytes().entrySet()) {
+            File classFile = new File(directory, entry.getKey().replace('.', File.separatorChar) + ".class");
+            File parent = classFile.getParentFile();
+            if (!parent.isDirectory() && !parent.mkdirs()) {
+                throw new IOException("Failed to create directory " + parent);
+            }
+            Files.write(classFile.toPath(), entry.getValue());
+        }
     }
 }
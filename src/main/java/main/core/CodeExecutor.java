@@ -6,11 +6,21 @@ import java.net.URLClassLoader;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.lang.reflect.Method;
 
 import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.BenchmarkParams;
 import org.openjdk.jmh.runner.Runner;
 import org.openjdk.jmh.runner.options.Options;
 import org.openjdk.jmh.runner.options.OptionsBuilder;
@@ -18,9 +28,14 @@ import org.openjdk.jmh.results.RunResult;
 import org.openjdk.jmh.profile.GCProfiler;
 
 public class CodeExecutor {
-
-    public static class PerformanceMetrics implements Serializable {
-        private static final long serialVersionUID = 1L;
+    static final long MIN_BATCH_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    static final long CALIBRATION_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    static final int MAX_BATCH_SIZE = 100_000;
+    // Per input when no sweep budget sets a tighter limit; far above what measuring one input
+    // normally takes, so only a program that hangs runs into it.
+    public static final long DEFAULT_POINT_TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(2);
+
+    public static class PerformanceMetrics {
         public final double executionTime;
         public final double memoryUsed;
         public final double throughput;
@@ -29,10 +44,44 @@ public class CodeExecutor {
         public final double p50Latency;
         public final double p95Latency;
         public final double p99Latency;
+        // JMH's 99.9% confidence half-widths; NaN when there were too few iterations.
+        public final double executionTimeError;
+        public final double memoryUsedError;
+        public final double throughputError;
+        // AverageTime CI half-width over the mean, from the per-iteration scores.
+        public final double precision;
+        // AverageTime standard deviation over the mean, from the same scores.
+        public final double coefficientOfVariation;
+        // Every JMH mode's full result for this input.
+        public final List<BenchmarkRecord> records;
+        // Live heap of the verification call above the heap before it: the largest seen after
+        // a collection, and what stayed reachable afterwards. NaN when not measured.
+        public final double peakLiveBytes;
+        public final double retainedBytes;
 
         public PerformanceMetrics(double executionTime, double memoryUsed, double throughput,
                                   double gcPauseTime, double heapAllocationRate,
                                   double p50Latency, double p95Latency, double p99Latency) {
+            this(executionTime, memoryUsed, throughput, gcPauseTime, heapAllocationRate,
+                    p50Latency, p95Latency, p99Latency, Double.NaN, Double.NaN, Double.NaN,
+                    Collections.emptyList());
+        }
+
+        public PerformanceMetrics(double executionTime, double memoryUsed, double throughput,
+                                  double gcPauseTime, double heapAllocationRate,
+                                  double p50Latency, double p95Latency, double p99Latency,
+                                  double executionTimeError, double memoryUsedError, double throughputError,
+                                  List<BenchmarkRecord> records) {
+            this(executionTime, memoryUsed, throughput, gcPauseTime, heapAllocationRate,
+                    p50Latency, p95Latency, p99Latency, executionTimeError, memoryUsedError, throughputError,
+                    records, Double.NaN, Double.NaN);
+        }
+
+        public PerformanceMetrics(double executionTime, double memoryUsed, double throughput,
+                                  double gcPauseTime, double heapAllocationRate,
+                                  double p50Latency, double p95Latency, double p99Latency,
+                                  double executionTimeError, double memoryUsedError, double throughputError,
+                                  List<BenchmarkRecord> records, double peakLiveBytes, double retainedBytes) {
             this.executionTime = executionTime;
             this.memoryUsed = memoryUsed;
             this.throughput = throughput;
@@ -41,13 +90,132 @@ public class CodeExecutor {
             this.p50Latency = p50Latency;
             this.p95Latency = p95Latency;
             this.p99Latency = p99Latency;
+            this.executionTimeError = executionTimeError;
+            this.memoryUsedError = memoryUsedError;
+            this.throughputError = throughputError;
+            this.precision = precisionOf(records);
+            this.coefficientOfVariation = coefficientOfVariationOf(records);
+            this.records = Collections.unmodifiableList(records);
+            this.peakLiveBytes = peakLiveBytes;
+            this.retainedBytes = retainedBytes;
+        }
+
+        PerformanceMetrics withHeapFootprint(double peakLiveBytes, double retainedBytes) {
+            return new PerformanceMetrics(executionTime, memoryUsed, throughput, gcPauseTime, heapAllocationRate,
+                    p50Latency, p95Latency, p99Latency, executionTimeError, memoryUsedError, throughputError,
+                    records, peakLiveBytes, retainedBytes);
+        }
+
+        private static double precisionOf(List<BenchmarkRecord> records) {
+            for (BenchmarkRecord record : records) {
+                if (record.getMode().equals("AverageTime")) {
+                    return AdaptiveBenchmarkRunner.relativeHalfWidth(record.getIterationScores());
+                }
+            }
+            return Double.NaN;
+        }
+
+        private static double coefficientOfVariationOf(List<BenchmarkRecord> records) {
+            for (BenchmarkRecord record : records) {
+                if (record.getMode().equals("AverageTime")) {
+                    return AdaptiveBenchmarkRunner.coefficientOfVariation(record.getIterationScores());
+                }
+            }
+            return Double.NaN;
         }
     }
 
-    private String executionOutput = "";
+    private OutputCapture outputCapture = OutputCapture.empty();
+    private boolean verifyInBenchmarkFork = true;
+    private boolean batchInvocations = true;
+    private AdaptiveBenchmarkRunner adaptiveRunner = new AdaptiveBenchmarkRunner();
+    private long pointTimeoutMillis = DEFAULT_POINT_TIMEOUT_MILLIS;
+    private BenchmarkWorkerPool workerPool;
 
+    // Head and tail of the last run's output; the capture itself has the rest.
     public String getExecutionOutput() {
-        return executionOutput;
+        return outputCapture.getText();
+    }
+
+    public OutputCapture getOutputCapture() {
+        return outputCapture;
+    }
+
+    synchronized void setOutputCapture(OutputCapture outputCapture) {
+        if (this.outputCapture != outputCapture) {
+            this.outputCapture.discard();
+        }
+        this.outputCapture = outputCapture;
+    }
+
+    public boolean isVerifyInBenchmarkFork() {
+        return verifyInBenchmarkFork;
+    }
+
+    // When enabled, the output-capturing run happens inside the JMH fork instead of in a
+    // JVM of its own.
+    public void setVerifyInBenchmarkFork(boolean verifyInBenchmarkFork) {
+        this.verifyInBenchmarkFork = verifyInBenchmarkFork;
+    }
+
+    public boolean isBatchInvocations() {
+        return batchInvocations;
+    }
+
+    // When enabled, programs that finish in under a millisecond are called several times per
+    // measured invocation and the scores are divided back down to one call.
+    public void setBatchInvocations(boolean batchInvocations) {
+        this.batchInvocations = batchInvocations;
+    }
+
+    public AdaptiveBenchmarkRunner getAdaptiveRunner() {
+        return adaptiveRunner;
+    }
+
+    // Null restores the fixed 2 x 1s warm-up and 3 x 1s measurement per mode.
+    public void setAdaptiveRunner(AdaptiveBenchmarkRunner adaptiveRunner) {
+        this.adaptiveRunner = adaptiveRunner;
+    }
+
+    public long getPointTimeoutMillis() {
+        return pointTimeoutMillis;
+    }
+
+    // Wall-clock limit per input for each benchmark JVM run, covering calibration, the
+    // output-capturing call and measurement; past it the JVM and everything it forked is
+    // killed and a TimeoutException is thrown. 0 means no limit.
+    public void setPointTimeoutMillis(long pointTimeoutMillis) {
+        this.pointTimeoutMillis = pointTimeoutMillis;
+    }
+
+    String iterationControlArgument() {
+        return adaptiveRunner == null ? "fixed" : adaptiveRunner.toArgument();
+    }
+
+    public BenchmarkWorkerPool getWorkerPool() {
+        return workerPool;
+    }
+
+    // With a pool set, measurements run in-process on a warm worker JVM instead of a fresh
+    // JMH launch per call.
+    public void setWorkerPool(BenchmarkWorkerPool workerPool) {
+        this.workerPool = workerPool;
+    }
+
+    static String javaExecutable() {
+        return Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+    }
+
+    static String outputFilePath(String inputFilePath) {
+        return inputFilePath + ".out";
+    }
+
+    static String statusFilePath(String inputFilePath) {
+        return inputFilePath + ".status";
+    }
+
+    static String batchFilePath(String inputFilePath) {
+        return inputFilePath + ".batch";
     }
 
     @State(Scope.Benchmark)
@@ -64,55 +232,392 @@ public class CodeExecutor {
         @Param({""})
         public String inputFilePath;
 
+        @Param({"false"})
+        public boolean captureOutput;
+
         private Method mainMethod;
-        private byte[] inputBytes;
+        private MappedInputStream input;
+        private PrintStream nullOutput;
+        private int batchSize = 1;
         private InputStream originalIn;
         private PrintStream originalOut;
         private PrintStream originalErr;
 
-        @Setup(Level.Trial)
-        public void setupTrial() throws Exception {
+        private URLClassLoader classLoader;
+
+        // While set, trials share one loader per class directory so compiled code survives
+        // from one in-process JMH run to the next.
+        private static boolean retainClasses = false;
+        private static final Map<String, URLClassLoader> retainedLoaders = new HashMap<>();
+
+        static synchronized void retainClasses(boolean retain) throws IOException {
+            retainClasses = retain;
+            if (!retain) {
+                for (URLClassLoader loader : retainedLoaders.values()) {
+                    loader.close();
+                }
+                retainedLoaders.clear();
+            }
+        }
+
+        private static synchronized URLClassLoader loaderFor(String classDir) throws IOException {
             URL url = new File(classDir).toURI().toURL();
-            URLClassLoader classLoader = new URLClassLoader(new URL[]{url}, ClassLoader.getSystemClassLoader());
+            if (!retainClasses) {
+                return new URLClassLoader(new URL[]{url}, ClassLoader.getSystemClassLoader());
+            }
+            URLClassLoader loader = retainedLoaders.get(classDir);
+            if (loader == null) {
+                loader = new URLClassLoader(new URL[]{url}, ClassLoader.getSystemClassLoader());
+                retainedLoaders.put(classDir, loader);
+            }
+            return loader;
+        }
+
+        @Setup(Level.Trial)
+        public void setupTrial(BenchmarkParams params) throws Exception {
+            classLoader = loaderFor(classDir);
             Class<?> clazz = classLoader.loadClass(className);
             mainMethod = clazz.getMethod("main", String[].class);
             
-            if (inputFilePath != null && !inputFilePath.isEmpty()) {
-                inputBytes = Files.readAllBytes(Paths.get(inputFilePath));
-            } else {
-                inputBytes = new byte[0];
+            // Mapped once so the measured loop allocates nothing on the harness side, and the
+            // input never has to fit in this JVM's heap.
+            input = inputFilePath != null && !inputFilePath.isEmpty()
+                    ? MappedInputStream.open(Paths.get(inputFilePath)) : MappedInputStream.empty();
+            nullOutput = new PrintStream(OutputStream.nullOutputStream());
+            // A sample of a batch would be the batch's mean, and percentiles of means have
+            // narrower tails than those of single calls; SampleTime times every call alone.
+            batchSize = params.getMode() == Mode.SampleTime ? 1 : readBatchSize(inputFilePath);
+
+            if (captureOutput) {
+                verifyOnce();
+            }
+        }
+
+        // Pre-trial invocation that replaces the separate verification JVM: stdout and stderr
+        // go to a file instead of the null stream, and the outcome and the call's heap
+        // footprint are recorded next to it.
+        // Every JMH mode gets its own fork, so only the first one to get here does the run.
+        private void verifyOnce() throws Exception {
+            File outputFile = new File(outputFilePath(inputFilePath));
+            File statusFile = new File(statusFilePath(inputFilePath));
+            if (statusFile.exists()) {
+                return;
+            }
+
+            InputStream in = System.in;
+            PrintStream out = System.out;
+            PrintStream err = System.err;
+            Throwable failure = null;
+            HeapFootprint footprint = null;
+            try (PrintStream capture = new PrintStream(new BufferedOutputStream(new FileOutputStream(outputFile)), false)) {
+                System.setOut(capture);
+                System.setErr(capture);
+                try {
+                    footprint = HeapFootprint.measure(first -> {
+                        System.setIn(input.duplicate());
+                        if (!first) {
+                            System.setOut(nullOutput);
+                            System.setErr(nullOutput);
+                        }
+                        mainMethod.invoke(null, (Object) new String[]{});
+                    });
+                } catch (java.lang.reflect.InvocationTargetException e) {
+                    failure = e.getCause();
+                    failure.setStackTrace(userFrames(failure.getStackTrace()));
+                    capture.print("Exception in thread \"main\" ");
+                    failure.printStackTrace(capture);
+                }
+            } finally {
+                System.setIn(in);
+                System.setOut(out);
+                System.setErr(err);
+            }
+
+            java.util.Properties status = new java.util.Properties();
+            status.setProperty("status", failure == null ? "ok" : "failed");
+            if (footprint != null) {
+                status.setProperty("peakLiveBytes", String.valueOf(footprint.peakLiveBytes));
+                status.setProperty("retainedBytes", String.valueOf(footprint.retainedBytes));
+            }
+            try (OutputStream stream = new FileOutputStream(statusFile)) {
+                status.store(stream, null);
+            }
+            if (failure != null) {
+                throw new Exception("Program execution failed", failure);
+            }
+        }
+
+        // Batch size calibrated for this input, or 1 when there is none.
+        private static int readBatchSize(String inputFilePath) throws IOException {
+            Path batchFile = Paths.get(batchFilePath(inputFilePath));
+            if (inputFilePath == null || inputFilePath.isEmpty() || !Files.exists(batchFile)) {
+                return 1;
             }
+            return Math.max(1, Integer.parseInt(Files.readString(batchFile).trim()));
         }
 
-        @Setup(Level.Invocation)
-        public void setupInvocation() {
+        // Drops the reflection and JMH frames below the user's main so the trace reads the
+        // same as it would from a plain java launch.
+        private static StackTraceElement[] userFrames(StackTraceElement[] frames) {
+            for (int i = 0; i < frames.length; i++) {
+                String className = frames[i].getClassName();
+                if (className.startsWith("jdk.internal.reflect.") || className.equals("java.lang.reflect.Method")) {
+                    return java.util.Arrays.copyOf(frames, i);
+                }
+            }
+            return frames;
+        }
+
+        // Lets a long-lived worker unload the user's classes once the trial is over.
+        @TearDown(Level.Trial)
+        public void tearDownTrial() throws IOException {
+            mainMethod = null;
+            input = null;
+            synchronized (UserCodeBenchmark.class) {
+                if (classLoader != null && !retainedLoaders.containsValue(classLoader)) {
+                    classLoader.close();
+                }
+            }
+            classLoader = null;
+        }
+
+        // The streams are swapped once per iteration rather than around every call, so no
+        // per-invocation fixture sits inside the measured time.
+        @Setup(Level.Iteration)
+        public void setupIteration() {
             originalIn = System.in;
             originalOut = System.out;
             originalErr = System.err;
-            
-            System.setIn(new ByteArrayInputStream(inputBytes));
+
+            System.setIn(input);
             // Suppress output during benchmarking
-            System.setOut(new PrintStream(new OutputStream() { public void write(int b) {} }));
-            System.setErr(new PrintStream(new OutputStream() { public void write(int b) {} }));
+            System.setOut(nullOutput);
+            System.setErr(nullOutput);
         }
 
-        @TearDown(Level.Invocation)
-        public void tearDownInvocation() {
+        @TearDown(Level.Iteration)
+        public void tearDownIteration() {
             System.setIn(originalIn);
             System.setOut(originalOut);
             System.setErr(originalErr);
         }
 
+        // Runs main batchSize times; scores are per invocation and get divided by the batch
+        // size afterwards.
         @Benchmark
         public void executeCode() throws Exception {
-            mainMethod.invoke(null, (Object) new String[]{});
+            for (int i = 0; i < batchSize; i++) {
+                input.reset();
+                mainMethod.invoke(null, (Object) new String[]{});
+            }
         }
     }
 
-    public PerformanceMetrics executeAndMeasure(File directory, String className, String input) throws Exception {
-        // Step 1: Run the process once to capture execution output and verify it succeeds
+    public PerformanceMetrics executeAndMeasure(File directory, String className, ProgramInput input) throws Exception {
+        return executeSweep(directory, className, Collections.singletonList(input), true).get(0);
+    }
+
+    // Measures every input in a single JMH invocation, with the input file as a multi-valued
+    // @Param. Unless isolateInputs is set, all inputs share one benchmark JVM instead of
+    // getting a fork each. Results come back in input order.
+    public List<PerformanceMetrics> executeSweep(File directory, String className, List<ProgramInput> inputs,
+                                                 boolean isolateInputs) throws Exception {
+        return executeSweep(directory, className, inputs, isolateInputs, null);
+    }
+
+    // cpuSet pins the benchmark JVM to the given cores (taskset list syntax, e.g. "4-7"); the
+    // worker pool is bypassed for pinned runs.
+    public List<PerformanceMetrics> executeSweep(File directory, String className, List<ProgramInput> inputs,
+                                                 boolean isolateInputs, String cpuSet) throws Exception {
+        if (!verifyInBenchmarkFork) {
+            for (ProgramInput input : inputs) {
+                verifySeparately(directory, className, input);
+            }
+        }
+
+        // Each run gets its own input path, since the verification and batch files are named
+        // after it. Generated inputs are already on disk and only get linked there.
+        List<Path> inputFiles = new ArrayList<>();
+        try {
+            for (ProgramInput input : inputs) {
+                Path inputFile = Files.createTempFile("jmh_input_", ".txt");
+                inputFiles.add(inputFile);
+                if (input.getFile() != null) {
+                    try {
+                        Files.delete(inputFile);
+                        Files.createLink(inputFile, input.getFile());
+                        continue;
+                    } catch (IOException | UnsupportedOperationException e) {
+                        // Another file system, or no hard links; fall back to a copy.
+                    }
+                }
+                input.writeTo(inputFile);
+            }
+
+            List<PerformanceMetrics> metrics = null;
+            Exception failure = null;
+            try {
+                metrics = measure(directory, className, inputFiles, isolateInputs, cpuSet);
+            } catch (InterruptedException e) {
+                throw e;
+            } catch (Exception e) {
+                failure = e;
+            }
+            if (verifyInBenchmarkFork) {
+                for (int i = 0; i < inputFiles.size(); i++) {
+                    String inputFile = inputFiles.get(i).toString();
+                    java.util.Properties status = readVerificationOutput(Paths.get(outputFilePath(inputFile)),
+                            Paths.get(statusFilePath(inputFile)));
+                    if (metrics != null && status != null) {
+                        metrics.set(i, metrics.get(i).withHeapFootprint(
+                                Double.parseDouble(status.getProperty("peakLiveBytes", "NaN")),
+                                Double.parseDouble(status.getProperty("retainedBytes", "NaN"))));
+                    }
+                }
+            }
+            if (failure != null) {
+                throw failure;
+            }
+            return metrics;
+        } finally {
+            for (Path inputFile : inputFiles) {
+                Files.deleteIfExists(inputFile);
+                Files.deleteIfExists(Paths.get(outputFilePath(inputFile.toString())));
+                Files.deleteIfExists(Paths.get(statusFilePath(inputFile.toString())));
+                Files.deleteIfExists(Paths.get(batchFilePath(inputFile.toString())));
+            }
+        }
+    }
+
+    private List<PerformanceMetrics> measure(File directory, String className, List<Path> inputFiles,
+                                             boolean isolateInputs, String cpuSet) throws Exception {
+        if (adaptiveRunner == null || !isolateInputs) {
+            return toMetrics(runBenchmark(directory, className, inputFiles, isolateInputs ? 1 : 0, cpuSet, true),
+                    inputFiles.size());
+        }
+        // Adaptive rounds all run inside one JVM, so isolated inputs get a fresh JVM each
+        // instead of a fork.
+        List<PerformanceMetrics> metrics = new ArrayList<>();
+        for (Path inputFile : inputFiles) {
+            metrics.add(toMetrics(runBenchmark(directory, className, Collections.singletonList(inputFile),
+                    0, cpuSet, false), 1).get(0));
+        }
+        return metrics;
+    }
+
+    private List<BenchmarkRecord> runBenchmark(File directory, String className, List<Path> inputFiles,
+                                               int forks, String cpuSet, boolean allowPool) throws Exception {
+        long timeoutMillis = pointTimeoutMillis * inputFiles.size();
+        if (workerPool != null && cpuSet == null && allowPool) {
+            return workerPool.run(directory, className, inputFiles, verifyInBenchmarkFork, forks,
+                    batchInvocations, iterationControlArgument(), timeoutMillis);
+        }
+
+        // Run JMH in a separate process to allow forceful termination
+        List<String> command = new ArrayList<>();
+        if (cpuSet != null) {
+            command.addAll(Arrays.asList("taskset", "-c", cpuSet));
+        }
+        command.addAll(Arrays.asList(
+                javaExecutable(),
+                // Parallel sweeps run several JMH instances on this host at once.
+                "-Djmh.ignoreLock=true",
+                "-cp",
+                System.getProperty("java.class.path"),
+                "main.core.CodeExecutor",
+                "JMH_RUN",
+                directory.getAbsolutePath(),
+                className,
+                String.valueOf(verifyInBenchmarkFork),
+                String.valueOf(forks),
+                String.valueOf(batchInvocations),
+                iterationControlArgument()
+        ));
+        for (Path inputFile : inputFiles) {
+            command.add(inputFile.toAbsolutePath().toString());
+        }
+        ProcessBuilder pb = new ProcessBuilder(command);
+
+        // stdout carries the result stream; JMH's own console output goes to stderr
+        pb.redirectError(ProcessBuilder.Redirect.DISCARD);
+
+        Process jmhProcess = pb.start();
+        FutureTask<List<BenchmarkRecord>> reader = new FutureTask<>(() -> readRecords(jmhProcess.getInputStream()));
+        Thread readerThread = new Thread(reader, "jmh-result-reader");
+        readerThread.setDaemon(true);
+        readerThread.start();
+        try {
+            if (timeoutMillis > 0 && !jmhProcess.waitFor(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                destroyProcessTree(jmhProcess);
+                throw timeout(timeoutMillis);
+            }
+            int jmhExit = jmhProcess.waitFor();
+            if (jmhExit != 0) {
+                throw new Exception("JMH benchmarking process failed with exit code " + jmhExit);
+            }
+            return reader.get();
+        } catch (InterruptedException e) {
+            destroyProcessTree(jmhProcess);
+            throw e;
+        } catch (ExecutionException e) {
+            throw new Exception("Could not read benchmark results: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    // Kills the JMH forks before their parent; once the parent is gone they are reparented
+    // and no longer show up as its descendants.
+    static void destroyProcessTree(Process process) {
+        process.descendants().forEach(ProcessHandle::destroyForcibly);
+        process.destroyForcibly();
+    }
+
+    static TimeoutException timeout(long limitMillis) {
+        return new TimeoutException("Benchmark did not finish within " + limitMillis / 1000.0 + " s and was stopped");
+    }
+
+    // Decodes records as the child sends them, up to the end-of-results marker.
+    private static List<BenchmarkRecord> readRecords(InputStream stream) throws IOException {
+        List<BenchmarkRecord> records = new ArrayList<>();
+        ResultChannel.Reader reader = new ResultChannel.Reader(stream);
+        ResultChannel.Frame frame;
+        while ((frame = reader.next()) != null) {
+            if (frame.getTag() == ResultChannel.TAG_RECORD) {
+                records.add(frame.getRecord());
+            } else if (frame.getTag() == ResultChannel.TAG_END) {
+                return records;
+            } else if (frame.getTag() == ResultChannel.TAG_FAILED) {
+                throw new IOException(frame.getMessage());
+            }
+        }
+        throw new EOFException("result stream ended before the last benchmark");
+    }
+
+    // The verification status, or null if the fork never recorded one.
+    private java.util.Properties readVerificationOutput(Path outputFile, Path statusFile) throws Exception {
+        OutputCapture output = Files.exists(outputFile) ? OutputCapture.fromFile(outputFile) : OutputCapture.empty();
+
+        if (!Files.exists(statusFile)) {
+            // The fork died before or during the run; the JMH exit code tells the rest.
+            output.discard();
+            return null;
+        }
+        java.util.Properties status = new java.util.Properties();
+        try (InputStream stream = Files.newInputStream(statusFile)) {
+            status.load(stream);
+        }
+        if (!"ok".equals(status.getProperty("status"))) {
+            output.discard();
+            throw new Exception("Program execution failed with exit code 1: " + output.getText());
+        }
+
+        setOutputCapture(output);
+        return status;
+    }
+
+    private void verifySeparately(File directory, String className, ProgramInput input) throws Exception {
+        // Run the process once to capture execution output and verify it succeeds
         ProcessBuilder runBuilder = new ProcessBuilder(
-                "java",
+                javaExecutable(),
                 "-XX:+UseSerialGC",
                 "-Xms64m",
                 "-Xmx512m",
@@ -120,167 +625,268 @@ public class CodeExecutor {
                 directory.getAbsolutePath(),
                 className
         );
+        // The output goes straight to disk so its size does not matter here
+        Path outputFile = Files.createTempFile("program_output_", ".txt");
         runBuilder.redirectErrorStream(true);
+        runBuilder.redirectOutput(outputFile.toFile());
         Process runProcess = runBuilder.start();
-        StringBuilder output = new StringBuilder();
 
         Thread inputThread = new Thread(() -> {
-            try (BufferedWriter writer = new BufferedWriter(
-                    new OutputStreamWriter(runProcess.getOutputStream()))) {
-                writer.write(input);
-                if (!input.endsWith("\n")) {
-                    writer.newLine();
+            try (OutputStream stdin = new BufferedOutputStream(runProcess.getOutputStream())) {
+                input.transferTo(stdin);
+                if (!input.endsWithNewline()) {
+                    stdin.write(System.lineSeparator().getBytes());
                 }
-                writer.flush();
+                stdin.flush();
             } catch (Exception e) {
                 e.printStackTrace();
             }
         });
 
-        Thread outputThread = new Thread(() -> {
-            try (BufferedReader reader = new BufferedReader(
-                    new InputStreamReader(runProcess.getInputStream()))) {
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    output.append(line).append("\n");
-                }
-            } catch (IOException e) {
-                e.printStackTrace();
-            }
-        });
-
         inputThread.start();
-        outputThread.start();
-        
+
+        OutputCapture output;
         try {
             inputThread.join();
-            outputThread.join();
 
             if (!runProcess.waitFor(10, TimeUnit.SECONDS)) {
                 runProcess.destroyForcibly();
                 throw new Exception("Process timed out");
             }
+            output = OutputCapture.fromFile(outputFile);
         } catch (InterruptedException e) {
             runProcess.destroyForcibly();
             inputThread.interrupt();
-            outputThread.interrupt();
             throw e;
+        } finally {
+            Files.deleteIfExists(outputFile);
         }
 
         int exitCode = runProcess.exitValue();
         if (exitCode != 0) {
-            throw new Exception("Program execution failed with exit code " + exitCode + ": " + output);
+            output.discard();
+            throw new Exception("Program execution failed with exit code " + exitCode + ": " + output.getText());
         }
 
-        this.executionOutput = output.toString();
+        setOutputCapture(output);
+    }
 
-        // Step 2: Write input to a temp file for the JMH benchmark
-        Path tempInputFile = Files.createTempFile("jmh_input_", ".txt");
-        Path resultFile = Files.createTempFile("jmh_result_", ".dat");
+    // Writes each input's batch size next to it for the benchmark to pick up.
+    static void prepareBatchSizes(String classDir, String className, List<String> inputFilePaths,
+                                  boolean batchInvocations) throws IOException {
+        for (String inputFilePath : inputFilePaths) {
+            int batchSize = batchInvocations ? calibrateBatchSize(classDir, className, inputFilePath) : 1;
+            Files.writeString(Paths.get(batchFilePath(inputFilePath)), String.valueOf(batchSize));
+        }
+    }
+
+    // Times batches of main calls in this JVM and picks the number of calls that fills
+    // MIN_BATCH_NANOS. Anything that goes wrong means 1; the benchmark's own run will report
+    // the failure.
+    static int calibrateBatchSize(String classDir, String className, String inputFilePath) {
+        InputStream in = System.in;
+        PrintStream out = System.out;
+        PrintStream err = System.err;
+        URL url;
         try {
-            Files.write(tempInputFile, input.getBytes());
-
-            // Step 3: Run JMH in a separate process to allow forceful termination
-            ProcessBuilder pb = new ProcessBuilder(
-                    "java",
-                    "-cp",
-                    System.getProperty("java.class.path"),
-                    "main.core.CodeExecutor",
-                    "JMH_RUN",
-                    directory.getAbsolutePath(),
-                    className,
-                    tempInputFile.toAbsolutePath().toString(),
-                    resultFile.toAbsolutePath().toString()
-            );
-            
-            // Redirect output to avoid console clutter, or you can inheritIO
-            pb.redirectOutput(ProcessBuilder.Redirect.DISCARD);
-            pb.redirectError(ProcessBuilder.Redirect.DISCARD);
-            
-            Process jmhProcess = pb.start();
-            try {
-                int jmhExit = jmhProcess.waitFor();
-                if (jmhExit != 0) {
-                    throw new Exception("JMH benchmarking process failed with exit code " + jmhExit);
-                }
-                
-                try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(resultFile.toFile()))) {
-                    return (PerformanceMetrics) ois.readObject();
+            url = new File(classDir).toURI().toURL();
+        } catch (IOException e) {
+            return 1;
+        }
+        try (URLClassLoader loader = new URLClassLoader(new URL[]{url}, ClassLoader.getSystemClassLoader())) {
+            Method main = loader.loadClass(className).getMethod("main", String[].class);
+            MappedInputStream input = MappedInputStream.open(Paths.get(inputFilePath));
+            PrintStream nullOutput = new PrintStream(OutputStream.nullOutputStream());
+            System.setIn(input);
+            System.setOut(nullOutput);
+            System.setErr(nullOutput);
+
+            // The first call also pays for class loading and reflection setup, so only a very
+            // slow one settles it; otherwise one more call decides whether batching can help.
+            for (long limit : new long[]{100 * MIN_BATCH_NANOS, 10 * MIN_BATCH_NANOS}) {
+                long start = System.nanoTime();
+                input.reset();
+                main.invoke(null, (Object) new String[]{});
+                if (System.nanoTime() - start >= limit) {
+                    return 1;
                 }
-            } catch (InterruptedException e) {
-                jmhProcess.destroyForcibly();
-                throw e;
             }
 
+            // Doubling keeps up as the JIT speeds the calls up; a one-off pause only delays it.
+            int batchSize = 1;
+            long calibrationEnd = System.nanoTime() + CALIBRATION_NANOS;
+            while (System.nanoTime() < calibrationEnd && batchSize < MAX_BATCH_SIZE) {
+                long start = System.nanoTime();
+                for (int i = 0; i < batchSize; i++) {
+                    input.reset();
+                    main.invoke(null, (Object) new String[]{});
+                }
+                if (System.nanoTime() - start < MIN_BATCH_NANOS) {
+                    batchSize = Math.min(MAX_BATCH_SIZE, batchSize * 2);
+                }
+            }
+            return batchSize;
+        } catch (Throwable e) {
+            return 1;
         } finally {
-            Files.deleteIfExists(tempInputFile);
-            Files.deleteIfExists(resultFile);
+            System.setIn(in);
+            System.setOut(out);
+            System.setErr(err);
         }
     }
 
-    public static void main(String[] args) throws Exception {
-        if (args.length >= 5 && args[0].equals("JMH_RUN")) {
-            String classDir = args[1];
-            String className = args[2];
-            String inputFilePath = args[3];
-            String resultFilePath = args[4];
-
-            Options opt = new OptionsBuilder()
-                    .include(".*" + UserCodeBenchmark.class.getSimpleName() + ".*")
-                    .param("classDir", classDir)
-                    .param("className", className)
-                    .param("inputFilePath", inputFilePath)
-                    .forks(1)
-                    .warmupIterations(2)
-                    .warmupTime(org.openjdk.jmh.runner.options.TimeValue.seconds(1))
-                    .measurementIterations(3)
-                    .measurementTime(org.openjdk.jmh.runner.options.TimeValue.seconds(1))
-                    .addProfiler(GCProfiler.class)
-                    .build();
-
-            Collection<RunResult> results = new Runner(opt).run();
+    // Runs on the benchmark JVM side: calibrates batch sizes, then measures every input with
+    // either the adaptive controller or JMH's fixed iteration counts.
+    static List<BenchmarkRecord> runBenchmarks(String classDir, String className, List<String> inputFilePaths,
+                                               String captureOutput, int forks, boolean batchInvocations,
+                                               String iterationControl) throws Exception {
+        prepareBatchSizes(classDir, className, inputFilePaths, batchInvocations);
+
+        List<BenchmarkRecord> records;
+        AdaptiveBenchmarkRunner adaptive = AdaptiveBenchmarkRunner.fromArgument(iterationControl);
+        if (adaptive != null) {
+            records = adaptive.run(classDir, className, inputFilePaths, captureOutput);
+        } else {
+            Collection<RunResult> results = new Runner(benchmarkOptions(classDir, className, inputFilePaths,
+                    captureOutput, forks)).run();
             if (results == null || results.isEmpty()) {
-                System.exit(1);
+                throw new Exception("no benchmark results");
             }
+            records = toRecords(results, inputFilePaths);
+        }
 
-            double timeMs = 0;
-            double memoryUsedBytes = 0;
-            double throughputOpsPerSec = 0;
-            double gcPauseTimeMs = 0;
-            double heapAllocationRateMbPerSec = 0;
-            double p50LatencyMs = 0;
-            double p95LatencyMs = 0;
-            double p99LatencyMs = 0;
-
-            for (RunResult result : results) {
-                String mode = result.getParams().getMode().name();
-                if (mode.equals("AverageTime")) {
-                    timeMs = result.getPrimaryResult().getScore();
-                    if (result.getSecondaryResults().containsKey("gc.alloc.rate.norm")) {
-                        memoryUsedBytes = result.getSecondaryResults().get("gc.alloc.rate.norm").getScore();
-                    }
-                    if (result.getSecondaryResults().containsKey("gc.alloc.rate")) {
-                        heapAllocationRateMbPerSec = result.getSecondaryResults().get("gc.alloc.rate").getScore();
-                    }
-                    if (result.getSecondaryResults().containsKey("gc.time")) {
-                        gcPauseTimeMs = result.getSecondaryResults().get("gc.time").getScore();
-                    }
-                } else if (mode.equals("Throughput")) {
-                    throughputOpsPerSec = result.getPrimaryResult().getScore();
-                } else if (mode.equals("SampleTime")) {
-                    org.openjdk.jmh.util.Statistics stats = result.getPrimaryResult().getStatistics();
-                    p50LatencyMs = stats.getPercentile(50.0);
-                    p95LatencyMs = stats.getPercentile(95.0);
-                    p99LatencyMs = stats.getPercentile(99.0);
+        // Scores stay per invocation, with the batch size each input ran at added as a param.
+        List<BenchmarkRecord> withBatchSizes = new ArrayList<>();
+        for (BenchmarkRecord record : records) {
+            Path batchFile = Paths.get(batchFilePath(inputFilePaths.get(record.getInputIndex())));
+            String batchSize = Files.exists(batchFile) && !record.getMode().equals("SampleTime")
+                    ? Files.readString(batchFile).trim() : "1";
+            withBatchSizes.add(record.withParam("batchSize", batchSize));
+        }
+        return withBatchSizes;
+    }
+
+    static OptionsBuilder benchmarkOptionsBuilder(String classDir, String className, List<String> inputFilePaths,
+                                                  String captureOutput) {
+        OptionsBuilder builder = new OptionsBuilder();
+        builder.include(".*" + UserCodeBenchmark.class.getSimpleName() + ".*")
+                .param("classDir", classDir)
+                .param("className", className)
+                .param("inputFilePath", inputFilePaths.toArray(new String[0]))
+                .param("captureOutput", captureOutput);
+        return builder;
+    }
+
+    static Options benchmarkOptions(String classDir, String className, List<String> inputFilePaths,
+                                    String captureOutput, int forks) {
+        return benchmarkOptionsBuilder(classDir, className, inputFilePaths, captureOutput)
+                .forks(forks)
+                .warmupIterations(2)
+                .warmupTime(org.openjdk.jmh.runner.options.TimeValue.seconds(1))
+                .measurementIterations(3)
+                .measurementTime(org.openjdk.jmh.runner.options.TimeValue.seconds(1))
+                .addProfiler(GCProfiler.class)
+                .build();
+    }
+
+    // One record per JMH mode and input file; inputIndex is the file's position in the list.
+    static List<BenchmarkRecord> toRecords(Collection<RunResult> results, List<String> inputFilePaths) {
+        List<BenchmarkRecord> records = new ArrayList<>();
+        for (RunResult result : results) {
+            int inputIndex = inputFilePaths.indexOf(result.getParams().getParam("inputFilePath"));
+            records.add(BenchmarkRecord.from(result, inputIndex));
+        }
+        return records;
+    }
+
+    // One PerformanceMetrics per input, in input order.
+    static List<PerformanceMetrics> toMetrics(List<BenchmarkRecord> records, int inputCount) {
+        Map<Integer, List<BenchmarkRecord>> byInput = new HashMap<>();
+        for (BenchmarkRecord record : records) {
+            byInput.computeIfAbsent(record.getInputIndex(), k -> new ArrayList<>()).add(record);
+        }
+
+        List<PerformanceMetrics> metrics = new ArrayList<>();
+        for (int i = 0; i < inputCount; i++) {
+            List<BenchmarkRecord> inputRecords = byInput.get(i);
+            if (inputRecords == null) {
+                throw new IllegalStateException("No benchmark results for input " + i);
+            }
+            metrics.add(toMetrics(inputRecords));
+        }
+        return metrics;
+    }
+
+    static PerformanceMetrics toMetrics(List<BenchmarkRecord> records) {
+        double timeMs = 0;
+        double timeError = Double.NaN;
+        double memoryUsedBytes = 0;
+        double memoryUsedError = Double.NaN;
+        double throughputOpsPerSec = 0;
+        double throughputError = Double.NaN;
+        double gcPauseTimeMs = 0;
+        double heapAllocationRateMbPerSec = 0;
+        double p50LatencyMs = 0;
+        double p95LatencyMs = 0;
+        double p99LatencyMs = 0;
+
+        for (BenchmarkRecord record : records) {
+            String mode = record.getMode();
+            // Per-op figures: one invocation ran main batchSize times.
+            int batchSize = Integer.parseInt(record.getParams().getOrDefault("batchSize", "1"));
+            if (mode.equals("AverageTime")) {
+                timeMs = record.getPrimary().score / batchSize;
+                timeError = record.getPrimary().error / batchSize;
+                memoryUsedBytes = record.secondaryScore("gc.alloc.rate.norm") / batchSize;
+                BenchmarkRecord.Score allocation = record.getSecondaries().get("gc.alloc.rate.norm");
+                if (allocation != null) {
+                    memoryUsedError = allocation.error / batchSize;
                 }
+                heapAllocationRateMbPerSec = record.secondaryScore("gc.alloc.rate");
+                gcPauseTimeMs = record.secondaryScore("gc.time");
+            } else if (mode.equals("Throughput")) {
+                throughputOpsPerSec = record.getPrimary().score * batchSize;
+                throughputError = record.getPrimary().error * batchSize;
+            } else if (mode.equals("SampleTime")) {
+                p50LatencyMs = record.percentile(50.0) / batchSize;
+                p95LatencyMs = record.percentile(95.0) / batchSize;
+                p99LatencyMs = record.percentile(99.0) / batchSize;
             }
+        }
+
+        return new PerformanceMetrics(timeMs, memoryUsedBytes, throughputOpsPerSec, gcPauseTimeMs,
+                heapAllocationRateMbPerSec, p50LatencyMs, p95LatencyMs, p99LatencyMs,
+                timeError, memoryUsedError, throughputError, records);
+    }
 
-            PerformanceMetrics metrics = new PerformanceMetrics(timeMs, memoryUsedBytes, throughputOpsPerSec, gcPauseTimeMs,
-                    heapAllocationRateMbPerSec, p50LatencyMs, p95LatencyMs, p99LatencyMs);
+    public static void main(String[] args) throws Exception {
+        if (args.length >= 8 && args[0].equals("JMH_RUN")) {
+            // Results go out on the real stdout; JMH and the user's code must not write into it.
+            ResultChannel.Writer results = new ResultChannel.Writer(new FileOutputStream(FileDescriptor.out));
+            System.setOut(System.err);
+
+            String classDir = args[1];
+            String className = args[2];
+            String captureOutput = args[3];
+            int forks = Integer.parseInt(args[4]);
+            boolean batchInvocations = Boolean.parseBoolean(args[5]);
+            String iterationControl = args[6];
+            List<String> inputFilePaths = Arrays.asList(args).subList(7, args.length);
+
+            List<BenchmarkRecord> records;
+            try {
+                records = runBenchmarks(classDir, className, inputFilePaths, captureOutput, forks,
+                        batchInvocations, iterationControl);
+            } catch (Exception e) {
+                results.writeFailed(String.valueOf(e.getMessage()));
+                System.exit(1);
+                return;
+            }
 
-            try (ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(resultFilePath))) {
-                oos.writeObject(metrics);
+            for (BenchmarkRecord record : records) {
+                results.writeRecord(record);
             }
+            results.writeEnd();
             System.exit(0);
         }
     }
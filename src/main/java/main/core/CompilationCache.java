@@ -0,0 +1,258 @@
+package main.core;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Two-tier cache of compiled submissions. Class bytes are kept in an in-memory LRU and the
+ * spilled class directories are kept on disk, both keyed by the SHA-256 of the normalized
+ * source, the running compiler version and the javac options.
+ */
+public class CompilationCache {
+    public static final String DIRECTORY_PROPERTY = "analyzer.compileCache.dir";
+
+    private static final long DEFAULT_MEMORY_BYTES = 32L * 1024 * 1024;
+    private static final long DEFAULT_DISK_BYTES = 256L * 1024 * 1024;
+
+    private final CodeCompiler compiler;
+    private final Path directory;
+    private final long maxMemoryBytes;
+    private final long maxDiskBytes;
+
+    private final LinkedHashMap<String, CodeCompiler.CompilationResult> memory = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, Integer> leases = new HashMap<>();
+    private long memoryBytes = 0;
+
+    private long memoryHits = 0;
+    private long diskHits = 0;
+    private long misses = 0;
+
+    public class Lease implements AutoCloseable {
+        private final String key;
+        private final File classDirectory;
+        private boolean released = false;
+
+        private Lease(String key, File classDirectory) {
+            this.key = key;
+            this.classDirectory = classDirectory;
+        }
+
+        public File getClassDirectory() {
+            return classDirectory;
+        }
+
+        @Override
+        public void close() {
+            synchronized (CompilationCache.this) {
+                if (!released) {
+                    released = true;
+                    release(key);
+                }
+            }
+        }
+    }
+
+    public CompilationCache(CodeCompiler compiler) {
+        this(compiler, defaultDirectory(), DEFAULT_MEMORY_BYTES, DEFAULT_DISK_BYTES);
+    }
+
+    public CompilationCache(CodeCompiler compiler, Path directory, long maxMemoryBytes, long maxDiskBytes) {
+        this.compiler = compiler;
+        this.directory = directory;
+        this.maxMemoryBytes = maxMemoryBytes;
+        this.maxDiskBytes = maxDiskBytes;
+    }
+
+    private static Path defaultDirectory() {
+        String configured = System.getProperty(DIRECTORY_PROPERTY);
+        if (configured != null && !configured.isBlank()) {
+            return Paths.get(configured);
+        }
+        return Paths.get(System.getProperty("java.io.tmpdir"), "codeanalysis-cache");
+    }
+
+    public Path getDirectory() { return directory; }
+
+    public synchronized long getMemoryHits() { return memoryHits; }
+    public synchronized long getDiskHits() { return diskHits; }
+    public synchronized long getHits() { return memoryHits + diskHits; }
+    public synchronized long getMisses() { return misses; }
+
+    /**
+     * Returns the class directory for the given source, compiling it only when neither tier
+     * has it. The directory stays valid until the lease is closed.
+     */
+    public Lease acquire(String className, String code) throws Exception {
+        String key = key(code, CodeCompiler.COMPILER_OPTIONS);
+        Path entry = directory.resolve(key);
+
+        CodeCompiler.CompilationResult cached;
+        synchronized (this) {
+            if (Files.isDirectory(entry)) {
+                diskHits++;
+                entry.toFile().setLastModified(System.currentTimeMillis());
+                return lease(key, entry);
+            }
+            cached = memory.get(key);
+            if (cached != null) {
+                memoryHits++;
+            } else {
+                misses++;
+            }
+        }
+
+        CodeCompiler.CompilationResult result = cached;
+        if (result == null) {
+            result = compiler.compile(className, code);
+            if (!result.isSuccess()) {
+                throw new Exception("Compilation failed: " + result.formatDiagnostics());
+            }
+        }
+
+        store(entry, result);
+        synchronized (this) {
+            if (cached == null) {
+                remember(key, result);
+            }
+            Lease lease = lease(key, entry);
+            evictDisk();
+            return lease;
+        }
+    }
+
+    private Lease lease(String key, Path entry) {
+        leases.merge(key, 1, Integer::sum);
+        return new Lease(key, entry.toFile());
+    }
+
+    private void release(String key) {
+        leases.computeIfPresent(key, (k, count) -> count > 1 ? count - 1 : null);
+    }
+
+    private void store(Path entry, CodeCompiler.CompilationResult result) throws IOException {
+        Files.createDirectories(directory);
+        Path staging = Files.createTempDirectory(directory, ".staging_");
+        try {
+            compiler.writeClasses(result, staging.toFile());
+            try {
+                Files.move(staging, entry, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(staging, entry);
+            }
+        } catch (FileAlreadyExistsException e) {
+            // Another analysis stored the same key first; its classes are identical.
+        } catch (IOException e) {
+            if (!Files.isDirectory(entry)) {
+                throw e;
+            }
+        } finally {
+            compiler.deleteDirectory(staging.toFile());
+        }
+    }
+
+    private void remember(String key, CodeCompiler.CompilationResult result) {
+        CodeCompiler.CompilationResult previous = memory.put(key, result);
+        if (previous != null) {
+            memoryBytes -= sizeOf(previous);
+        }
+        memoryBytes += sizeOf(result);
+
+        Iterator<CodeCompiler.CompilationResult> iterator = memory.values().iterator();
+        while (memoryBytes > maxMemoryBytes && memory.size() > 1 && iterator.hasNext()) {
+            memoryBytes -= sizeOf(iterator.next());
+            iterator.remove();
+        }
+    }
+
+    private void evictDisk() {
+        List<Path> entries = new ArrayList<>();
+        try (Stream<Path> stream = Files.list(directory)) {
+            stream.filter(Files::isDirectory)
+                    .filter(path -> !path.getFileName().toString().startsWith("."))
+                    .forEach(entries::add);
+        } catch (IOException e) {
+            return;
+        }
+
+        Map<Path, Long> sizes = new HashMap<>();
+        long total = 0;
+        for (Path entry : entries) {
+            long size = directorySize(entry);
+            sizes.put(entry, size);
+            total += size;
+        }
+        if (total <= maxDiskBytes) {
+            return;
+        }
+
+        entries.sort(Comparator.comparingLong(path -> path.toFile().lastModified()));
+        for (Path entry : entries) {
+            if (total <= maxDiskBytes) {
+                break;
+            }
+            if (leases.containsKey(entry.getFileName().toString())) {
+                continue;
+            }
+            compiler.deleteDirectory(entry.toFile());
+            total -= sizes.get(entry);
+        }
+    }
+
+    private static long directorySize(Path entry) {
+        try (Stream<Path> files = Files.walk(entry)) {
+            return files.filter(Files::isRegularFile).mapToLong(path -> path.toFile().length()).sum();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private static long sizeOf(CodeCompiler.CompilationResult result) {
+        long size = 0;
+        for (byte[] bytes : result.getClassBytes().values()) {
+            size += bytes.length;
+        }
+        return size;
+    }
+
+    static String key(String code, List<String> options) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(normalize(code).getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(Runtime.version().toString().getBytes(StandardCharsets.UTF_8));
+            for (String option : options) {
+                digest.update((byte) 0);
+                digest.update(option.getBytes(StandardCharsets.UTF_8));
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    // Line endings and trailing whitespace do not change what javac produces.
+    static String normalize(String code) {
+        return code.replace("\r\n", "\n")
+                .replace('\r', '\n')
+                .replaceAll("(?m)[ \\t]+$", "")
+                .strip();
+    }
+}
@@ -0,0 +1,223 @@
+package main.core;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Fits sweep timings against the usual complexity classes and a free power law, and ranks the
+ * fits by AICc. Every model is t(n) = c0 + c1 * g(n) / g(N), with N the largest measured size,
+ * fitted by least squares on relative residuals: timing noise grows with the time itself, and
+ * dividing g by g(N) keeps n^3 and 2^n within double range.
+ */
+public class ComplexityFitter {
+    private static final double MAX_POWER = 4.0;
+    private static final double POWER_GRID_STEP = 0.05;
+
+    public enum Model {
+        CONSTANT("O(1)"),
+        LOGARITHMIC("O(log n)"),
+        LINEAR("O(n)"),
+        LINEARITHMIC("O(n log n)"),
+        QUADRATIC("O(n²)"),
+        CUBIC("O(n³)"),
+        EXPONENTIAL("O(2ⁿ)"),
+        POWER_LAW("O(n^k)");
+
+        private final String notation;
+
+        Model(String notation) {
+            this.notation = notation;
+        }
+
+        public String getNotation() { return notation; }
+    }
+
+    public static class Fit {
+        private final Model model;
+        private final double intercept;
+        private final double coefficient;
+        private final double exponent;
+        private final double referenceSize;
+        private final double rSquared;
+        private final double aicc;
+        private final int parameterCount;
+
+        Fit(Model model, double intercept, double coefficient, double exponent, double referenceSize,
+            double rSquared, double aicc, int parameterCount) {
+            this.model = model;
+            this.intercept = intercept;
+            this.coefficient = coefficient;
+            this.exponent = exponent;
+            this.referenceSize = referenceSize;
+            this.rSquared = rSquared;
+            this.aicc = aicc;
+            this.parameterCount = parameterCount;
+        }
+
+        public Model getModel() { return model; }
+        // c0, in the unit of the fitted values.
+        public double getIntercept() { return intercept; }
+        // c1: the model's value at the reference size on top of the intercept.
+        public double getCoefficient() { return coefficient; }
+        // k of the power law; NaN for the fixed classes.
+        public double getExponent() { return exponent; }
+        // N, the size the basis function is scaled to.
+        public double getReferenceSize() { return referenceSize; }
+        public double getRSquared() { return rSquared; }
+        public double getAicc() { return aicc; }
+        public int getParameterCount() { return parameterCount; }
+
+        public double predict(double n) {
+            return intercept + coefficient * scaledBasis(model, exponent, n, referenceSize);
+        }
+
+        public String getNotation() {
+            return model == Model.POWER_LAW ? String.format("O(n^%.2f)", exponent) : model.getNotation();
+        }
+
+        // The fitted curve written out, e.g. "0.012 + 3.1e-09·n²".
+        public String getFormula() {
+            String term;
+            switch (model) {
+                case CONSTANT: return format(intercept);
+                case LOGARITHMIC: term = format(coefficient / Math.log(referenceSize)) + "·log n"; break;
+                case LINEAR: term = format(coefficient / referenceSize) + "·n"; break;
+                case LINEARITHMIC: term = format(coefficient / (referenceSize * Math.log(referenceSize))) + "·n log n"; break;
+                case QUADRATIC: term = format(coefficient / Math.pow(referenceSize, 2)) + "·n²"; break;
+                case CUBIC: term = format(coefficient / Math.pow(referenceSize, 3)) + "·n³"; break;
+                case EXPONENTIAL: term = format(coefficient) + "·2^(n−" + (long) referenceSize + ")"; break;
+                default: term = format(coefficient / Math.pow(referenceSize, exponent)) + String.format("·n^%.2f", exponent);
+            }
+            return format(intercept) + " + " + term;
+        }
+
+        private static String format(double value) {
+            return String.format("%.3g", value);
+        }
+    }
+
+    // All models that could be fitted, best (lowest AICc) first. AICc needs more than k + 1
+    // points for k parameters, so this needs at least four sizes with positive values, and
+    // five before the power law takes part; with fewer the list is empty.
+    public List<Fit> fitAll(List<Integer> sizes, List<Double> values) {
+        List<double[]> points = new ArrayList<>();
+        for (int i = 0; i < sizes.size(); i++) {
+            double value = values.get(i);
+            if (sizes.get(i) > 0 && value > 0 && !Double.isNaN(value) && !Double.isInfinite(value)) {
+                points.add(new double[]{sizes.get(i), value});
+            }
+        }
+        List<Fit> fits = new ArrayList<>();
+        if (points.size() < 4) {
+            return fits;
+        }
+        double referenceSize = 0;
+        for (double[] point : points) {
+            referenceSize = Math.max(referenceSize, point[0]);
+        }
+        for (Model model : Model.values()) {
+            if (model == Model.POWER_LAW) {
+                if (points.size() > 4) {
+                    fits.add(fitPowerLaw(points, referenceSize));
+                }
+            } else if (model != Model.LOGARITHMIC && model != Model.LINEARITHMIC || referenceSize > 1) {
+                fits.add(fitModel(model, Double.NaN, points, referenceSize, model == Model.CONSTANT ? 1 : 2));
+            }
+        }
+        fits.sort(Comparator.comparingDouble(Fit::getAicc));
+        return fits;
+    }
+
+    // The AICc-preferred fit, or null with fewer than four usable sizes.
+    public Fit fit(List<Integer> sizes, List<Double> values) {
+        List<Fit> fits = fitAll(sizes, values);
+        return fits.isEmpty() ? null : fits.get(0);
+    }
+
+    // Coarse grid over the exponent, then a finer one around the best step; the exponent
+    // counts as a third parameter.
+    private static Fit fitPowerLaw(List<double[]> points, double referenceSize) {
+        Fit best = null;
+        for (double k = 0; k <= MAX_POWER + 1e-9; k += POWER_GRID_STEP) {
+            best = better(best, fitModel(Model.POWER_LAW, k, points, referenceSize, 3));
+        }
+        double center = best.getExponent();
+        for (double k = center - POWER_GRID_STEP; k <= center + POWER_GRID_STEP; k += POWER_GRID_STEP / 20) {
+            if (k >= 0) {
+                best = better(best, fitModel(Model.POWER_LAW, k, points, referenceSize, 3));
+            }
+        }
+        return best;
+    }
+
+    private static Fit better(Fit current, Fit candidate) {
+        return current == null || candidate.getAicc() < current.getAicc() ? candidate : current;
+    }
+
+    // Weighted least squares of y = c0 + c1 * x with weights 1/y^2. A negative slope makes no
+    // sense for a cost, so the model then degenerates to its intercept.
+    private static Fit fitModel(Model model, double exponent, List<double[]> points, double referenceSize,
+                                int parameterCount) {
+        double sw = 0, sx = 0, sy = 0, sxx = 0, sxy = 0;
+        for (double[] point : points) {
+            double x = scaledBasis(model, exponent, point[0], referenceSize);
+            double w = 1.0 / (point[1] * point[1]);
+            sw += w;
+            sx += w * x;
+            sy += w * point[1];
+            sxx += w * x * x;
+            sxy += w * x * point[1];
+        }
+        double c0 = sy / sw;
+        double c1 = 0;
+        double det = sw * sxx - sx * sx;
+        if (model != Model.CONSTANT && det > 1e-12 * sw * sxx) {
+            double slope = (sw * sxy - sx * sy) / det;
+            if (slope > 0) {
+                c1 = slope;
+                c0 = (sy - slope * sx) / sw;
+            }
+        }
+
+        double relativeRss = 0, rss = 0, mean = 0;
+        for (double[] point : points) {
+            mean += point[1] / points.size();
+        }
+        double tss = 0;
+        for (double[] point : points) {
+            double residual = point[1] - (c0 + c1 * scaledBasis(model, exponent, point[0], referenceSize));
+            relativeRss += (residual / point[1]) * (residual / point[1]);
+            rss += residual * residual;
+            tss += (point[1] - mean) * (point[1] - mean);
+        }
+        double rSquared = tss > 0 ? 1 - rss / tss : (rss == 0 ? 1 : 0);
+        return new Fit(model, c0, c1, model == Model.POWER_LAW ? exponent : Double.NaN, referenceSize,
+                rSquared, aicc(relativeRss, points.size(), parameterCount), parameterCount);
+    }
+
+    // Gaussian AIC with the small-sample correction. Infinite when there are too few points
+    // for the correction to be defined: a model with that many parameters cannot be told
+    // apart from one that just passes through the points.
+    static double aicc(double rss, int n, int k) {
+        if (n <= k + 1) {
+            return Double.POSITIVE_INFINITY;
+        }
+        double aic = n * Math.log(Math.max(rss, 1e-300) / n) + 2 * k;
+        return aic + 2.0 * k * (k + 1) / (n - k - 1);
+    }
+
+    // g(n) / g(N) for the model.
+    static double scaledBasis(Model model, double exponent, double n, double referenceSize) {
+        switch (model) {
+            case CONSTANT: return 0;
+            case LOGARITHMIC: return Math.log(n) / Math.log(referenceSize);
+            case LINEAR: return n / referenceSize;
+            case LINEARITHMIC: return n * Math.log(n) / (referenceSize * Math.log(referenceSize));
+            case QUADRATIC: return Math.pow(n / referenceSize, 2);
+            case CUBIC: return Math.pow(n / referenceSize, 3);
+            case EXPONENTIAL: return Math.pow(2, n - referenceSize);
+            default: return Math.pow(n / referenceSize, exponent);
+        }
+    }
+}
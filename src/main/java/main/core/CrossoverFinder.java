@@ -0,0 +1,197 @@
+package main.core;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Finds the input size at which two programs' times cross. Both are measured on a few sizes
+ * spread geometrically over the range; the first neighbouring pair whose faster program
+ * differs brackets the crossover, which is then bisected geometrically down to a few percent.
+ * The estimate interpolates log(time A / time B) between the final bracket. Its bounds are
+ * the nearest sizes on either side where one program is ahead by more than the measurement
+ * noise, since bisection steps that fall inside the noise may have gone either way.
+ */
+public class CrossoverFinder {
+    public static final int BRACKET_POINTS = 5;
+    // Bisection stops once the bracket's ends are within this fraction of each other.
+    private static final double TOLERANCE = 0.05;
+    private static final int MAX_BISECTIONS = 10;
+    private static final int MAX_BOUND_PROBES = 4;
+    // Smallest log time ratio that counts as one program being ahead, whatever the CIs say.
+    private static final double MIN_SEPARATION = 0.02;
+
+    public interface SizeMeasurer {
+        // One run of the given version (ABComparison.VERSION_A or VERSION_B) at the size.
+        AnalysisResult measure(int version, int size) throws Exception;
+    }
+
+    public static class Sample {
+        private final AnalysisResult a;
+        private final AnalysisResult b;
+
+        Sample(AnalysisResult a, AnalysisResult b) {
+            this.a = a;
+            this.b = b;
+        }
+
+        public int getInputSize() { return a.getInputSize(); }
+        public AnalysisResult getA() { return a; }
+        public AnalysisResult getB() { return b; }
+
+        // log(time A / time B): above 0 where B is faster.
+        public double getLogRatio() { return Math.log(a.getExecutionTime() / b.getExecutionTime()); }
+
+        // +1 where B is ahead by more than the noise, -1 where A is, 0 where it is too close.
+        public int getLead() {
+            double separation = Math.max(MIN_SEPARATION, Math.hypot(precisionOf(a), precisionOf(b)));
+            double logRatio = getLogRatio();
+            return logRatio > separation ? 1 : logRatio < -separation ? -1 : 0;
+        }
+
+        private static double precisionOf(AnalysisResult result) {
+            return Double.isNaN(result.getPrecision()) ? 0 : result.getPrecision();
+        }
+    }
+
+    public static class Result {
+        private final List<Sample> samples;
+        private final double crossover;
+        private final double lower;
+        private final double upper;
+        private final boolean multipleCrossings;
+
+        Result(List<Sample> samples, double crossover, double lower, double upper, boolean multipleCrossings) {
+            this.samples = samples;
+            this.crossover = crossover;
+            this.lower = lower;
+            this.upper = upper;
+            this.multipleCrossings = multipleCrossings;
+        }
+
+        // Every size measured, smallest first.
+        public List<Sample> getSamples() { return samples; }
+        public boolean isFound() { return !Double.isNaN(crossover); }
+        public double getCrossover() { return crossover; }
+        public double getLower() { return lower; }
+        public double getUpper() { return upper; }
+        // The bracketing sizes changed leader more than once; only the first crossing was bisected.
+        public boolean isMultipleCrossings() { return multipleCrossings; }
+
+        // The version that is faster below the crossover, or everywhere if there is none.
+        public int getFasterBelow() {
+            return samples.get(0).getLogRatio() > 0 ? ABComparison.VERSION_B : ABComparison.VERSION_A;
+        }
+    }
+
+    private int measurements = 0;
+
+    public Result find(int minSize, int maxSize, SizeMeasurer measurer) throws Exception {
+        if (minSize <= 0 || maxSize <= minSize) {
+            throw new IllegalArgumentException("The search needs 0 < minimum size < maximum size");
+        }
+        List<Sample> bracket = new ArrayList<>();
+        for (int size : SizeSchedule.geometric(minSize, maxSize, BRACKET_POINTS)) {
+            bracket.add(measure(size, measurer));
+        }
+
+        int crossing = -1;
+        int crossings = 0;
+        for (int i = 0; i + 1 < bracket.size(); i++) {
+            if (side(bracket.get(i)) != side(bracket.get(i + 1))) {
+                crossings++;
+                if (crossing < 0) {
+                    crossing = i;
+                }
+            }
+        }
+        List<Sample> samples = new ArrayList<>(bracket);
+        if (crossing < 0) {
+            return new Result(samples, Double.NaN, Double.NaN, Double.NaN, false);
+        }
+
+        Sample lo = bracket.get(crossing);
+        Sample hi = bracket.get(crossing + 1);
+        for (int step = 0; step < MAX_BISECTIONS && hi.getInputSize() - lo.getInputSize() > 1
+                && hi.getInputSize() > lo.getInputSize() * (1 + TOLERANCE); step++) {
+            int mid = (int) Math.round(Math.sqrt((double) lo.getInputSize() * hi.getInputSize()));
+            mid = Math.max(lo.getInputSize() + 1, Math.min(hi.getInputSize() - 1, mid));
+            Sample sample = measure(mid, measurer);
+            samples.add(sample);
+            if (side(sample) == side(lo)) {
+                lo = sample;
+            } else {
+                hi = sample;
+            }
+        }
+        samples.sort(Comparator.comparingInt(Sample::getInputSize));
+
+        // Where the log ratio's line through the final bracket crosses zero.
+        double xLo = Math.log(lo.getInputSize());
+        double xHi = Math.log(hi.getInputSize());
+        double t = lo.getLogRatio() / (lo.getLogRatio() - hi.getLogRatio());
+        double crossover = Math.exp(xLo + t * (xHi - xLo));
+
+        // Probes outwards, twice as far each time, until both sides have a clear lead close by.
+        int leadBelow = side(lo);
+        for (int direction : new int[]{-1, 1}) {
+            double spread = TOLERANCE;
+            for (int step = 0; step < MAX_BOUND_PROBES; step++, spread *= 2) {
+                int probe = (int) Math.round(crossover * Math.pow(1 + spread, direction));
+                double nearest = nearestLead(samples, -direction * leadBelow, direction);
+                if (probe < minSize || probe > maxSize
+                        || (!Double.isNaN(nearest) && direction * (probe - nearest) >= 0)) {
+                    break;
+                }
+                Sample sample = measure(probe, measurer);
+                samples.add(sample);
+                if (sample.getLead() == -direction * leadBelow) {
+                    break;
+                }
+            }
+        }
+        samples.sort(Comparator.comparingInt(Sample::getInputSize));
+
+        double lastBelow = nearestLead(samples, leadBelow, -1);
+        double firstAbove = nearestLead(samples, -leadBelow, 1);
+        double lower = Double.isNaN(lastBelow) ? minSize : lastBelow;
+        double upper = Double.isNaN(firstAbove) ? maxSize : firstAbove;
+        // Noise that put a clear lead on the wrong side only widens the interval.
+        return new Result(samples, crossover, Math.min(Math.min(lower, upper), crossover),
+                Math.max(Math.max(lower, upper), crossover), crossings > 1);
+    }
+
+    // Size of the sample with the given clear lead that bounds the crossover from below (-1),
+    // the largest such size, or from above (+1), the smallest. NaN if no sample has it.
+    private static double nearestLead(List<Sample> samples, int lead, int direction) {
+        double nearest = Double.NaN;
+        for (Sample sample : samples) {
+            if (sample.getLead() == lead && (Double.isNaN(nearest)
+                    || direction * (sample.getInputSize() - nearest) < 0)) {
+                nearest = sample.getInputSize();
+            }
+        }
+        return nearest;
+    }
+
+    // Alternates which version goes first, so neither always runs on a warmer machine.
+    private Sample measure(int size, SizeMeasurer measurer) throws Exception {
+        if (Thread.currentThread().isInterrupted()) {
+            throw new InterruptedException();
+        }
+        AnalysisResult a;
+        AnalysisResult b;
+        if (measurements++ % 2 == 0) {
+            a = measurer.measure(ABComparison.VERSION_A, size);
+            b = measurer.measure(ABComparison.VERSION_B, size);
+        } else {
+            b = measurer.measure(ABComparison.VERSION_B, size);
+            a = measurer.measure(ABComparison.VERSION_A, size);
+        }
+        return new Sample(a, b);
+    }
+
+    private static int side(Sample sample) {
+        return sample.getLogRatio() > 0 ? 1 : -1;
+    }
+}
@@ -0,0 +1,87 @@
+package main.core;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Execution times of one program on several array distributions at each size, from which the
+ * fastest and slowest distribution per size give the best and worst case around the average.
+ */
+public class DistributionBand {
+
+    public static class Case {
+        private final ArrayDistribution distribution;
+        private final double time;
+
+        Case(ArrayDistribution distribution, double time) {
+            this.distribution = distribution;
+            this.time = time;
+        }
+
+        public ArrayDistribution getDistribution() { return distribution; }
+        public double getTime() { return time; }
+    }
+
+    private final Map<Integer, Map<ArrayDistribution, Double>> timesBySize = new TreeMap<>();
+
+    public void add(ArrayDistribution distribution, int size, double time) {
+        timesBySize.computeIfAbsent(size, s -> new EnumMap<>(ArrayDistribution.class)).put(distribution, time);
+    }
+
+    // Adds the measured results; extrapolated ones say nothing about the distribution.
+    public void addAll(ArrayDistribution distribution, List<AnalysisResult> results) {
+        for (AnalysisResult result : results) {
+            if (!result.isExtrapolated()) {
+                add(distribution, result.getInputSize(), result.getExecutionTime());
+            }
+        }
+    }
+
+    // Sizes with at least two distributions measured, smallest first.
+    public List<Integer> getSizes() {
+        List<Integer> sizes = new ArrayList<>();
+        for (Map.Entry<Integer, Map<ArrayDistribution, Double>> entry : timesBySize.entrySet()) {
+            if (entry.getValue().size() > 1) {
+                sizes.add(entry.getKey());
+            }
+        }
+        return sizes;
+    }
+
+    public boolean isEmpty() {
+        return getSizes().isEmpty();
+    }
+
+    // NaN if the distribution was not measured at the size.
+    public double getTime(int size, ArrayDistribution distribution) {
+        Map<ArrayDistribution, Double> times = timesBySize.get(size);
+        Double time = times == null ? null : times.get(distribution);
+        return time == null ? Double.NaN : time;
+    }
+
+    // Null if nothing was measured at the size.
+    public Case getBest(int size) {
+        return extreme(size, false);
+    }
+
+    public Case getWorst(int size) {
+        return extreme(size, true);
+    }
+
+    private Case extreme(int size, boolean slowest) {
+        Map<ArrayDistribution, Double> times = timesBySize.get(size);
+        if (times == null) {
+            return null;
+        }
+        Case extreme = null;
+        for (Map.Entry<ArrayDistribution, Double> entry : times.entrySet()) {
+            if (extreme == null || (slowest ? entry.getValue() > extreme.time : entry.getValue() < extreme.time)) {
+                extreme = new Case(entry.getKey(), entry.getValue());
+            }
+        }
+        return extreme;
+    }
+}
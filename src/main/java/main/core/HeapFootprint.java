@@ -0,0 +1,89 @@
+package main.core;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Live-heap footprint of a program call. A second thread forces full collections while the
+ * call runs; what is left on the heap after each one is the live set at that moment, so the
+ * largest is a lower bound on the peak. Calls too short to catch enough collections are run
+ * again. Both sizes are relative to the heap before the first call.
+ */
+class HeapFootprint {
+    private static final int MIN_SAMPLES = 5;
+    private static final long REPEAT_NANOS = TimeUnit.MILLISECONDS.toNanos(200);
+    // Pause between collections as a multiple of the last one's length, so the sampler takes
+    // about a fifth of the CPU however large the heap is.
+    private static final int PAUSE_FACTOR = 4;
+
+    interface Call {
+        // first is false for the repeats, whose output nobody needs.
+        void run(boolean first) throws Exception;
+    }
+
+    final long peakLiveBytes;
+    // Still reachable after the last call returned, e.g. through static fields.
+    final long retainedBytes;
+
+    private HeapFootprint(long peakLiveBytes, long retainedBytes) {
+        this.peakLiveBytes = peakLiveBytes;
+        this.retainedBytes = retainedBytes;
+    }
+
+    static HeapFootprint measure(Call call) throws Exception {
+        List<MemoryPoolMXBean> pools = ManagementFactory.getMemoryPoolMXBeans();
+        long baseline = liveHeap(pools);
+        AtomicLong peak = new AtomicLong(baseline);
+        AtomicInteger samples = new AtomicInteger();
+        AtomicBoolean running = new AtomicBoolean(true);
+
+        Thread sampler = new Thread(() -> {
+            while (running.get()) {
+                long start = System.nanoTime();
+                long live = liveHeap(pools);
+                peak.accumulateAndGet(live, Math::max);
+                samples.incrementAndGet();
+                LockSupport.parkNanos(Math.max(TimeUnit.MILLISECONDS.toNanos(1),
+                        PAUSE_FACTOR * (System.nanoTime() - start)));
+            }
+        }, "heap-footprint-sampler");
+        sampler.setDaemon(true);
+        sampler.start();
+        try {
+            call.run(true);
+            long deadline = System.nanoTime() + REPEAT_NANOS;
+            while (samples.get() < MIN_SAMPLES && System.nanoTime() < deadline) {
+                call.run(false);
+            }
+        } finally {
+            running.set(false);
+            sampler.join();
+        }
+
+        long retained = liveHeap(pools);
+        return new HeapFootprint(Math.max(0, Math.max(peak.get(), retained) - baseline),
+                Math.max(0, retained - baseline));
+    }
+
+    // Read from what each pool held right after the collection, since the program keeps
+    // allocating between the end of the collection and a read of the current usage.
+    private static long liveHeap(List<MemoryPoolMXBean> pools) {
+        System.gc();
+        long used = 0;
+        for (MemoryPoolMXBean pool : pools) {
+            MemoryUsage afterCollection = pool.getCollectionUsage();
+            if (pool.getType() == MemoryType.HEAP && afterCollection != null) {
+                used += afterCollection.getUsed();
+            }
+        }
+        return used;
+    }
+}
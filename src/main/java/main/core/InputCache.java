@@ -0,0 +1,194 @@
+package main.core;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Generated inputs kept on disk across sweeps and app runs, one file per generator spec, size
+ * and seed. The first analysis to ask writes the file; every user gets a hard link of its
+ * own, so evicting the least recently used files to stay under the size cap never removes an
+ * input a running benchmark still reads. Changes to the directory happen under a lock file,
+ * so analyses in other processes can share it.
+ */
+public class InputCache {
+    public static final long DEFAULT_MAX_BYTES = 4L << 30;
+    private static final String ENTRY_SUFFIX = ".in";
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final String LOCK_FILE = ".lock";
+    // Temp files this old were left behind by a process that died.
+    private static final long STALE_MILLIS = 24 * 60 * 60 * 1000L;
+    // FileLock only keeps other processes out; threads of this one queue here first.
+    private static final Map<Path, Object> PROCESS_LOCKS = new ConcurrentHashMap<>();
+
+    private interface Locked<T> {
+        T run() throws IOException;
+    }
+
+    private final Path directory;
+    private final long maxBytes;
+    private int hits = 0;
+    private int misses = 0;
+
+    public InputCache(Path directory, long maxBytes) {
+        this.directory = directory.toAbsolutePath().normalize();
+        this.maxBytes = maxBytes;
+    }
+
+    public static Path defaultDirectory() {
+        return Paths.get(System.getProperty("java.io.tmpdir"), "analyze-programs-inputs");
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    public synchronized int getHits() {
+        return hits;
+    }
+
+    public synchronized int getMisses() {
+        return misses;
+    }
+
+    // The input for the key, written with contents first if it is not cached. The returned
+    // input owns its link; discarding it leaves the cached file alone.
+    ProgramInput get(String spec, int size, long seed, InputGenerator.InputWriting contents) throws IOException {
+        Files.createDirectories(directory);
+        Path entry = directory.resolve(key(spec, size, seed) + ENTRY_SUFFIX);
+        Path link = directory.resolve("use_" + UUID.randomUUID() + TEMP_SUFFIX);
+
+        boolean hit = locked(() -> {
+            if (!Files.exists(entry)) {
+                return false;
+            }
+            Files.setLastModifiedTime(entry, FileTime.fromMillis(System.currentTimeMillis()));
+            linkOrCopy(entry, link);
+            return true;
+        });
+        if (!hit) {
+            // Written outside the lock; two analyses missing at once both write the same bytes.
+            Path partial = Files.createTempFile(directory, "partial_", TEMP_SUFFIX);
+            try (InputWriter out = new InputWriter(FileChannel.open(partial, StandardOpenOption.WRITE))) {
+                contents.write(out);
+            } catch (IOException | RuntimeException e) {
+                Files.deleteIfExists(partial);
+                throw e;
+            }
+            locked(() -> {
+                Files.move(partial, entry, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                linkOrCopy(entry, link);
+                evict(entry);
+                return null;
+            });
+        }
+        synchronized (this) {
+            if (hit) {
+                hits++;
+            } else {
+                misses++;
+            }
+        }
+        return ProgramInput.ofFile(link, Files.size(link), endsWithNewline(link));
+    }
+
+    // Drops the least recently used entries until the cache fits, never the one just added.
+    private void evict(Path keep) throws IOException {
+        List<Path> entries = new ArrayList<>();
+        long now = System.currentTimeMillis();
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                String name = file.getFileName().toString();
+                if (name.endsWith(ENTRY_SUFFIX)) {
+                    entries.add(file);
+                } else if (name.endsWith(TEMP_SUFFIX)
+                        && now - Files.getLastModifiedTime(file).toMillis() > STALE_MILLIS) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+        long total = 0;
+        for (Path entry : entries) {
+            total += Files.size(entry);
+        }
+        entries.sort(Comparator.comparing(InputCache::lastModified));
+        for (Path entry : entries) {
+            if (total <= maxBytes) {
+                break;
+            }
+            if (!entry.equals(keep)) {
+                total -= Files.size(entry);
+                Files.deleteIfExists(entry);
+            }
+        }
+    }
+
+    private static FileTime lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+
+    private <T> T locked(Locked<T> action) throws IOException {
+        synchronized (PROCESS_LOCKS.computeIfAbsent(directory, d -> new Object())) {
+            try (FileChannel channel = FileChannel.open(directory.resolve(LOCK_FILE),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                FileLock lock = channel.lock();
+                try {
+                    return action.run();
+                } finally {
+                    lock.release();
+                }
+            }
+        }
+    }
+
+    private static void linkOrCopy(Path entry, Path link) throws IOException {
+        try {
+            Files.createLink(link, entry);
+        } catch (IOException | UnsupportedOperationException e) {
+            Files.copy(entry, link);
+        }
+    }
+
+    private static boolean endsWithNewline(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() == 0) {
+                return false;
+            }
+            ByteBuffer last = ByteBuffer.allocate(1);
+            channel.read(last, channel.size() - 1);
+            return last.get(0) == '\n';
+        }
+    }
+
+    private static String key(String spec, int size, long seed) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest((spec + "|" + size + "|" + seed).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
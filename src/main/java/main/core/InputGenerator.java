@@ -1,17 +1,66 @@
 package main.core;
 
-import java.util.Random;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+/**
+ * Generates stdin for a program from a spec: the shape its reads expect, such as
+ * "rows:1:0:sorted" for a size followed by one sorted int per line, or one of the input types
+ * "array:random", "matrix" and "string" ("string:periodic:ab" and the like for the other
+ * StringDistributions). An input depends only on its spec, size and the seed, so the same
+ * sweep gets the same inputs every time and they can be cached. Large inputs are formatted
+ * in chunks on the fork-join pool, each from its own random stream.
+ */
 public class InputGenerator {
-    private final Random random = new Random(42);
+    // Largest size the UI generates. Inputs stream to disk, so what limits it is disk space
+    // and the benchmarked program, not the analyzer's heap.
+    public static final int MAX_SIZE = 100_000_000;
+    // A "matrix" input of size n holds n² cells, so its side is capped at √MAX_SIZE.
+    public static final int MAX_MATRIX_SIZE = 10_000;
+    public static final long DEFAULT_SEED = 42;
+    // Changed whenever a spec, size and seed would produce different bytes than before, so
+    // files cached by an older version are not reused.
+    private static final String FORMAT = "v2/";
+    // Values, words or characters per chunk; matrices take as many whole rows as fit.
+    private static final int CHUNK_VALUES = 1 << 16;
+    private static final int FEW_UNIQUE_VALUES = 8;
+    // Characters at the end of each common-prefix word that differ from word to word.
+    private static final int COMMON_PREFIX_SUFFIX = 4;
+
+    private final long seed;
+    private InputCache cache;
     private String generatedInput = "";
 
+    public InputGenerator() {
+        this(DEFAULT_SEED);
+    }
+
+    public InputGenerator(long seed) {
+        this.seed = seed;
+    }
+
     public String getGeneratedInput() {
         return generatedInput;
     }
 
+    // Without a cache every input is written to a temp file of its own.
+    public void setCache(InputCache cache) {
+        this.cache = cache;
+    }
+
     private final String[] COMMON_WORDS = {"the","of","and","a","to","in","is","you","that",
             "it","he","was","for","on","are","as","with","his","they","I","at",
             "be","this","have","from","or","one","had","by","word","but","not",
@@ -23,144 +72,474 @@ public class InputGenerator {
             "been","call","who","oil","its","now","find","long","down","day","did",
             "get","come","made","may","part"};
 
-    public String generateInput(String code, int size) {
+    public ProgramInput generateInput(String code, int size) {
         return generateInput(code, size, "random");
     }
 
-    public String generateInput(String code, int size, String arrayType) {
-        StringBuilder input = new StringBuilder();
-        String dataType = detectDataType(code);
+    public ProgramInput generateInput(String code, int size, String arrayType) {
+        return generateInput(code, size, arrayType, StringDistribution.WORDS.spec(null));
+    }
 
-        if (hasSingleStringInput(code)) {
-            StringBuilder sentence = new StringBuilder();
-            for (int i = 0; i < size; i++) {
-                sentence.append(COMMON_WORDS[random.nextInt(COMMON_WORDS.length)]);
-                if (i < size - 1) {
-                    sentence.append(" ");
-                }
+    // stringType is the spec written for programs that read a line; see StringDistribution.
+    public ProgramInput generateInput(String code, int size, String arrayType, String stringType) {
+        ProgramInput input = generate(specFor(code, arrayType, stringType), size);
+        this.generatedInput = input.getPreview();
+        return input;
+    }
+
+    public ProgramInput generateInputForType(String inputType, int size) {
+        String baseType = inputType.split(":")[0];
+        if (!"array".equals(baseType) && !"matrix".equals(baseType) && !"string".equals(baseType)) {
+            throw new IllegalArgumentException("Unsupported input_type: " + baseType);
+        }
+        if ("matrix".equals(baseType) && size > MAX_MATRIX_SIZE) {
+            throw new IllegalArgumentException(String.format("A matrix input is size × size; its size cannot exceed %,d",
+                    MAX_MATRIX_SIZE));
+        }
+        return generate(inputType, size);
+    }
+
+    // The input for a spec, from the cache when there is one.
+    public ProgramInput generate(String spec, int size) {
+        try {
+            if (cache != null) {
+                return cache.get(FORMAT + spec, size, seed, out -> writeSpec(spec, size, out));
             }
-            input.append(sentence);
-        } else if (code.contains("Scanner")) {
-            if (code.contains("matrix") || code.contains("[][]")) {
+            return writeToFile(out -> writeSpec(spec, size, out));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write the generated input", e);
+        }
+    }
+
+    // True for specs whose values are an array of ints in the chosen distribution; strings,
+    // matrices, rows of doubles alone and "none" ignore the array type.
+    public static boolean isArraySpec(String spec) {
+        if (spec.startsWith("rows:")) {
+            // The first int read is n; the array value is the second.
+            return Integer.parseInt(spec.split(":")[1]) >= 2;
+        }
+        return spec.equals("array") || spec.startsWith("array:") || spec.startsWith("arrays:");
+    }
+
+    // The spec of the input the code's reads expect; "none" if there is nothing to generate.
+    public String specFor(String code, String arrayType) {
+        return specFor(code, arrayType, StringDistribution.WORDS.spec(null));
+    }
+
+    public String specFor(String code, String arrayType, String stringType) {
+        if (hasSingleStringInput(code)) {
+            return stringType;
+        }
+        if (!code.contains("Scanner")) {
+            return "none";
+        }
+        if (code.contains("matrix") || code.contains("[][]")) {
+            return "matrices";
+        }
+        Pattern arrayPattern = Pattern.compile("(\\w+)\\s*=\\s*new\\s+(\\w+)\\s*\\[");
+        Matcher arrayMatcher = arrayPattern.matcher(code);
+        int arrayCount = 0;
+        while (arrayMatcher.find()) {
+            arrayCount++;
+        }
+        if (arrayCount > 1) {
+            return "arrays:" + arrayType;
+        }
+
+        Pattern nextIntPattern = Pattern.compile("nextInt\\(\\)");
+        Matcher nextIntMatcher = nextIntPattern.matcher(code);
+        int nextIntCount = 0;
+        while (nextIntMatcher.find()) {
+            nextIntCount++;
+        }
+
+        Pattern nextDoublePattern = Pattern.compile("nextDouble\\(\\)");
+        Matcher nextDoubleMatcher = nextDoublePattern.matcher(code);
+        int nextDoubleCount = 0;
+        while (nextDoubleMatcher.find()) {
+            nextDoubleCount++;
+        }
+
+        if (nextIntCount > 0 || nextDoubleCount > 0) {
+            return "rows:" + nextIntCount + ":" + nextDoubleCount + ":" + arrayType;
+        }
+        return "none";
+    }
+
+    // Streams the input for the code's reads to out, token by token; see InputWriter.
+    public void writeInput(String code, int size, String arrayType, InputWriter out) throws IOException {
+        writeSpec(specFor(code, arrayType), size, out);
+    }
+
+    public void writeInputForType(String inputType, int size, InputWriter out) throws IOException {
+        writeSpec(inputType, size, out);
+    }
+
+    public void writeSpec(String spec, int size, InputWriter input) throws IOException {
+        SplittableRandom random = new SplittableRandom(rootSeed(spec, size));
+        String[] parts = spec.split(":");
+        String baseType = parts[0];
+
+        switch (baseType) {
+            case "words":
+                writeChunks(input, random, size, CHUNK_VALUES, (out, chunkRandom, from, to) -> {
+                    for (long i = from; i < to; i++) {
+                        out.append(COMMON_WORDS[chunkRandom.nextInt(COMMON_WORDS.length)]);
+                        if (i < size - 1) {
+                            out.append(" ");
+                        }
+                    }
+                });
+                break;
+            case "matrices": {
                 int matrixDim = Math.min(size, 100);
 
                 input.append(matrixDim).append("\n");
                 input.append(matrixDim).append("\n");
 
-                for (int i = 0; i < matrixDim; i++) {
-                    for (int j = 0; j < matrixDim; j++) {
-                        input.append(random.nextInt(10)).append(" ");
-                    }
-                    input.append("\n");
+                for (int m = 0; m < 2; m++) {
+                    writeMatrixRows(input, random, matrixDim, 10);
                 }
-                for (int i = 0; i < matrixDim; i++) {
-                    for (int j = 0; j < matrixDim; j++) {
-                        input.append(random.nextInt(10)).append(" ");
-                    }
+                break;
+            }
+            case "arrays": {
+                String arrayType = parts[1];
+                for (int a = 0; a < 2; a++) {
+                    input.append(size).append("\n");
+                    writeArray(input, random, size, arrayType, (out, chunkRandom, value) -> out.append(value).append(" "));
                     input.append("\n");
                 }
-            } else {
-                Pattern arrayPattern = Pattern.compile("(\\w+)\\s*=\\s*new\\s+(\\w+)\\s*\\[");
-                Matcher arrayMatcher = arrayPattern.matcher(code);
-                int arrayCount = 0;
-                while (arrayMatcher.find()) {
-                    arrayCount++;
+                break;
+            }
+            case "rows": {
+                // Each row: the array value, more ints, then the doubles.
+                int ints = Integer.parseInt(parts[1]);
+                int doubles = Integer.parseInt(parts[2]);
+                input.append(size).append("\n");
+                writeArray(input, random, size, parts[3], (out, chunkRandom, value) -> {
+                    for (int j = 0; j < ints - 1; j++) {
+                        if (j == 0) {
+                            out.append(value).append(" ");
+                        } else {
+                            out.append(chunkRandom.nextInt(100)).append(" ");
+                        }
+                    }
+                    for (int j = 0; j < doubles; j++) {
+                        out.append(chunkRandom.nextDouble() * 100).append(" ");
+                    }
+                    out.append("\n");
+                });
+                break;
+            }
+            case "array":
+                input.append(size).append("\n");
+                writeArray(input, random, size, parts.length > 1 ? parts[1] : "random",
+                        (out, chunkRandom, value) -> out.append(value).append(" "));
+                input.append("\n");
+                break;
+            case "matrix":
+                input.append(size).append(" ").append(size).append("\n");
+                writeMatrixRows(input, random, size, 100);
+                break;
+            case "string": {
+                StringDistribution kind = StringDistribution.RANDOM;
+                if (parts.length > 1) {
+                    kind = null;
+                    for (StringDistribution distribution : StringDistribution.values()) {
+                        if (distribution.getKey().equals(parts[1]) && distribution != StringDistribution.WORDS) {
+                            kind = distribution;
+                        }
+                    }
+                    if (kind == null) {
+                        throw new IllegalArgumentException("Unsupported string type: " + parts[1]);
+                    }
                 }
+                writeString(input, random, size, kind, parts.length > 2 ? parts[2] : kind.getDefaultAlphabet());
+                break;
+            }
+            case "none":
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported input_type: " + baseType);
+        }
+    }
 
-                if (arrayCount > 1) {
-                    input.append(size).append("\n");
+    // Mixes the seed, spec and size into the seed every chunk stream is split from.
+    private long rootSeed(String spec, int size) {
+        long mixed = seed;
+        mixed = mixed * 0x9E3779B97F4A7C15L + spec.hashCode();
+        mixed = mixed * 0x9E3779B97F4A7C15L + size;
+        return mixed;
+    }
 
-                    int[] arr1 = generateArray(size, arrayType);
-                    for (int i = 0; i < size; i++) {
-                        input.append(arr1[i]).append(" ");
-                    }
-                    input.append("\n");
+    private interface ChunkWriting {
+        void write(InputWriter out, SplittableRandom random, long from, long to) throws IOException;
+    }
 
-                    input.append(size).append("\n");
+    private interface ValueWriter {
+        void write(InputWriter out, SplittableRandom random, int value) throws IOException;
+    }
 
-                    int[] arr2 = generateArray(size, arrayType);
-                    for (int i = 0; i < size; i++) {
-                        input.append(arr2[i]).append(" ");
-                    }
-                    input.append("\n");
-                } else {
-                    Pattern nextIntPattern = Pattern.compile("nextInt\\(\\)");
-                    Matcher nextIntMatcher = nextIntPattern.matcher(code);
-                    int nextIntCount = 0;
-                    while (nextIntMatcher.find()) {
-                        nextIntCount++;
+    // Writes items [0, count) in chunks of perChunk. Each chunk gets its own stream, split from
+    // random in chunk order, and is formatted in memory on the fork-join pool; the chunks are
+    // written to out in order, with a few per core in flight. The chunk size is fixed, so the
+    // bytes are the same on every machine and run.
+    private static void writeChunks(InputWriter out, SplittableRandom random, long count, long perChunk,
+                                    ChunkWriting writing) throws IOException {
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        int maxPending = 2 * Math.max(1, pool.getParallelism());
+        ArrayDeque<ForkJoinTask<Chunk>> pending = new ArrayDeque<>();
+        try {
+            for (long from = 0; from < count; from += perChunk) {
+                long start = from;
+                long end = Math.min(count, from + perChunk);
+                SplittableRandom chunkRandom = random.split();
+                if (pending.size() == maxPending) {
+                    pending.removeFirst().join().writeTo(out);
+                }
+                pending.addLast(pool.submit(() -> {
+                    Chunk chunk = new Chunk();
+                    try (InputWriter chunkOut = new InputWriter(chunk)) {
+                        writing.write(chunkOut, chunkRandom, start, end);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
                     }
+                    return chunk;
+                }));
+            }
+            while (!pending.isEmpty()) {
+                pending.removeFirst().join().writeTo(out);
+            }
+        } finally {
+            for (ForkJoinTask<Chunk> task : pending) {
+                task.cancel(false);
+            }
+        }
+    }
 
-                    Pattern nextDoublePattern = Pattern.compile("nextDouble\\(\\)");
-                    Matcher nextDoubleMatcher = nextDoublePattern.matcher(code);
-                    int nextDoubleCount = 0;
-                    while (nextDoubleMatcher.find()) {
-                        nextDoubleCount++;
+    // size characters of the distribution over alphabet and a newline; the naive matching
+    // worst case adds the pattern on a second line.
+    private static void writeString(InputWriter input, SplittableRandom random, int size,
+                                    StringDistribution kind, String alphabet) throws IOException {
+        char first = alphabet.charAt(0);
+        char second = alphabet.charAt(1);
+        switch (kind) {
+            case PERIODIC:
+                writeChunks(input, random, size, CHUNK_VALUES, (out, chunkRandom, from, to) -> {
+                    for (long i = from; i < to; i++) {
+                        out.append(i < size - 1 ? first : second);
                     }
-
-                    if (nextIntCount > 0 || nextDoubleCount > 0) {
-                        input.append(size).append("\n");
-                        int[] arr = generateArray(size, arrayType);
-                        for (int i = 0; i < size; i++) {
-                            for (int j = 0; j < nextIntCount - 1; j++) {
-                                if (j == 0) {
-                                    input.append(arr[i]).append(" ");
-                                } else {
-                                    input.append(random.nextInt(100)).append(" ");
-                                }
-                            }
-                            for (int j = 0; j < nextDoubleCount; j++) {
-                                input.append(random.nextDouble() * 100).append(" ");
-                            }
-                            input.append("\n");
+                });
+                input.append("\n");
+                break;
+            case FIBONACCI:
+                writeChunks(input, random, size, CHUNK_VALUES, (out, chunkRandom, from, to) -> {
+                    for (long i = from; i < to; i++) {
+                        out.append(isFibonacciSecond(i + 1) ? second : first);
+                    }
+                });
+                input.append("\n");
+                break;
+            case COMMON_PREFIX: {
+                // Each word and the space after it; the prefix is drawn once, before any chunk.
+                int wordLength = Math.max(COMMON_PREFIX_SUFFIX + 4, (int) Math.sqrt(size));
+                int prefixLength = wordLength - COMMON_PREFIX_SUFFIX;
+                SplittableRandom prefixRandom = random.split();
+                char[] prefix = new char[prefixLength];
+                for (int i = 0; i < prefixLength; i++) {
+                    prefix[i] = alphabet.charAt(prefixRandom.nextInt(alphabet.length()));
+                }
+                writeChunks(input, random, size, CHUNK_VALUES, (out, chunkRandom, from, to) -> {
+                    for (long i = from; i < to; i++) {
+                        int position = (int) (i % (wordLength + 1));
+                        if (position == wordLength) {
+                            out.append(i < size - 1 ? ' ' : alphabet.charAt(chunkRandom.nextInt(alphabet.length())));
+                        } else if (position < prefixLength) {
+                            out.append(prefix[position]);
+                        } else {
+                            out.append(alphabet.charAt(chunkRandom.nextInt(alphabet.length())));
                         }
                     }
+                });
+                input.append("\n");
+                break;
+            }
+            case NAIVE_MATCHING_WORST_CASE: {
+                writeChunks(input, random, size, CHUNK_VALUES, (out, chunkRandom, from, to) -> {
+                    for (long i = from; i < to; i++) {
+                        out.append(first);
+                    }
+                });
+                input.append("\n");
+                int patternLength = Math.max(2, (int) Math.sqrt(size));
+                for (int i = 0; i < patternLength - 1; i++) {
+                    input.append(first);
                 }
+                input.append(second).append("\n");
+                break;
             }
+            case RANDOM:
+            case DNA:
+            default:
+                writeChunks(input, random, size, CHUNK_VALUES, (out, chunkRandom, from, to) -> {
+                    for (long i = from; i < to; i++) {
+                        out.append(alphabet.charAt(chunkRandom.nextInt(alphabet.length())));
+                    }
+                });
+                input.append("\n");
+                break;
         }
+    }
 
-        this.generatedInput = input.toString();
-        return input.toString();
+    // Whether character k, counting from 1, of the Fibonacci word is its second letter:
+    // 2 + ⌊kφ⌋ - ⌊(k + 1)φ⌋ is 1 there and 0 elsewhere. ⌊kφ⌋ = ⌊(k + √(5k²)) / 2⌋ is
+    // worked out in integers, since doubles lose the fraction of kφ for large k.
+    private static boolean isFibonacciSecond(long k) {
+        return 2 + floorPhi(k) - floorPhi(k + 1) == 1;
     }
 
-    private int[] generateArray(int size, String arrayType) {
-        int[] array = new int[size];
-        switch (arrayType) {
-            case "sorted":
-                for (int i = 0; i < size; i++) {
-                    array[i] = i;
-                }
-                break;
-            case "nearly-sorted":
-                for (int i = 0; i < size; i++) {
-                    array[i] = i;
-                }
-                int swaps = Math.max(1, size / 10);
-                for (int i = 0; i < swaps; i++) {
-                    int pos1 = random.nextInt(size);
-                    int pos2 = Math.min(size - 1, pos1 + random.nextInt(3) + 1);
-                    int temp = array[pos1];
-                    array[pos1] = array[pos2];
-                    array[pos2] = temp;
+    private static long floorPhi(long k) {
+        long square = 5 * k * k;
+        long root = (long) Math.sqrt((double) square);
+        while (root * root > square) {
+            root--;
+        }
+        while ((root + 1) * (root + 1) <= square) {
+            root++;
+        }
+        return (k + root) / 2;
+    }
+
+    // Rows of a size by size matrix of values below bound, enough rows per chunk to fill one.
+    private static void writeMatrixRows(InputWriter input, SplittableRandom random, int size, int bound)
+            throws IOException {
+        writeChunks(input, random, size, Math.max(1, CHUNK_VALUES / Math.max(1, size)), (out, chunkRandom, from, to) -> {
+            for (long i = from; i < to; i++) {
+                for (int j = 0; j < size; j++) {
+                    out.append(chunkRandom.nextInt(bound)).append(" ");
                 }
-                break;
-            case "random":
-            default:
-                for (int i = 0; i < size; i++) {
-                    array[i] = random.nextInt(100);
+                out.append("\n");
+            }
+        });
+    }
+
+    // Hands size values of the given array type, an ArrayDistribution key, to writer as they
+    // are produced, so no array of the full size is ever held. Every value depends only on its
+    // index and its chunk's stream. Nearly sorted input swaps about one value in ten with one
+    // up to three places after it, in a small window ahead of the output; swaps stay within a
+    // chunk so chunks do not depend on each other.
+    private static void writeArray(InputWriter input, SplittableRandom random, int size, String arrayType,
+                                   ValueWriter writer) throws IOException {
+        int sawtoothPeriod = Math.max(2, (int) Math.sqrt(size));
+        double logRanks = Math.log(size + 1.0);
+        writeChunks(input, random, size, CHUNK_VALUES, (out, chunkRandom, from, to) -> {
+            int[] window = new int[4];
+            for (int i = 0; i < window.length; i++) {
+                window[i] = (int) from + i;
+            }
+            for (int i = (int) from; i < to; i++) {
+                int value;
+                switch (arrayType) {
+                    case "random-full":
+                        value = chunkRandom.nextInt();
+                        break;
+                    case "sorted":
+                        value = i;
+                        break;
+                    case "reverse-sorted":
+                        value = size - 1 - i;
+                        break;
+                    case "few-unique":
+                        value = chunkRandom.nextInt(FEW_UNIQUE_VALUES);
+                        break;
+                    case "all-equal":
+                        value = 1;
+                        break;
+                    case "organ-pipe":
+                        value = i < (size + 1) / 2 ? i : size - 1 - i;
+                        break;
+                    case "sawtooth":
+                        value = i % sawtoothPeriod;
+                        break;
+                    case "zipfian":
+                        // A log-uniform rank in [1, size] is k about 1/k as often as 1, as in a
+                        // Zipf distribution with exponent 1, without a table of size entries.
+                        value = Math.min(size, (int) Math.exp(chunkRandom.nextDouble() * logRanks)) - 1;
+                        break;
+                    case "median-of-3-killer":
+                        value = medianOf3Killer(i, size);
+                        break;
+                    case "hash-collisions": {
+                        // HashMap xors a hash's top half into its bottom half; with both halves
+                        // equal the bottom half is 0, one bucket in tables of up to 65,536.
+                        // Keys repeat past that many values.
+                        int half = i & 0xFFFF;
+                        value = half << 16 | half;
+                        break;
+                    }
+                    case "nearly-sorted":
+                        if (chunkRandom.nextInt(10) == 0) {
+                            int offset = (int) Math.min(to - 1 - i, chunkRandom.nextInt(3) + 1);
+                            int temp = window[0];
+                            window[0] = window[offset];
+                            window[offset] = temp;
+                        }
+                        value = window[0];
+                        System.arraycopy(window, 1, window, 0, window.length - 1);
+                        window[window.length - 1] = i + window.length;
+                        break;
+                    case "random":
+                    default:
+                        value = chunkRandom.nextInt(100);
+                        break;
                 }
-                break;
+                writer.write(out, chunkRandom, value);
+            }
+        });
+    }
+
+    // Value i of Musser's median-of-3 killer, a permutation of 0..n-1. With m = 2k the largest
+    // multiple of 4 up to n, the first half is 1, k + 1, 3, k + 3, ..., the second half
+    // 2, 4, ..., 2k, all less one; the last n - m values follow in order.
+    private static int medianOf3Killer(int i, int size) {
+        int m = size - size % 4;
+        int k = m / 2;
+        if (i >= m) {
+            return i;
+        }
+        if (i >= k) {
+            return 2 * (i - k) + 1;
         }
-        return array;
+        return i % 2 == 0 ? i : k + i - 1;
     }
 
-    private String detectDataType(String code) {
-        if (code.contains("char[]") || code.contains("Character[]")) {
-            return "char";
-        } else if (code.contains("String[]")) {
-            return "string";
-        } else {
-            return "int"; // Default to int if no specific type is found
+    // One chunk's bytes, held until the chunks before it have been written.
+    private static final class Chunk implements WritableByteChannel {
+        private byte[] bytes = new byte[InputWriter.DEFAULT_BUFFER_BYTES];
+        private int length = 0;
+
+        @Override
+        public int write(ByteBuffer source) {
+            int count = source.remaining();
+            if (length + count > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(2 * bytes.length, length + count));
+            }
+            source.get(bytes, length, count);
+            length += count;
+            return count;
+        }
+
+        void writeTo(InputWriter out) throws IOException {
+            out.append(ByteBuffer.wrap(bytes, 0, length));
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public void close() {
         }
     }
 
@@ -188,68 +567,23 @@ public class InputGenerator {
                 code.contains("nextInt()");
     }
 
-    public String generateInputForType(String inputType, int size) {
-        StringBuilder sb = new StringBuilder();
-        String[] parts = inputType.split(":");
-        String baseType = parts[0];
-        String arrayType = parts.length > 1 ? parts[1] : "random";
-
-        if ("array".equals(baseType)) {
-            sb.append(size).append("\n");
-            int[] array = new int[size];
-            
-            // Generate initial array based on type
-            switch (arrayType) {
-                case "sorted":
-                    for (int i = 0; i < size; i++) {
-                        array[i] = i;
-                    }
-                    break;
-                case "nearly-sorted":
-                    for (int i = 0; i < size; i++) {
-                        array[i] = i;
-                    }
-                    // Swap some elements to make it nearly sorted
-                    int swaps = Math.max(1, size / 10); // Swap 10% of elements
-                    for (int i = 0; i < swaps; i++) {
-                        int pos1 = random.nextInt(size);
-                        int pos2 = Math.min(size - 1, pos1 + random.nextInt(3) + 1);
-                        int temp = array[pos1];
-                        array[pos1] = array[pos2];
-                        array[pos2] = temp;
-                    }
-                    break;
-                case "random":
-                default:
-                    for (int i = 0; i < size; i++) {
-                        array[i] = random.nextInt(100);
-                    }
-                    break;
-            }
-            
-            // Convert array to string
-            for (int value : array) {
-                sb.append(value).append(" ");
-            }
-            sb.append("\n");
-        } else if ("matrix".equals(baseType)) {
-            sb.append(size).append(" ").append(size).append("\n");
-            for (int i = 0; i < size; i++) {
-                for (int j = 0; j < size; j++) {
-                    sb.append(random.nextInt(100)).append(" ");
-                }
-                sb.append("\n");
-            }
-        } else if ("string".equals(baseType)) {
-            String chars = "abcdefghijklmnopqrstuvwxyz";
-            for (int i = 0; i < size; i++) {
-                sb.append(chars.charAt(random.nextInt(chars.length())));
+    interface InputWriting {
+        void write(InputWriter out) throws IOException;
+    }
+
+    // Streams an input into a new temp file; the returned input owns the file.
+    private static ProgramInput writeToFile(InputWriting writing) throws IOException {
+        Path file = Files.createTempFile("generated_input_", ".txt");
+        try {
+            InputWriter out = new InputWriter(FileChannel.open(file, StandardOpenOption.WRITE));
+            try (out) {
+                writing.write(out);
             }
-            sb.append("\n");
-        } else {
-            throw new IllegalArgumentException("Unsupported input_type: " + baseType);
+            return ProgramInput.ofFile(file, out.getByteCount(), out.getLastByte() == '\n');
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
         }
-        return sb.toString();
     }
 
     public void setGeneratedInput(String input) {
@@ -0,0 +1,124 @@
+package main.core;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Appends input tokens as ASCII bytes to a channel through one reusable buffer, so writing an
+ * input takes the same heap whatever its size. Integers are formatted straight into the
+ * buffer; nothing is built up as a String first. Appends mirror StringBuilder's.
+ */
+public class InputWriter implements Closeable {
+    public static final int DEFAULT_BUFFER_BYTES = 64 * 1024;
+
+    private final WritableByteChannel channel;
+    private final ByteBuffer buffer;
+    // Scratch space for the digits of one long, which come out least significant first.
+    private final byte[] digits = new byte[20];
+    private long byteCount = 0;
+    private int lastByte = -1;
+
+    public InputWriter(WritableByteChannel channel) {
+        this(channel, DEFAULT_BUFFER_BYTES);
+    }
+
+    public InputWriter(WritableByteChannel channel, int bufferBytes) {
+        this.channel = channel;
+        this.buffer = ByteBuffer.allocate(bufferBytes);
+    }
+
+    public InputWriter append(long value) throws IOException {
+        if (value == Long.MIN_VALUE) {
+            return append(Long.toString(value));
+        }
+        if (value < 0) {
+            put('-');
+            value = -value;
+        }
+        int count = 0;
+        do {
+            digits[count++] = (byte) ('0' + value % 10);
+            value /= 10;
+        } while (value > 0);
+        while (count > 0) {
+            put(digits[--count]);
+        }
+        return this;
+    }
+
+    // Same text as StringBuilder.append(double). Doubles are rare in generated input, so the
+    // short String this goes through is not worth avoiding.
+    public InputWriter append(double value) throws IOException {
+        return append(Double.toString(value));
+    }
+
+    public InputWriter append(char c) throws IOException {
+        put(c);
+        return this;
+    }
+
+    // The text must be ASCII; each char becomes one byte.
+    public InputWriter append(CharSequence text) throws IOException {
+        for (int i = 0; i < text.length(); i++) {
+            put(text.charAt(i));
+        }
+        return this;
+    }
+
+    // Bytes already formatted elsewhere, written straight to the channel after what is buffered.
+    public InputWriter append(ByteBuffer bytes) throws IOException {
+        int count = bytes.remaining();
+        if (count == 0) {
+            return this;
+        }
+        drain();
+        int last = bytes.get(bytes.limit() - 1) & 0xff;
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
+        byteCount += count;
+        lastByte = last;
+        return this;
+    }
+
+    public long getByteCount() {
+        return byteCount;
+    }
+
+    // The last byte appended, or -1 before any.
+    public int getLastByte() {
+        return lastByte;
+    }
+
+    private void put(int b) throws IOException {
+        if (!buffer.hasRemaining()) {
+            drain();
+        }
+        buffer.put((byte) b);
+        byteCount++;
+        lastByte = b;
+    }
+
+    private void drain() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    public void flush() throws IOException {
+        drain();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            drain();
+        } finally {
+            channel.close();
+        }
+    }
+}
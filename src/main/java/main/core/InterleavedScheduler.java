@@ -0,0 +1,242 @@
+package main.core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Measures every size in several short slices instead of one long run, in randomized blocks:
+ * each round runs one slice of every size, in a fresh random order. Throttling, turbo decay
+ * or background load that builds up over the sweep then falls on all sizes alike instead of
+ * on the largest ones. Each size's slices are averaged back into one result. Drift is
+ * estimated by regressing every slice's deviation from its size's mean on the time it ran;
+ * the randomized order is what keeps that slope independent of size.
+ */
+public class InterleavedScheduler {
+    public static final int DEFAULT_SLICES = 4;
+    // Drift slope t-statistic above which drift counts as real rather than noise.
+    private static final double DRIFT_T = 3.0;
+    // Drift across the whole sweep smaller than this is not worth reporting.
+    private static final double MIN_DRIFT = 0.05;
+
+    public interface SliceMeasurer {
+        // One slice of the size at index; extrapolated once the sweep budget has run out.
+        AnalysisResult measure(int index, int slice) throws Exception;
+    }
+
+    public static class Report extends SweepScheduler.Report {
+        private final int slices;
+        private final double driftPerMinute;
+        private final double driftT;
+        private final double sweepMinutes;
+        private final boolean driftDetected;
+
+        Report(List<AnalysisResult> results, int slices, double driftPerMinute, double driftT,
+               double sweepMinutes, boolean driftDetected) {
+            super(results, false, 0, new ArrayList<>());
+            this.slices = slices;
+            this.driftPerMinute = driftPerMinute;
+            this.driftT = driftT;
+            this.sweepMinutes = sweepMinutes;
+            this.driftDetected = driftDetected;
+        }
+
+        Report withResults(List<AnalysisResult> results) {
+            return new Report(results, slices, driftPerMinute, driftT, sweepMinutes, driftDetected);
+        }
+
+        // Slices measured in total, over all sizes.
+        public int getSlices() { return slices; }
+        // Relative change in time per minute of sweep; NaN when it could not be estimated.
+        public double getDriftPerMinute() { return driftPerMinute; }
+        public double getDriftT() { return driftT; }
+        public double getSweepMinutes() { return sweepMinutes; }
+        // Relative change in time from the start of the sweep to its end.
+        public double getTotalDrift() { return Math.expm1(driftPerMinute * sweepMinutes); }
+        // Drift was significant; the slices were then corrected for it before averaging.
+        public boolean isDriftDetected() { return driftDetected; }
+    }
+
+    private final int slices;
+    private final Random random;
+
+    public InterleavedScheduler(int slices) {
+        this(slices, new Random());
+    }
+
+    public InterleavedScheduler(int slices, Random random) {
+        this.slices = Math.max(1, slices);
+        this.random = random;
+    }
+
+    // {index, slice} pairs in the order they are run.
+    List<int[]> plan(int pointCount) {
+        List<int[]> order = new ArrayList<>();
+        List<Integer> indices = new ArrayList<>();
+        for (int i = 0; i < pointCount; i++) {
+            indices.add(i);
+        }
+        for (int slice = 0; slice < slices; slice++) {
+            Collections.shuffle(indices, random);
+            for (int index : indices) {
+                order.add(new int[]{index, slice});
+            }
+        }
+        return order;
+    }
+
+    // Sizes left without a single slice when the budget runs out are extrapolated from the
+    // others; without a budget every slice is run.
+    public Report run(List<Integer> sizes, SliceMeasurer measurer, SweepBudget budget) throws Exception {
+        int pointCount = sizes.size();
+        List<List<double[]>> timings = new ArrayList<>();
+        List<List<AnalysisResult>> measured = new ArrayList<>();
+        for (int i = 0; i < pointCount; i++) {
+            timings.add(new ArrayList<>());
+            measured.add(new ArrayList<>());
+        }
+        long[] elapsedMillis = new long[pointCount];
+
+        long sweepStart = System.nanoTime();
+        int sliceCount = 0;
+        for (int[] step : plan(pointCount)) {
+            if (Thread.currentThread().isInterrupted()) {
+                throw new InterruptedException();
+            }
+            long start = System.nanoTime();
+            AnalysisResult slice = measurer.measure(step[0], step[1]);
+            long end = System.nanoTime();
+            if (slice.isExtrapolated()) {
+                break;
+            }
+            sliceCount++;
+            elapsedMillis[step[0]] += (end - start) / 1_000_000;
+            // Minutes into the sweep at the middle of the slice, and its time.
+            timings.get(step[0]).add(new double[]{(start - sweepStart + (end - start) / 2.0) / 60e9,
+                    slice.getExecutionTime()});
+            measured.get(step[0]).add(slice);
+        }
+
+        double[] drift = drift(timings);
+        double sweepMinutes = (System.nanoTime() - sweepStart) / 60e9;
+        boolean driftDetected = Math.abs(drift[1]) > DRIFT_T
+                && Math.abs(Math.expm1(drift[0] * sweepMinutes)) > MIN_DRIFT;
+
+        List<AnalysisResult> results = new ArrayList<>();
+        for (int i = 0; i < pointCount; i++) {
+            AnalysisResult result = null;
+            if (!measured.get(i).isEmpty()) {
+                List<Double> times = new ArrayList<>();
+                for (double[] timing : timings.get(i)) {
+                    // Back to what the slice would have taken at the sweep's midpoint.
+                    times.add(driftDetected
+                            ? timing[1] * Math.exp(-drift[0] * (timing[0] - sweepMinutes / 2))
+                            : timing[1]);
+                }
+                result = aggregate(measured.get(i), times);
+                if (budget != null) {
+                    budget.record(result, elapsedMillis[i]);
+                }
+            }
+            results.add(result);
+        }
+        for (int i = 0; i < pointCount; i++) {
+            if (results.get(i) == null) {
+                if (budget == null) {
+                    throw new IllegalStateException("Size " + sizes.get(i) + " was never measured");
+                }
+                results.set(i, budget.extrapolate(sizes.get(i)));
+            }
+        }
+        return new Report(results, sliceCount, drift[0], drift[1], sweepMinutes, driftDetected);
+    }
+
+    // Least-squares slope of log(time / size's mean) against minutes into the sweep, and its
+    // t-statistic; {NaN, 0} with too few repeated slices to tell.
+    static double[] drift(List<List<double[]>> timings) {
+        List<double[]> points = new ArrayList<>();
+        for (List<double[]> sizeTimings : timings) {
+            if (sizeTimings.size() < 2) {
+                continue;
+            }
+            double meanLog = 0;
+            for (double[] timing : sizeTimings) {
+                meanLog += Math.log(timing[1]) / sizeTimings.size();
+            }
+            for (double[] timing : sizeTimings) {
+                points.add(new double[]{timing[0], Math.log(timing[1]) - meanLog});
+            }
+        }
+        if (points.size() < 4) {
+            return new double[]{Double.NaN, 0};
+        }
+        double meanX = 0;
+        double meanY = 0;
+        for (double[] point : points) {
+            meanX += point[0] / points.size();
+            meanY += point[1] / points.size();
+        }
+        double sxx = 0;
+        double sxy = 0;
+        for (double[] point : points) {
+            sxx += (point[0] - meanX) * (point[0] - meanX);
+            sxy += (point[0] - meanX) * (point[1] - meanY);
+        }
+        if (sxx == 0) {
+            return new double[]{Double.NaN, 0};
+        }
+        double slope = sxy / sxx;
+        double sse = 0;
+        for (double[] point : points) {
+            double residual = point[1] - meanY - slope * (point[0] - meanX);
+            sse += residual * residual;
+        }
+        double standardError = Math.sqrt(sse / (points.size() - 2) / sxx);
+        return new double[]{slope, standardError > 0 ? slope / standardError : 0};
+    }
+
+    // One result from a size's slices: the mean of each metric, the largest live heap, and
+    // precision and CV from the spread between slices rather than within one.
+    static AnalysisResult aggregate(List<AnalysisResult> slices, List<Double> times) {
+        AnalysisResult first = slices.get(0);
+        double executionTime = 0;
+        for (double time : times) {
+            executionTime += time / times.size();
+        }
+        double peakLiveHeap = Double.NaN;
+        double retainedHeap = Double.NaN;
+        for (AnalysisResult slice : slices) {
+            peakLiveHeap = maxOf(peakLiveHeap, slice.getPeakLiveHeap());
+            retainedHeap = maxOf(retainedHeap, slice.getRetainedHeap());
+        }
+        boolean spread = times.size() > 1;
+        return new AnalysisResult(executionTime, mean(slices, AnalysisResult::getMemoryUsed),
+                first.getInputSize(), mean(slices, AnalysisResult::getThroughput),
+                mean(slices, AnalysisResult::getGcPauseTime), mean(slices, AnalysisResult::getHeapAllocationRate),
+                mean(slices, AnalysisResult::getP50Latency), mean(slices, AnalysisResult::getP95Latency),
+                mean(slices, AnalysisResult::getP99Latency),
+                spread ? AdaptiveBenchmarkRunner.relativeHalfWidth(times) : first.getPrecision(),
+                peakLiveHeap, retainedHeap,
+                spread ? AdaptiveBenchmarkRunner.coefficientOfVariation(times) : first.getCoefficientOfVariation());
+    }
+
+    // Mean over the slices that have the metric; NaN if none has.
+    private static double mean(List<AnalysisResult> slices, ToDoubleFunction<AnalysisResult> metric) {
+        double sum = 0;
+        int count = 0;
+        for (AnalysisResult slice : slices) {
+            double value = metric.applyAsDouble(slice);
+            if (!Double.isNaN(value)) {
+                sum += value;
+                count++;
+            }
+        }
+        return count == 0 ? Double.NaN : sum / count;
+    }
+
+    private static double maxOf(double current, double value) {
+        return Double.isNaN(current) ? value : Double.isNaN(value) ? current : Math.max(current, value);
+    }
+}
@@ -0,0 +1,225 @@
+package main.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Finds knees in a sweep: sizes where the cost per element jumps or changes slope, as it does
+ * when the working set outgrows a cache level. One complexity fit smooths these over. Here
+ * the per-element curve is split into straight log-log segments by least squares, and BIC
+ * decides how many segments the data supports. Each knee's working set comes from the peak
+ * live heap around it and is compared with the machine's cache sizes.
+ */
+public class KneeDetector {
+    private static final int MIN_SEGMENT_POINTS = 3;
+    private static final int MAX_KNEES = 4;
+    // Variance of the log values assumed at least, i.e. about 1% noise, so that smooth
+    // synthetic or very stable data is not cut into ever more segments.
+    private static final double NOISE_FLOOR = 1e-4;
+    // Rises in cost per element smaller than this are not reported.
+    private static final double MIN_CHANGE = 0.1;
+    // Bytes per element assumed when the live heap was not measured.
+    private static final int DEFAULT_ELEMENT_BYTES = Integer.BYTES;
+    // A cache explains a knee if its size lies within the working sets at the sizes either
+    // side of the knee, widened by this factor.
+    private static final double MATCH_SLACK = 1.5;
+
+    private final List<CacheTopology.Level> caches;
+
+    public static class Knee {
+        private final int lowerSize;
+        private final int upperSize;
+        private final double before;
+        private final double after;
+        private final double workingSetBytes;
+        private final boolean workingSetMeasured;
+        private final CacheTopology.Level cache;
+
+        Knee(int lowerSize, int upperSize, double before, double after, double workingSetBytes,
+             boolean workingSetMeasured, CacheTopology.Level cache) {
+            this.lowerSize = lowerSize;
+            this.upperSize = upperSize;
+            this.before = before;
+            this.after = after;
+            this.workingSetBytes = workingSetBytes;
+            this.workingSetMeasured = workingSetMeasured;
+            this.cache = cache;
+        }
+
+        // The last measured size before the knee and the first after it.
+        public int getLowerSize() { return lowerSize; }
+        public int getUpperSize() { return upperSize; }
+        // Where the knee is drawn: the geometric midpoint of the two.
+        public double getSize() { return Math.sqrt((double) lowerSize * upperSize); }
+        // Cost per element at the knee as the segments before and after it fit it.
+        public double getBefore() { return before; }
+        public double getAfter() { return after; }
+        public double getChange() { return after / before; }
+        public double getWorkingSetBytes() { return workingSetBytes; }
+        // False when the working set is guessed from the size alone.
+        public boolean isWorkingSetMeasured() { return workingSetMeasured; }
+        // The cache level the working set crosses here, or null if none is close.
+        public CacheTopology.Level getCache() { return cache; }
+
+        public String getDescription() {
+            return String.format("n ≈ %.0f: ×%.2f per element, working set %s%s%s", getSize(), getChange(),
+                    workingSetMeasured ? "" : "~",
+                    CacheTopology.formatBytes(workingSetBytes),
+                    cache == null ? "" : " ≈ " + cache);
+        }
+    }
+
+    public KneeDetector() {
+        this(CacheTopology.read());
+    }
+
+    public KneeDetector(List<CacheTopology.Level> caches) {
+        this.caches = caches;
+    }
+
+    // Knees where values / size rises, smallest size first. liveHeaps may be null or hold NaN where the
+    // live heap was not measured.
+    public List<Knee> detect(List<Integer> sizes, List<Double> values, List<Double> liveHeaps) {
+        List<double[]> points = new ArrayList<>();
+        for (int i = 0; i < sizes.size(); i++) {
+            double value = values.get(i);
+            if (sizes.get(i) > 0 && value > 0 && !Double.isNaN(value) && !Double.isInfinite(value)) {
+                double liveHeap = liveHeaps == null ? Double.NaN : liveHeaps.get(i);
+                points.add(new double[]{sizes.get(i), value, liveHeap});
+            }
+        }
+        points.sort(Comparator.comparingDouble(point -> point[0]));
+        int m = points.size();
+        List<Knee> knees = new ArrayList<>();
+        if (m < 2 * MIN_SEGMENT_POINTS) {
+            return knees;
+        }
+
+        double[] x = new double[m];
+        double[] y = new double[m];
+        for (int i = 0; i < m; i++) {
+            x[i] = Math.log(points.get(i)[0]);
+            y[i] = Math.log(points.get(i)[1] / points.get(i)[0]);
+        }
+        int[] starts = bestSegmentation(x, y);
+        for (int s = 1; s < starts.length; s++) {
+            int leftStart = starts[s - 1];
+            int rightStart = starts[s];
+            int rightEnd = s + 1 < starts.length ? starts[s + 1] : m;
+            double[] left = line(x, y, leftStart, rightStart);
+            double[] right = line(x, y, rightStart, rightEnd);
+            // Both lines at the middle of the gap, so neither is extrapolated far. Costs that
+            // fall are fixed overhead being spread thinner, not the memory hierarchy.
+            double at = (x[rightStart - 1] + x[rightStart]) / 2;
+            double before = Math.exp(left[0] + left[1] * at);
+            double after = Math.exp(right[0] + right[1] * at);
+            if (after / before < 1 + MIN_CHANGE) {
+                continue;
+            }
+            knees.add(knee(points.get(rightStart - 1), points.get(rightStart), before, after));
+        }
+        return knees;
+    }
+
+    private Knee knee(double[] lower, double[] upper, double before, double after) {
+        double lowerBytes = lower[2];
+        double upperBytes = upper[2];
+        boolean measured = lowerBytes > 0 && upperBytes > 0;
+        if (!measured) {
+            lowerBytes = lower[0] * DEFAULT_ELEMENT_BYTES;
+            upperBytes = upper[0] * DEFAULT_ELEMENT_BYTES;
+        }
+        double workingSet = Math.sqrt(lowerBytes * upperBytes);
+
+        CacheTopology.Level match = null;
+        for (CacheTopology.Level cache : caches) {
+            if (cache.getBytes() < Math.min(lowerBytes, upperBytes) / MATCH_SLACK
+                    || cache.getBytes() > Math.max(lowerBytes, upperBytes) * MATCH_SLACK) {
+                continue;
+            }
+            if (match == null || Math.abs(Math.log(cache.getBytes() / workingSet))
+                    < Math.abs(Math.log(match.getBytes() / workingSet))) {
+                match = cache;
+            }
+        }
+        return new Knee((int) lower[0], (int) upper[0], before, after, workingSet, measured, match);
+    }
+
+    // Start index of each segment in the split with the lowest BIC. Segments are fitted
+    // independently, so a knee can be a jump as well as a bend; a split costs three
+    // parameters, the breakpoint and the new segment's line.
+    private static int[] bestSegmentation(double[] x, double[] y) {
+        int m = x.length;
+        double[][] cost = new double[m][m + 1];
+        for (int i = 0; i < m; i++) {
+            for (int j = i + MIN_SEGMENT_POINTS; j <= m; j++) {
+                cost[i][j] = line(x, y, i, j)[2];
+            }
+        }
+
+        int maxSegments = Math.min(MAX_KNEES + 1, m / MIN_SEGMENT_POINTS);
+        // total[k][j]: least squared error splitting the first j points into k + 1 segments.
+        double[][] total = new double[maxSegments][m + 1];
+        int[][] split = new int[maxSegments][m + 1];
+        for (double[] row : total) {
+            Arrays.fill(row, Double.POSITIVE_INFINITY);
+        }
+        for (int j = MIN_SEGMENT_POINTS; j <= m; j++) {
+            total[0][j] = cost[0][j];
+        }
+        for (int k = 1; k < maxSegments; k++) {
+            for (int j = (k + 1) * MIN_SEGMENT_POINTS; j <= m; j++) {
+                for (int i = k * MIN_SEGMENT_POINTS; i <= j - MIN_SEGMENT_POINTS; i++) {
+                    double candidate = total[k - 1][i] + cost[i][j];
+                    if (candidate < total[k][j]) {
+                        total[k][j] = candidate;
+                        split[k][j] = i;
+                    }
+                }
+            }
+        }
+
+        int best = 0;
+        double bestBic = Double.POSITIVE_INFINITY;
+        for (int k = 0; k < maxSegments; k++) {
+            int parameters = 3 * (k + 1) - 1;
+            double bic = m * Math.log(Math.max(total[k][m] / m, NOISE_FLOOR)) + parameters * Math.log(m);
+            if (bic < bestBic) {
+                bestBic = bic;
+                best = k;
+            }
+        }
+        int[] starts = new int[best + 1];
+        int end = m;
+        for (int k = best; k > 0; k--) {
+            starts[k] = split[k][end];
+            end = starts[k];
+        }
+        return starts;
+    }
+
+    // Least-squares line through points [from, to): intercept, slope, squared error.
+    private static double[] line(double[] x, double[] y, int from, int to) {
+        int n = to - from;
+        double meanX = 0, meanY = 0;
+        for (int i = from; i < to; i++) {
+            meanX += x[i] / n;
+            meanY += y[i] / n;
+        }
+        double sxx = 0, sxy = 0;
+        for (int i = from; i < to; i++) {
+            sxx += (x[i] - meanX) * (x[i] - meanX);
+            sxy += (x[i] - meanX) * (y[i] - meanY);
+        }
+        double slope = sxx > 0 ? sxy / sxx : 0;
+        double intercept = meanY - slope * meanX;
+        double error = 0;
+        for (int i = from; i < to; i++) {
+            double residual = y[i] - (intercept + slope * x[i]);
+            error += residual * residual;
+        }
+        return new double[]{intercept, slope, error};
+    }
+}
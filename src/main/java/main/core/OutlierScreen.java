@@ -0,0 +1,181 @@
+package main.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Second look at a finished sweep for points a GC storm or another process spoiled. A point
+ * is suspect when its own confidence interval is too wide, or when it sits far off the line
+ * through its neighbours in log-log space compared with how far points usually sit. Suspects
+ * are measured again, worst first, while the retry budget lasts. A re-run that agrees with
+ * the first confirms the point, since a real jump in the curve reproduces; otherwise the
+ * faster run is kept, as interference only ever adds time. Points never confirmed or
+ * cleared are flagged as outliers.
+ */
+public class OutlierScreen {
+    public static final int DEFAULT_RETRY_BUDGET = 4;
+    private static final int MAX_RETRIES_PER_POINT = 2;
+    // Relative 95% CI half-width above which a point's own timing is too noisy to trust.
+    private static final double MAX_PRECISION = 0.10;
+    // Deviation from the neighbours, in robust standard deviations, that makes a point suspect.
+    private static final double ROBUST_Z = 3.5;
+    // Deviations below this fraction are never suspect, however smooth the rest of the sweep.
+    private static final double MIN_DEVIATION = 0.15;
+    // Two runs agree when their times differ by less than this, or their CIs overlap.
+    private static final double AGREEMENT = 0.05;
+
+    public interface Remeasurer {
+        // A fresh measurement of the result at index; extrapolated once the sweep budget is gone.
+        AnalysisResult measure(int index) throws Exception;
+    }
+
+    private final int retryBudget;
+
+    public OutlierScreen() {
+        this(DEFAULT_RETRY_BUDGET);
+    }
+
+    public OutlierScreen(int retryBudget) {
+        this.retryBudget = retryBudget;
+    }
+
+    public int getRetryBudget() { return retryBudget; }
+
+    // Results must be sorted by size; the returned list matches them index for index.
+    public List<AnalysisResult> screen(List<AnalysisResult> results, Remeasurer remeasurer) throws Exception {
+        List<AnalysisResult> screened = new ArrayList<>(results);
+        int[] retries = new int[screened.size()];
+        Set<Integer> confirmed = new HashSet<>();
+        int budget = retryBudget;
+
+        while (budget > 0) {
+            if (Thread.currentThread().isInterrupted()) {
+                throw new InterruptedException();
+            }
+            int worst = -1;
+            double worstScore = 0;
+            double[] scores = suspicion(screened);
+            for (int i = 0; i < scores.length; i++) {
+                if (scores[i] > worstScore && !confirmed.contains(i) && retries[i] < MAX_RETRIES_PER_POINT) {
+                    worst = i;
+                    worstScore = scores[i];
+                }
+            }
+            if (worst < 0) {
+                break;
+            }
+            budget--;
+            retries[worst]++;
+            AnalysisResult current = screened.get(worst);
+            AnalysisResult rerun = remeasurer.measure(worst);
+            if (rerun.isExtrapolated()) {
+                break;
+            }
+            if (agree(current, rerun)) {
+                confirmed.add(worst);
+            }
+            if (rerun.getExecutionTime() < current.getExecutionTime()) {
+                screened.set(worst, rerun);
+            }
+        }
+
+        double[] scores = suspicion(screened);
+        for (int i = 0; i < screened.size(); i++) {
+            boolean outlier = scores[i] > 0 && !confirmed.contains(i);
+            if (retries[i] > 0 || outlier) {
+                screened.set(i, screened.get(i).withScreening(retries[i], outlier));
+            }
+        }
+        return screened;
+    }
+
+    // How suspect each point is: 0 for none, else the larger of its CI width over the limit
+    // and its deviation over the threshold. Of two adjacent deviations only the larger counts,
+    // since one bad point also pulls its neighbours' interpolations off.
+    public static double[] suspicion(List<AnalysisResult> results) {
+        int m = results.size();
+        double[] deviation = neighbourDeviations(results);
+        List<Double> magnitudes = new ArrayList<>();
+        for (double d : deviation) {
+            if (!Double.isNaN(d)) {
+                magnitudes.add(Math.abs(d));
+            }
+        }
+        // 1.4826 * MAD estimates the standard deviation of normal noise.
+        double scale = magnitudes.isEmpty() ? 0 : 1.4826 * SweepScheduler.median(magnitudes);
+        double threshold = Math.max(ROBUST_Z * scale, Math.log(1 + MIN_DEVIATION));
+
+        double[] scores = new double[m];
+        for (int i = 0; i < m; i++) {
+            AnalysisResult result = results.get(i);
+            if (result.isExtrapolated()) {
+                continue;
+            }
+            double precision = result.getPrecision();
+            if (precision > MAX_PRECISION) {
+                scores[i] = precision / MAX_PRECISION;
+            }
+            double d = Math.abs(deviation[i]);
+            if (d > threshold && !(i > 0 && Math.abs(deviation[i - 1]) > d)
+                    && !(i + 1 < m && Math.abs(deviation[i + 1]) > d)) {
+                scores[i] = Math.max(scores[i], d / threshold);
+            }
+        }
+        return scores;
+    }
+
+    // Log of each time over what the nearest measured neighbours predict for it: interpolated
+    // between the two sides inside the sweep, extrapolated from the two nearest at its ends.
+    // NaN where there is not enough to compare with.
+    private static double[] neighbourDeviations(List<AnalysisResult> results) {
+        List<Integer> measured = new ArrayList<>();
+        for (int i = 0; i < results.size(); i++) {
+            AnalysisResult result = results.get(i);
+            if (!result.isExtrapolated() && result.getExecutionTime() > 0 && result.getInputSize() > 0) {
+                measured.add(i);
+            }
+        }
+        double[] deviation = new double[results.size()];
+        Arrays.fill(deviation, Double.NaN);
+        if (measured.size() < 3) {
+            return deviation;
+        }
+        for (int k = 0; k < measured.size(); k++) {
+            int a, b;
+            if (k == 0) {
+                a = measured.get(1);
+                b = measured.get(2);
+            } else if (k == measured.size() - 1) {
+                a = measured.get(k - 2);
+                b = measured.get(k - 1);
+            } else {
+                a = measured.get(k - 1);
+                b = measured.get(k + 1);
+            }
+            int i = measured.get(k);
+            double xa = Math.log(results.get(a).getInputSize());
+            double xb = Math.log(results.get(b).getInputSize());
+            double x = Math.log(results.get(i).getInputSize());
+            if (xa == xb) {
+                continue;
+            }
+            double ya = Math.log(results.get(a).getExecutionTime());
+            double yb = Math.log(results.get(b).getExecutionTime());
+            double expected = ya + (yb - ya) * (x - xa) / (xb - xa);
+            deviation[i] = Math.log(results.get(i).getExecutionTime()) - expected;
+        }
+        return deviation;
+    }
+
+    private static boolean agree(AnalysisResult first, AnalysisResult second) {
+        double difference = Math.abs(first.getExecutionTime() - second.getExecutionTime())
+                / Math.min(first.getExecutionTime(), second.getExecutionTime());
+        double overlap = (Double.isNaN(first.getPrecision()) ? 0 : first.getPrecision())
+                + (Double.isNaN(second.getPrecision()) ? 0 : second.getPrecision());
+        return difference <= Math.max(AGREEMENT, overlap)
+                && !(second.getPrecision() > MAX_PRECISION);
+    }
+}
@@ -0,0 +1,210 @@
+package main.core;
+
+import java.io.*;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Bounded record of a program's output. Only the first and last few KB stay in memory, next
+ * to a running SHA-256 and byte and line counts. The complete output lives on disk only when
+ * it did not fit; otherwise a file is written from memory if someone asks for one.
+ */
+public class OutputCapture extends OutputStream {
+    public static final int DEFAULT_HEAD_BYTES = 64 * 1024;
+    public static final int DEFAULT_TAIL_BYTES = 64 * 1024;
+
+    private final byte[] head;
+    private final byte[] tail;
+    private int headLength = 0;
+    // Next write position in the tail ring; tailFull once it has wrapped.
+    private int tailPosition = 0;
+    private boolean tailFull = false;
+
+    private final MessageDigest digest;
+    private long byteCount = 0;
+    private long lineCount = 0;
+    private int lastByte = '\n';
+
+    private Path fullOutput;
+    private boolean ownsFullOutput = false;
+
+    public OutputCapture() {
+        this(DEFAULT_HEAD_BYTES, DEFAULT_TAIL_BYTES);
+    }
+
+    public OutputCapture(int headBytes, int tailBytes) {
+        this.head = new byte[headBytes];
+        this.tail = new byte[tailBytes];
+        try {
+            this.digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    public static OutputCapture empty() {
+        return new OutputCapture(0, 0);
+    }
+
+    // Streams an existing output file through a new capture. If the output does not fit in
+    // memory the file is moved into the capture's keeping instead of being copied.
+    public static OutputCapture fromFile(Path file) throws IOException {
+        OutputCapture capture = new OutputCapture();
+        try (InputStream in = Files.newInputStream(file)) {
+            in.transferTo(capture);
+        }
+        if (capture.isTruncated()) {
+            Path kept = Files.createTempFile("program_output_", ".txt");
+            // Owned and deleted by discard; a deleteOnExit per run would pile up paths.
+            Files.move(file, kept, StandardCopyOption.REPLACE_EXISTING);
+            capture.fullOutput = kept;
+            capture.ownsFullOutput = true;
+        }
+        return capture;
+    }
+
+    @Override
+    public void write(int b) {
+        write(new byte[]{(byte) b}, 0, 1);
+    }
+
+    @Override
+    public synchronized void write(byte[] bytes, int offset, int length) {
+        digest.update(bytes, offset, length);
+        for (int i = offset; i < offset + length; i++) {
+            if (bytes[i] == '\n') {
+                lineCount++;
+            }
+        }
+        if (length > 0) {
+            lastByte = bytes[offset + length - 1];
+        }
+        byteCount += length;
+
+        int toHead = Math.min(length, head.length - headLength);
+        System.arraycopy(bytes, offset, head, headLength, toHead);
+        headLength += toHead;
+        offset += toHead;
+        length -= toHead;
+
+        if (length == 0 || tail.length == 0) {
+            return;
+        }
+        if (length >= tail.length) {
+            // Only the last tail.length bytes can survive anyway.
+            System.arraycopy(bytes, offset + length - tail.length, tail, 0, tail.length);
+            tailPosition = 0;
+            tailFull = true;
+            return;
+        }
+        int first = Math.min(length, tail.length - tailPosition);
+        System.arraycopy(bytes, offset, tail, tailPosition, first);
+        System.arraycopy(bytes, offset + first, tail, 0, length - first);
+        if (tailPosition + length >= tail.length) {
+            tailFull = true;
+        }
+        tailPosition = (tailPosition + length) % tail.length;
+    }
+
+    public synchronized long getByteCount() {
+        return byteCount;
+    }
+
+    // Counts a final line without a newline too.
+    public synchronized long getLineCount() {
+        return lineCount + (byteCount > 0 && lastByte != '\n' ? 1 : 0);
+    }
+
+    public synchronized String getSha256() {
+        try {
+            return HexFormat.of().formatHex(((MessageDigest) digest.clone()).digest());
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // True when some of the output between the head and the tail is not held in memory.
+    public synchronized boolean isTruncated() {
+        return byteCount > headLength + retainedTailLength();
+    }
+
+    private int retainedTailLength() {
+        return tailFull ? tail.length : tailPosition;
+    }
+
+    private byte[] tailBytes() {
+        byte[] bytes = new byte[retainedTailLength()];
+        if (tailFull) {
+            System.arraycopy(tail, tailPosition, bytes, 0, tail.length - tailPosition);
+            System.arraycopy(tail, 0, bytes, tail.length - tailPosition, tailPosition);
+        } else {
+            System.arraycopy(tail, 0, bytes, 0, tailPosition);
+        }
+        return bytes;
+    }
+
+    // Head and tail, with a marker where output was left out.
+    public synchronized String getText() {
+        Charset charset = Charset.defaultCharset();
+        String headText = new String(head, 0, headLength, charset);
+        String tailText = new String(tailBytes(), charset);
+        if (!isTruncated()) {
+            return headText + tailText;
+        }
+        long omitted = byteCount - headLength - retainedTailLength();
+        return headText + "\n... [" + omitted + " bytes omitted] ...\n" + tailText;
+    }
+
+    // The complete output as a file, written from memory the first time it is needed when
+    // nothing was ever spilled. Returns null if the omitted bytes are no longer available.
+    public synchronized Path spill() throws IOException {
+        if (fullOutput != null && Files.exists(fullOutput)) {
+            return fullOutput;
+        }
+        if (isTruncated()) {
+            return null;
+        }
+        fullOutput = Files.createTempFile("program_output_", ".txt");
+        fullOutput.toFile().deleteOnExit();
+        ownsFullOutput = true;
+        try (OutputStream out = Files.newOutputStream(fullOutput)) {
+            out.write(head, 0, headLength);
+            out.write(tailBytes());
+        }
+        return fullOutput;
+    }
+
+    // Up to length bytes of the complete output starting at offset, for paging through it.
+    public String readPage(long offset, int length) throws IOException {
+        Path file = spill();
+        if (file == null) {
+            throw new IOException("The full output is no longer available");
+        }
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "r")) {
+            if (offset >= raf.length()) {
+                return "";
+            }
+            raf.seek(offset);
+            byte[] page = new byte[(int) Math.min(length, raf.length() - offset)];
+            raf.readFully(page);
+            return new String(page, Charset.defaultCharset());
+        }
+    }
+
+    // Deletes the spilled file, if this capture made one.
+    public synchronized void discard() {
+        if (fullOutput != null && ownsFullOutput) {
+            try {
+                Files.deleteIfExists(fullOutput);
+            } catch (IOException e) {
+                // Left in the temp dir.
+            }
+        }
+        fullOutput = null;
+    }
+}
@@ -0,0 +1,105 @@
+package main.core;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Stdin for a benchmarked program: text held in memory, such as pasted input, or a file that
+ * InputGenerator streamed to, so large generated sizes never pass through the heap. Only the
+ * first few KB of a file are read back, to show what the program was given.
+ */
+public class ProgramInput {
+    public static final int PREVIEW_BYTES = 64 * 1024;
+
+    private final String text;
+    private final Path file;
+    private final long length;
+    private final boolean endsWithNewline;
+    private String preview;
+
+    private ProgramInput(String text, Path file, long length, boolean endsWithNewline) {
+        this.text = text;
+        this.file = file;
+        this.length = length;
+        this.endsWithNewline = endsWithNewline;
+    }
+
+    public static ProgramInput ofText(String text) {
+        return new ProgramInput(text, null, text.getBytes().length, text.endsWith("\n"));
+    }
+
+    // A file this input now owns; discard deletes it. No deleteOnExit: the hook would keep a
+    // path per point for the whole session. The input cache sweeps up what a crash leaves.
+    static ProgramInput ofFile(Path file, long length, boolean endsWithNewline) {
+        return new ProgramInput(null, file, length, endsWithNewline);
+    }
+
+    public long getLength() {
+        return length;
+    }
+
+    public boolean isEmpty() {
+        return length == 0;
+    }
+
+    public boolean endsWithNewline() {
+        return endsWithNewline;
+    }
+
+    // The backing file, or null for text held in memory.
+    public Path getFile() {
+        return file;
+    }
+
+    // The whole text, or the start of the file with a marker for the rest.
+    public synchronized String getPreview() {
+        if (text != null) {
+            return text;
+        }
+        if (preview == null) {
+            byte[] head;
+            try (InputStream in = Files.newInputStream(file)) {
+                head = in.readNBytes(PREVIEW_BYTES);
+            } catch (IOException e) {
+                return "[Generated input is no longer available: " + e.getMessage() + "]";
+            }
+            String headText = new String(head, Charset.defaultCharset());
+            preview = head.length < length
+                    ? headText + "\n... [" + (length - head.length) + " more bytes not shown] ...\n"
+                    : headText;
+        }
+        return preview;
+    }
+
+    public void writeTo(Path target) throws IOException {
+        if (text != null) {
+            Files.write(target, text.getBytes());
+        } else {
+            Files.copy(file, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    public void transferTo(OutputStream out) throws IOException {
+        if (text != null) {
+            out.write(text.getBytes());
+        } else {
+            Files.copy(file, out);
+        }
+    }
+
+    // Deletes the backing file, if there is one.
+    public void discard() {
+        if (file != null) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                // Cached links are swept up once stale; anything else stays in the temp dir.
+            }
+        }
+    }
+}
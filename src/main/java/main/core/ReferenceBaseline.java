@@ -0,0 +1,106 @@
+package main.core;
+
+/**
+ * Built-in reference programs backed by the JDK's own implementations, benchmarked on the same
+ * inputs as the user's program so a hand-written sort, search or map can be set against the
+ * library one. Each reads what InputGenerator writes for array programs: a size, then that
+ * many integers, on one line or several; canRead tells which inputs are in that shape. They
+ * print a checksum so the work cannot be optimized away.
+ */
+public enum ReferenceBaseline {
+    ARRAYS_SORT("Arrays.sort", "JdkArraysSort", """
+            int[] sorted = values.clone();
+            java.util.Arrays.sort(sorted);
+            long checksum = 0;
+            for (int i = 0; i < sorted.length; i += Math.max(1, sorted.length / 16)) {
+                checksum = checksum * 31 + sorted[i];
+            }
+            """),
+    COLLECTIONS_SORT("Collections.sort", "JdkCollectionsSort", """
+            java.util.List<Integer> list = new java.util.ArrayList<>(values.length);
+            for (int value : values) {
+                list.add(value);
+            }
+            java.util.Collections.sort(list);
+            long checksum = 0;
+            for (int i = 0; i < list.size(); i += Math.max(1, list.size() / 16)) {
+                checksum = checksum * 31 + list.get(i);
+            }
+            """),
+    // One lookup per value, in a sorted copy so unsorted input works too.
+    BINARY_SEARCH("Arrays.binarySearch", "JdkBinarySearch", """
+            int[] sorted = values.clone();
+            java.util.Arrays.sort(sorted);
+            long checksum = 0;
+            for (int value : values) {
+                checksum += java.util.Arrays.binarySearch(sorted, value);
+            }
+            """),
+    // Counts how often each value occurs.
+    HASH_MAP("HashMap", "JdkHashMap", """
+            java.util.Map<Integer, Integer> counts = new java.util.HashMap<>();
+            for (int value : values) {
+                counts.merge(value, 1, Integer::sum);
+            }
+            long checksum = counts.size();
+            for (int value : values) {
+                checksum += counts.get(value);
+            }
+            """);
+
+    private final String label;
+    private final String className;
+    private final String body;
+
+    ReferenceBaseline(String label, String className, String body) {
+        this.label = label;
+        this.className = className;
+        this.body = body;
+    }
+
+    public String getLabel() { return label; }
+    public String getClassName() { return className; }
+
+    // True for the InputGenerator specs written as a size and then ints. Strings would leave
+    // the baselines nothing to do and matrices or doubles a part of the work, so a ratio
+    // against them would mean nothing.
+    public static boolean canRead(String spec) {
+        if (!InputGenerator.isArraySpec(spec)) {
+            return false;
+        }
+        return !spec.startsWith("rows:") || Integer.parseInt(spec.split(":")[2]) == 0;
+    }
+
+    // The whole program: reading the values, then the body working on them.
+    public String getSource() {
+        return "public class " + className + " {\n"
+                + "    public static void main(String[] args) {\n"
+                + "        java.util.Scanner in = new java.util.Scanner(System.in);\n"
+                + "        int n = in.hasNextInt() ? Math.max(0, in.nextInt()) : 0;\n"
+                + "        int[] values = new int[n];\n"
+                + "        int count = 0;\n"
+                + "        while (count < n && in.hasNextInt()) {\n"
+                + "            values[count++] = in.nextInt();\n"
+                + "        }\n"
+                + "        values = java.util.Arrays.copyOf(values, count);\n"
+                + body.indent(8)
+                + "        System.out.println(checksum);\n"
+                + "    }\n"
+                + "}\n";
+    }
+
+    // Null for a label that names no baseline, such as "None".
+    public static ReferenceBaseline fromLabel(String label) {
+        for (ReferenceBaseline baseline : values()) {
+            if (baseline.label.equals(label)) {
+                return baseline;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public String toString() {
+        return label;
+    }
+}
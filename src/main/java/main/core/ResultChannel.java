@@ -0,0 +1,252 @@
+package main.core;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Binary stream that carries benchmark records from a benchmark JVM back to the analyzer.
+ * The stream starts with a magic number and format version, followed by length-prefixed
+ * tagged frames. Readers skip frames with tags they do not know and ignore trailing bytes
+ * inside a frame, so newer writers can add fields without breaking older data.
+ */
+public class ResultChannel {
+    public static final int MAGIC = 0x4A4D4852; // "JMHR"
+    public static final int VERSION = 1;
+
+    public static final int TAG_END = 0;
+    public static final int TAG_RECORD = 1;
+    public static final int TAG_DONE = 2;
+    public static final int TAG_FAILED = 3;
+
+    public static class Writer implements Flushable {
+        private final DataOutputStream out;
+        private boolean headerWritten = false;
+
+        public Writer(OutputStream out) {
+            this.out = new DataOutputStream(new BufferedOutputStream(out));
+        }
+
+        public synchronized void writeRecord(BenchmarkRecord record) throws IOException {
+            writeFrame(TAG_RECORD, encode(record));
+        }
+
+        // Reply that ends one worker job, with any numbers the caller wants to pass along.
+        public synchronized void writeDone(long... values) throws IOException {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream payload = new DataOutputStream(bytes);
+            payload.writeInt(values.length);
+            for (long value : values) {
+                payload.writeLong(value);
+            }
+            writeFrame(TAG_DONE, bytes.toByteArray());
+        }
+
+        public synchronized void writeFailed(String message) throws IOException {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            new DataOutputStream(bytes).writeUTF(truncate(String.valueOf(message)));
+            writeFrame(TAG_FAILED, bytes.toByteArray());
+        }
+
+        public synchronized void writeEnd() throws IOException {
+            writeFrame(TAG_END, new byte[0]);
+        }
+
+        private void writeFrame(int tag, byte[] payload) throws IOException {
+            if (!headerWritten) {
+                out.writeInt(MAGIC);
+                out.writeShort(VERSION);
+                headerWritten = true;
+            }
+            out.writeByte(tag);
+            out.writeInt(payload.length);
+            out.write(payload);
+            out.flush();
+        }
+
+        @Override
+        public synchronized void flush() throws IOException {
+            out.flush();
+        }
+    }
+
+    public static class Frame {
+        private final int tag;
+        private final int version;
+        private final byte[] payload;
+
+        Frame(int tag, int version, byte[] payload) {
+            this.tag = tag;
+            this.version = version;
+            this.payload = payload;
+        }
+
+        public int getTag() {
+            return tag;
+        }
+
+        public BenchmarkRecord getRecord() throws IOException {
+            return decode(new DataInputStream(new ByteArrayInputStream(payload)), version);
+        }
+
+        public long[] getValues() throws IOException {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+            long[] values = new long[in.readInt()];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = in.readLong();
+            }
+            return values;
+        }
+
+        public String getMessage() throws IOException {
+            return new DataInputStream(new ByteArrayInputStream(payload)).readUTF();
+        }
+    }
+
+    public static class Reader {
+        private final DataInputStream in;
+        private int version = -1;
+
+        public Reader(InputStream in) {
+            this.in = new DataInputStream(new BufferedInputStream(in));
+        }
+
+        // The next frame as soon as it has fully arrived, or null at the end of the stream.
+        // Frames with unknown tags are skipped.
+        public Frame next() throws IOException {
+            if (version < 0 && !readHeader()) {
+                return null;
+            }
+            while (true) {
+                int tag = in.read();
+                if (tag < 0) {
+                    return null;
+                }
+                int length = in.readInt();
+                byte[] payload = new byte[length];
+                in.readFully(payload);
+                if (tag <= TAG_FAILED) {
+                    return new Frame(tag, version, payload);
+                }
+            }
+        }
+
+        public int getVersion() {
+            return version;
+        }
+
+        private boolean readHeader() throws IOException {
+            int magic;
+            try {
+                magic = in.readInt();
+            } catch (EOFException e) {
+                return false;
+            }
+            if (magic != MAGIC) {
+                throw new IOException("Not a benchmark result stream");
+            }
+            version = in.readUnsignedShort();
+            if (version < 1 || version > VERSION) {
+                throw new IOException("Unsupported benchmark result format version " + version);
+            }
+            return true;
+        }
+    }
+
+    static byte[] encode(BenchmarkRecord record) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(record.getInputIndex());
+        out.writeUTF(record.getMode());
+
+        out.writeInt(record.getParams().size());
+        for (Map.Entry<String, String> param : record.getParams().entrySet()) {
+            out.writeUTF(param.getKey());
+            out.writeUTF(truncate(param.getValue()));
+        }
+
+        writeScore(out, record.getPrimary());
+        out.writeInt(record.getSecondaries().size());
+        for (Map.Entry<String, BenchmarkRecord.Score> secondary : record.getSecondaries().entrySet()) {
+            out.writeUTF(secondary.getKey());
+            writeScore(out, secondary.getValue());
+        }
+
+        writeDoubles(out, record.getIterationScores());
+        out.writeInt(record.getSecondaryIterationScores().size());
+        for (Map.Entry<String, List<Double>> scores : record.getSecondaryIterationScores().entrySet()) {
+            out.writeUTF(scores.getKey());
+            writeDoubles(out, scores.getValue());
+        }
+
+        out.writeInt(record.getHistogram().size());
+        for (double[] bin : record.getHistogram()) {
+            out.writeDouble(bin[0]);
+            out.writeLong((long) bin[1]);
+        }
+        return bytes.toByteArray();
+    }
+
+    static BenchmarkRecord decode(DataInputStream in, int version) throws IOException {
+        int inputIndex = in.readInt();
+        String mode = in.readUTF();
+
+        Map<String, String> params = new LinkedHashMap<>();
+        for (int i = in.readInt(); i > 0; i--) {
+            params.put(in.readUTF(), in.readUTF());
+        }
+
+        BenchmarkRecord.Score primary = readScore(in);
+        Map<String, BenchmarkRecord.Score> secondaries = new LinkedHashMap<>();
+        for (int i = in.readInt(); i > 0; i--) {
+            secondaries.put(in.readUTF(), readScore(in));
+        }
+
+        List<Double> iterationScores = readDoubles(in);
+        Map<String, List<Double>> secondaryIterationScores = new LinkedHashMap<>();
+        for (int i = in.readInt(); i > 0; i--) {
+            secondaryIterationScores.put(in.readUTF(), readDoubles(in));
+        }
+
+        List<double[]> histogram = new ArrayList<>();
+        for (int i = in.readInt(); i > 0; i--) {
+            histogram.add(new double[]{in.readDouble(), in.readLong()});
+        }
+        return new BenchmarkRecord(inputIndex, mode, params, primary, secondaries, iterationScores,
+                secondaryIterationScores, histogram);
+    }
+
+    private static void writeScore(DataOutputStream out, BenchmarkRecord.Score score) throws IOException {
+        out.writeUTF(score.label);
+        out.writeDouble(score.score);
+        out.writeDouble(score.error);
+        out.writeUTF(score.unit);
+        out.writeLong(score.sampleCount);
+    }
+
+    private static BenchmarkRecord.Score readScore(DataInputStream in) throws IOException {
+        return new BenchmarkRecord.Score(in.readUTF(), in.readDouble(), in.readDouble(), in.readUTF(), in.readLong());
+    }
+
+    private static void writeDoubles(DataOutputStream out, List<Double> values) throws IOException {
+        out.writeInt(values.size());
+        for (double value : values) {
+            out.writeDouble(value);
+        }
+    }
+
+    private static List<Double> readDoubles(DataInputStream in) throws IOException {
+        List<Double> values = new ArrayList<>();
+        for (int i = in.readInt(); i > 0; i--) {
+            values.add(in.readDouble());
+        }
+        return values;
+    }
+
+    // writeUTF is limited to 64KB of encoded text.
+    private static String truncate(String value) {
+        return value.length() > 16384 ? value.substring(0, 16384) : value;
+    }
+}
@@ -0,0 +1,130 @@
+package main.core;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Which input sizes a range sweep measures. Besides the evenly stepped schedule there is a
+ * log-spaced one, and refinement for the adaptive sampler: after a coarse log-spaced pass,
+ * new sizes go between the measured ones where the log-log slope bends or where the points
+ * stray from the best complexity fit.
+ */
+public class SizeSchedule {
+    public static final int COARSE_POINTS = 5;
+    // Keeps refining evenly spread gaps once the curve looks smooth everywhere.
+    private static final double BASE_SCORE = 0.1;
+
+    public enum Kind {
+        LINEAR("Linear"),
+        GEOMETRIC("Geometric"),
+        ADAPTIVE("Adaptive");
+
+        private final String label;
+
+        Kind(String label) {
+            this.label = label;
+        }
+
+        public static Kind fromLabel(String label) {
+            for (Kind kind : values()) {
+                if (kind.label.equals(label)) {
+                    return kind;
+                }
+            }
+            throw new IllegalArgumentException("Unknown size schedule: " + label);
+        }
+
+        @Override
+        public String toString() { return label; }
+    }
+
+    public static List<Integer> linear(int minSize, int maxSize, int stepSize) {
+        List<Integer> sizes = new ArrayList<>();
+        for (int size = minSize; size <= maxSize; size += stepSize) {
+            sizes.add(size);
+        }
+        return sizes;
+    }
+
+    // About `points` sizes from min to max with a constant ratio between neighbours; fewer
+    // when the range holds fewer distinct integers.
+    public static List<Integer> geometric(int minSize, int maxSize, int points) {
+        TreeSet<Integer> sizes = new TreeSet<>();
+        sizes.add(minSize);
+        sizes.add(maxSize);
+        double ratio = Math.log((double) maxSize / minSize);
+        for (int i = 1; i < points - 1; i++) {
+            sizes.add((int) Math.round(minSize * Math.exp(ratio * i / (points - 1))));
+        }
+        return new ArrayList<>(sizes);
+    }
+
+    // Up to `count` new sizes, each the geometric midpoint of a gap between measured sizes,
+    // taken from the gaps that score highest. A gap scores by its log width times how much
+    // the slope bends at its ends plus how far its ends are from the fitted model.
+    public static List<Integer> refine(List<Integer> sizes, List<Double> values, int count) {
+        List<double[]> points = new ArrayList<>();
+        for (int i = 0; i < sizes.size(); i++) {
+            if (sizes.get(i) > 0 && values.get(i) > 0 && !Double.isNaN(values.get(i))) {
+                points.add(new double[]{sizes.get(i), values.get(i)});
+            }
+        }
+        points.sort(Comparator.comparingDouble(point -> point[0]));
+        int m = points.size();
+        if (m < 2 || count <= 0) {
+            return new ArrayList<>();
+        }
+
+        double[] x = new double[m];
+        double[] y = new double[m];
+        for (int i = 0; i < m; i++) {
+            x[i] = Math.log(points.get(i)[0]);
+            y[i] = Math.log(points.get(i)[1]);
+        }
+        double[] bend = new double[m];
+        for (int i = 1; i < m - 1; i++) {
+            double before = (y[i] - y[i - 1]) / (x[i] - x[i - 1]);
+            double after = (y[i + 1] - y[i]) / (x[i + 1] - x[i]);
+            bend[i] = Math.abs(after - before);
+        }
+        double[] residual = new double[m];
+        List<Integer> fitSizes = new ArrayList<>();
+        List<Double> fitValues = new ArrayList<>();
+        for (double[] point : points) {
+            fitSizes.add((int) point[0]);
+            fitValues.add(point[1]);
+        }
+        ComplexityFitter.Fit fit = new ComplexityFitter().fit(fitSizes, fitValues);
+        if (fit != null) {
+            for (int i = 0; i < m; i++) {
+                double predicted = fit.predict(points.get(i)[0]);
+                if (predicted > 0) {
+                    residual[i] = Math.abs(y[i] - Math.log(predicted));
+                }
+            }
+        }
+
+        List<double[]> gaps = new ArrayList<>();
+        for (int j = 0; j < m - 1; j++) {
+            long low = (long) points.get(j)[0];
+            long high = (long) points.get(j + 1)[0];
+            long middle = Math.round(Math.sqrt((double) low * high));
+            if (middle <= low || middle >= high) {
+                continue;
+            }
+            double score = (x[j + 1] - x[j])
+                    * (BASE_SCORE + Math.max(bend[j], bend[j + 1]) + (residual[j] + residual[j + 1]) / 2);
+            gaps.add(new double[]{score, middle});
+        }
+        gaps.sort((a, b) -> Double.compare(b[0], a[0]));
+
+        List<Integer> next = new ArrayList<>();
+        for (double[] gap : gaps.subList(0, Math.min(count, gaps.size()))) {
+            next.add((int) gap[1]);
+        }
+        next.sort(null);
+        return next;
+    }
+}
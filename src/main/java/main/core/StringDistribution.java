@@ -0,0 +1,68 @@
+package main.core;
+
+/**
+ * The text InputGenerator writes for programs that read a line. Common words and random
+ * letters are the usual cases; the others are the inputs that make substring search and
+ * suffix structures slow, each drawn from an alphabet that can be changed from its default.
+ */
+public enum StringDistribution {
+    WORDS("words", "Common Words", ""),
+    RANDOM("random", "Random Letters", "abcdefghijklmnopqrstuvwxyz"),
+    // The first character n - 1 times, then the second.
+    PERIODIC("periodic", "Periodic (aaa…ab)", "ab"),
+    // abaababaabaab…, the limit of s(k) = s(k - 1) s(k - 2), in the first two characters.
+    FIBONACCI("fibonacci", "Fibonacci Word", "ab"),
+    DNA("dna", "DNA-like", "ACGT"),
+    // Words of about √n characters, all but the last few the same in every word.
+    COMMON_PREFIX("common-prefix", "Long Common Prefix", "abcdefghijklmnopqrstuvwxyz"),
+    // A line of n copies of the first character, then the pattern: √n - 1 copies of it and
+    // the second character, which a naive search compares in full at every position.
+    NAIVE_MATCHING_WORST_CASE("naive-worst-case", "Naive Matching Worst Case", "ab");
+
+    private final String key;
+    private final String label;
+    private final String defaultAlphabet;
+
+    StringDistribution(String key, String label, String defaultAlphabet) {
+        this.key = key;
+        this.label = label;
+        this.defaultAlphabet = defaultAlphabet;
+    }
+
+    public String getKey() { return key; }
+    public String getLabel() { return label; }
+    // Empty for common words, which come from a fixed list.
+    public String getDefaultAlphabet() { return defaultAlphabet; }
+
+    // The input type for this distribution over alphabet, or over the default one if alphabet
+    // is blank. Alphabets must be at least two different printable ASCII characters, other
+    // than spaces and ':'.
+    public String spec(String alphabet) {
+        if (this == WORDS) {
+            return "words";
+        }
+        String chars = alphabet == null || alphabet.isBlank() ? defaultAlphabet : alphabet.trim();
+        if (chars.chars().anyMatch(c -> c <= ' ' || c > '~' || c == ':')) {
+            throw new IllegalArgumentException("The alphabet may only hold printable ASCII characters, without spaces or ':'.");
+        }
+        if (chars.chars().distinct().count() < 2) {
+            throw new IllegalArgumentException("The alphabet needs at least two different characters.");
+        }
+        return "string:" + key + ":" + chars;
+    }
+
+    // Null for a label that names no distribution.
+    public static StringDistribution fromLabel(String label) {
+        for (StringDistribution distribution : values()) {
+            if (distribution.label.equals(label)) {
+                return distribution;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public String toString() {
+        return label;
+    }
+}
@@ -0,0 +1,129 @@
+package main.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deadline for a whole sweep. Each measured point is recorded, and the next point's cost is
+ * predicted from a power-law fit of the time per call over the last few sizes. Sizes the
+ * remaining budget cannot cover are measured at a smaller size or extrapolated instead.
+ */
+public class SweepBudget {
+    // Lower bound on main() calls per measured point: verification, batch calibration and
+    // at least one call per warm-up and measurement iteration.
+    static final int MIN_CALLS_PER_POINT = 20;
+    private static final int FIT_POINTS = 4;
+
+    private final long deadlineNanos;
+    private final List<Integer> sizes = new ArrayList<>();
+    private final List<Double> executionTimes = new ArrayList<>();
+    private final List<Double> memoryUsages = new ArrayList<>();
+    private final List<Double> pointMillis = new ArrayList<>();
+    private boolean exhausted = false;
+
+    public SweepBudget(long budgetMillis) {
+        this.deadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(budgetMillis);
+    }
+
+    public synchronized long remainingMillis() {
+        if (exhausted) {
+            return 0;
+        }
+        return Math.max(0, TimeUnit.NANOSECONDS.toMillis(deadlineNanos - System.nanoTime()));
+    }
+
+    // Called when a point had to be killed; nothing else gets measured after that.
+    public synchronized void exhaust() {
+        exhausted = true;
+    }
+
+    public synchronized void record(AnalysisResult result, long elapsedMillis) {
+        if (result.isExtrapolated()) {
+            return;
+        }
+        int index = 0;
+        while (index < sizes.size() && sizes.get(index) < result.getInputSize()) {
+            index++;
+        }
+        sizes.add(index, result.getInputSize());
+        executionTimes.add(index, result.getExecutionTime());
+        memoryUsages.add(index, result.getMemoryUsed());
+        pointMillis.add(index, (double) elapsedMillis);
+    }
+
+    // Predicted wall-clock cost of measuring the given size, or NaN before two points exist.
+    public synchronized double predictPointMillis(int size) {
+        double[] fit = fitPowerLaw(sizes, executionTimes);
+        if (fit == null) {
+            return Double.NaN;
+        }
+        return Math.max(SweepScheduler.median(pointMillis), MIN_CALLS_PER_POINT * evaluate(fit, size));
+    }
+
+    public synchronized boolean canAfford(int size) {
+        long remaining = remainingMillis();
+        double predicted = predictPointMillis(size);
+        return remaining > 0 && (Double.isNaN(predicted) || predicted <= remaining);
+    }
+
+    // Largest size above every measured one and below the requested size whose predicted cost
+    // fits the remaining budget, or -1 if there is none.
+    public synchronized int downscale(int size) {
+        double[] fit = fitPowerLaw(sizes, executionTimes);
+        long remaining = remainingMillis();
+        if (fit == null || fit[1] <= 0 || SweepScheduler.median(pointMillis) > remaining) {
+            return -1;
+        }
+        double affordable = Math.pow(remaining / (MIN_CALLS_PER_POINT * fit[0]), 1.0 / fit[1]);
+        int largestMeasured = sizes.get(sizes.size() - 1);
+        int downscaled = (int) Math.min(size - 1, Math.floor(affordable));
+        return downscaled > largestMeasured ? downscaled : -1;
+    }
+
+    // Time and memory for the size from the fits, marked as extrapolated; NaN where no fit
+    // exists yet.
+    public synchronized AnalysisResult extrapolate(int size) {
+        double[] timeFit = fitPowerLaw(sizes, executionTimes);
+        double[] memoryFit = fitPowerLaw(sizes, memoryUsages);
+        return AnalysisResult.extrapolated(size,
+                timeFit == null ? Double.NaN : evaluate(timeFit, size),
+                memoryFit == null ? Double.NaN : evaluate(memoryFit, size));
+    }
+
+    private static double evaluate(double[] fit, int size) {
+        return fit[0] * Math.pow(size, fit[1]);
+    }
+
+    // Least-squares fit of y = a * x^b in log-log space over the largest few sizes with
+    // positive values. Returns {a, b}, or null with fewer than two usable points. The exponent
+    // is kept non-negative since cost does not shrink with size.
+    static double[] fitPowerLaw(List<Integer> xs, List<Double> ys) {
+        List<double[]> points = new ArrayList<>();
+        for (int i = xs.size() - 1; i >= 0 && points.size() < FIT_POINTS; i--) {
+            if (xs.get(i) > 0 && ys.get(i) > 0 && !Double.isNaN(ys.get(i))) {
+                points.add(new double[]{Math.log(xs.get(i)), Math.log(ys.get(i))});
+            }
+        }
+        if (points.size() < 2) {
+            return null;
+        }
+        double meanX = 0;
+        double meanY = 0;
+        for (double[] point : points) {
+            meanX += point[0] / points.size();
+            meanY += point[1] / points.size();
+        }
+        double covariance = 0;
+        double variance = 0;
+        for (double[] point : points) {
+            covariance += (point[0] - meanX) * (point[1] - meanY);
+            variance += (point[0] - meanX) * (point[0] - meanX);
+        }
+        if (variance == 0) {
+            return null;
+        }
+        double exponent = Math.max(0, covariance / variance);
+        return new double[]{Math.exp(meanY - exponent * meanX), exponent};
+    }
+}
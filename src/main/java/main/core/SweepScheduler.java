@@ -0,0 +1,224 @@
+package main.core;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Benchmarks several sweep sizes at once, each lane pinned to its own set of cores. Finished
+ * points are handed back strictly in size order. Afterwards a sample of points is measured
+ * again with nothing else running, and the sweep is flagged if the parallel and serial
+ * medians disagree by more than the tolerance.
+ */
+public class SweepScheduler {
+    public static final double DEFAULT_TOLERANCE = 0.10;
+    private static final int INTERFERENCE_SAMPLES = 3;
+
+    public interface PointMeasurer {
+        AnalysisResult measure(int index, String cpuSet) throws Exception;
+    }
+
+    public static class Report {
+        private final List<AnalysisResult> results;
+        private final boolean interferenceSuspected;
+        private final double divergence;
+        private final List<Integer> checkedSizes;
+
+        public Report(List<AnalysisResult> results, boolean interferenceSuspected, double divergence,
+                      List<Integer> checkedSizes) {
+            this.results = results;
+            this.interferenceSuspected = interferenceSuspected;
+            this.divergence = divergence;
+            this.checkedSizes = checkedSizes;
+        }
+
+        public List<AnalysisResult> getResults() { return results; }
+        public boolean isInterferenceSuspected() { return interferenceSuspected; }
+        // Median of parallel/serial - 1 over the re-checked points.
+        public double getDivergence() { return divergence; }
+        public List<Integer> getCheckedSizes() { return checkedSizes; }
+    }
+
+    private final int concurrency;
+    private final double tolerance;
+
+    public SweepScheduler(int concurrency) {
+        this(concurrency, DEFAULT_TOLERANCE);
+    }
+
+    public SweepScheduler(int concurrency, double tolerance) {
+        this.concurrency = Math.max(1, concurrency);
+        this.tolerance = tolerance;
+    }
+
+    public Report run(int pointCount, PointMeasurer measurer, Consumer<AnalysisResult> onResult) throws Exception {
+        List<String> cpuSets = cpuSets(concurrency);
+        AnalysisResult[] results = new AnalysisResult[pointCount];
+        AtomicInteger nextPoint = new AtomicInteger();
+        int[] nextToEmit = {0};
+
+        ExecutorService lanes = Executors.newFixedThreadPool(concurrency);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int lane = 0; lane < concurrency; lane++) {
+                String cpuSet = cpuSets.get(lane);
+                futures.add(lanes.submit(() -> {
+                    int index;
+                    while ((index = nextPoint.getAndIncrement()) < pointCount) {
+                        AnalysisResult result = measurer.measure(index, cpuSet);
+                        synchronized (results) {
+                            results[index] = result;
+                            while (nextToEmit[0] < pointCount && results[nextToEmit[0]] != null) {
+                                onResult.accept(results[nextToEmit[0]++]);
+                            }
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    nextPoint.set(pointCount);
+                    throw unwrap(e);
+                }
+            }
+        } finally {
+            lanes.shutdownNow();
+        }
+
+        List<AnalysisResult> resultList = Arrays.asList(results);
+        if (concurrency == 1 || pointCount == 0) {
+            return new Report(resultList, false, 0, new ArrayList<>());
+        }
+        return checkInterference(resultList, measurer);
+    }
+
+    private Report checkInterference(List<AnalysisResult> results, PointMeasurer measurer) throws Exception {
+        List<Integer> sample = sampleIndices(results.size(), INTERFERENCE_SAMPLES);
+        List<Double> ratios = new ArrayList<>();
+        List<Integer> checkedSizes = new ArrayList<>();
+        for (int index : sample) {
+            if (results.get(index).isExtrapolated()) {
+                continue;
+            }
+            AnalysisResult serial = measurer.measure(index, null);
+            if (serial.isExtrapolated()) {
+                continue;
+            }
+            checkedSizes.add(results.get(index).getInputSize());
+            if (serial.getExecutionTime() > 0) {
+                ratios.add(results.get(index).getExecutionTime() / serial.getExecutionTime());
+            }
+        }
+        double divergence = ratios.isEmpty() ? 0 : median(ratios) - 1.0;
+        return new Report(results, Math.abs(divergence) > tolerance, divergence, checkedSizes);
+    }
+
+    static List<Integer> sampleIndices(int count, int samples) {
+        List<Integer> indices = new ArrayList<>();
+        if (count <= samples) {
+            for (int i = 0; i < count; i++) {
+                indices.add(i);
+            }
+            return indices;
+        }
+        for (int i = 0; i < samples; i++) {
+            int index = (int) Math.round(i * (count - 1) / (double) (samples - 1));
+            if (!indices.contains(index)) {
+                indices.add(index);
+            }
+        }
+        return indices;
+    }
+
+    static double median(List<Double> values) {
+        List<Double> sorted = new ArrayList<>(values);
+        sorted.sort(Double::compare);
+        int mid = sorted.size() / 2;
+        return sorted.size() % 2 == 1 ? sorted.get(mid) : (sorted.get(mid - 1) + sorted.get(mid)) / 2.0;
+    }
+
+    // Splits the cores this process may use into one disjoint set per lane. Lanes are left
+    // unpinned (null) when taskset is missing or there are fewer cores than lanes.
+    static List<String> cpuSets(int lanes) {
+        List<String> sets = new ArrayList<>();
+        List<Integer> cpus = allowedCpus();
+        int perLane = cpus.size() / lanes;
+        boolean pin = lanes > 1 && perLane > 0 && hasTaskset();
+        for (int lane = 0; lane < lanes; lane++) {
+            if (!pin) {
+                sets.add(null);
+                continue;
+            }
+            StringBuilder set = new StringBuilder();
+            for (int cpu : cpus.subList(lane * perLane, (lane + 1) * perLane)) {
+                if (set.length() > 0) {
+                    set.append(',');
+                }
+                set.append(cpu);
+            }
+            sets.add(set.toString());
+        }
+        return sets;
+    }
+
+    private static List<Integer> allowedCpus() {
+        List<Integer> cpus = new ArrayList<>();
+        try {
+            for (String line : Files.readAllLines(Paths.get("/proc/self/status"))) {
+                if (line.startsWith("Cpus_allowed_list:")) {
+                    for (String range : line.substring(line.indexOf(':') + 1).trim().split(",")) {
+                        String[] bounds = range.trim().split("-");
+                        int from = Integer.parseInt(bounds[0]);
+                        int to = bounds.length > 1 ? Integer.parseInt(bounds[1]) : from;
+                        for (int cpu = from; cpu <= to; cpu++) {
+                            cpus.add(cpu);
+                        }
+                    }
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            cpus.clear();
+        }
+        if (cpus.isEmpty()) {
+            for (int cpu = 0; cpu < Runtime.getRuntime().availableProcessors(); cpu++) {
+                cpus.add(cpu);
+            }
+        }
+        return cpus;
+    }
+
+    private static boolean hasTaskset() {
+        String path = System.getenv("PATH");
+        if (path == null) {
+            return false;
+        }
+        for (String dir : path.split(java.io.File.pathSeparator)) {
+            Path candidate = Paths.get(dir, "taskset");
+            if (Files.isExecutable(candidate)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Exception unwrap(ExecutionException e) {
+        Throwable cause = e.getCause();
+        if (cause instanceof Exception) {
+            return (Exception) cause;
+        }
+        return new Exception(cause);
+    }
+}
@@ -2,11 +2,28 @@ package main.ui;
 
 import javafx.application.Platform;
 import javafx.concurrent.Task;
+import main.core.ABComparison;
 import main.core.AnalysisResult;
+import main.core.ArrayDistribution;
 import main.core.CodeAnalyzer;
+import main.core.ComplexityFitter;
+import main.core.CrossoverFinder;
+import main.core.DistributionBand;
+import main.core.InterleavedScheduler;
+import main.core.InputGenerator;
+import main.core.OutputCapture;
+import main.core.ProgramInput;
+import main.core.ReferenceBaseline;
+import main.core.SizeSchedule;
+import main.core.SweepBudget;
+import main.core.SweepScheduler;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.function.Consumer;
 
 public class AnalysisController {
     private final InputPane inputPane;
@@ -22,16 +39,25 @@ public class AnalysisController {
     private final List<Double> p50Latencies = new ArrayList<>();
     private final List<Double> p95Latencies = new ArrayList<>();
     private final List<Double> p99Latencies = new ArrayList<>();
+    private final List<Double> peakLiveHeaps = new ArrayList<>();
+    private final List<Double> variations = new ArrayList<>();
+    private final List<Integer> retries = new ArrayList<>();
+    private final List<Boolean> outliers = new ArrayList<>();
+    private final List<Boolean> extrapolated = new ArrayList<>();
+    // Time of the selected JDK baseline at each size; NaN where it was not run.
+    private final List<Double> baselineTimes = new ArrayList<>();
     private final GraphManager graphManager;
     
     private String currentInput = "";
-    private String currentOutput = "";
+    private OutputCapture currentOutput;
 
     private DataDisplayWindow inputDataWindow;
     private DataDisplayWindow outputDataWindow;
+    private final ComparisonWindow comparisonWindow = new ComparisonWindow();
 
     private Task<?> currentAnalysisTask;
     private Thread currentAnalysisThread;
+    private Task<?> currentComparisonTask;
 
     public AnalysisController(InputPane inputPane, ResultPane resultPane) {
         this.inputPane = inputPane;
@@ -40,7 +66,8 @@ public class AnalysisController {
         this.analyzer = new CodeAnalyzer();
         this.graphManager = new GraphManager(executionTimes, memoryUsages, inputSizes,
                                              throughputs, gcPauseTimes, heapAllocationRates,
-                                             p50Latencies, p95Latencies, p99Latencies);
+                                             p50Latencies, p95Latencies, p99Latencies, peakLiveHeaps,
+                                             variations, retries, outliers, extrapolated, baselineTimes);
 
         this.inputDataWindow = new DataDisplayWindow("Input Data");
         this.outputDataWindow = new DataDisplayWindow("Output Data");
@@ -51,6 +78,14 @@ public class AnalysisController {
     private void setupCallbacks() {
         inputPane.setOnAnalyze(this::handleAnalyze);
         inputPane.setOnClear(this::handleClear);
+        inputPane.setOnCompare(this::handleCompare);
+        comparisonWindow.setOnRun(this::runComparison);
+        comparisonWindow.setOnFindCrossover(this::runCrossover);
+        comparisonWindow.setOnClose(() -> {
+            if (currentComparisonTask != null && currentComparisonTask.isRunning()) {
+                currentComparisonTask.cancel(true);
+            }
+        });
 
         resultPane.setOnShowInputData(this::showInputData);
         resultPane.setOnShowOutputData(this::showOutputData);
@@ -102,8 +137,14 @@ public class AnalysisController {
         p50Latencies.clear();
         p95Latencies.clear();
         p99Latencies.clear();
+        peakLiveHeaps.clear();
+        variations.clear();
+        retries.clear();
+        outliers.clear();
+        extrapolated.clear();
+        baselineTimes.clear();
         currentInput = "";
-        currentOutput = "";
+        currentOutput = null;
     }
 
     // Removed showTimeGraph and showMemoryGraph
@@ -113,7 +154,7 @@ public class AnalysisController {
     }
 
     private void showOutputData() {
-        outputDataWindow.showData(currentOutput);
+        outputDataWindow.showOutput(currentOutput);
     }
 
     private void handleAnalyze() {
@@ -149,6 +190,8 @@ public class AnalysisController {
         try {
             final String finalInput;
             final int finalInputSize;
+            // Set for Random Input, which is generated on the analysis thread instead.
+            final String generatedArrayType;
 
             if (inputPane.isManualInput()) {
                 if (manualInput.isEmpty()) {
@@ -161,6 +204,7 @@ public class AnalysisController {
                 }
                 finalInput = manualInput;
                 finalInputSize = 0;
+                generatedArrayType = null;
             } else if (inputPane.isRandomInput()) {
                 if (!analyzer.supportsGeneratedInput(code)) {
                     UIUtils.showError("Random Input selected, but no supported Scanner input pattern was found.\n\nAdd Scanner reads such as sc.nextInt(), sc.nextDouble(), or sc.nextLine(), or choose Manual Input for a custom format. If your data is inside the code, choose Hardcoded Input.");
@@ -171,29 +215,21 @@ public class AnalysisController {
                     UIUtils.showError("Input size must be greater than 0.");
                     return;
                 }
-                if (inputSize > 100000) {
-                    UIUtils.showError("Input size cannot exceed 100,000");
+                if (inputSize > InputGenerator.MAX_SIZE) {
+                    UIUtils.showError(String.format("Input size cannot exceed %,d", InputGenerator.MAX_SIZE));
                     return;
                 }
-                String arrayType = "random";
-                switch (inputPane.getArrayType()) {
-                    case "Sorted":
-                    case "Sorted Array":
-                        arrayType = "sorted";
-                        break;
-                    case "Nearly Sorted":
-                    case "Nearly Sorted Array":
-                        arrayType = "nearly-sorted";
-                        break;
-                    default:
-                        arrayType = "random";
+                ArrayDistribution distribution = inputPane.getArrayDistribution();
+                if (distribution == null) {
+                    UIUtils.showError(ArrayDistribution.BAND_LABEL + " benchmarks several distributions at each size, so it needs Input Range.\n\nChoose one distribution for a single input.");
+                    return;
                 }
-                finalInput = analyzer.generateInput(code, inputSize, arrayType);
-                if (finalInput.isBlank()) {
-                    UIUtils.showError("Random Input could not generate input for this code.\n\nUse a simple Scanner format such as size first, then values, or switch to Manual Input and paste the exact input.");
+                if (!applyInputShape()) {
                     return;
                 }
+                finalInput = null;
                 finalInputSize = inputSize;
+                generatedArrayType = distribution.getKey();
             } else {
                 if (!analyzer.hasHardcodedInput(code)) {
                     UIUtils.showError("Hardcoded Input selected, but no hardcoded data was found in your code.\n\nAdd data inside the program, such as int[] arr = {...}, List.of(...), Arrays.asList(...), or a String value. Otherwise choose Manual Input or Random Input.");
@@ -205,18 +241,36 @@ public class AnalysisController {
                 }
                 finalInput = "HARDCODED";
                 finalInputSize = -1;
+                generatedArrayType = null;
             }
 
             clearPreviousData();
             resultPane.setAnalyzing(true, "Analyzing...");
+            analyzer.setUseWorkerPool(false);
 
             Task<AnalysisResult> analysisTask = new Task<AnalysisResult>() {
                 @Override
                 protected AnalysisResult call() throws Exception {
-                    AnalysisResult result = analyzer.analyzeCode(code, finalInput);
+                    AnalysisResult result;
+                    if (generatedArrayType != null) {
+                        updateMessage(String.format("Generating input for size: %d", finalInputSize));
+                        ProgramInput input = analyzer.generateInput(code, finalInputSize, generatedArrayType);
+                        try {
+                            if (input.isEmpty()) {
+                                throw new Exception("Random Input could not generate input for this code.\n\nUse a simple Scanner format such as size first, then values, or switch to Manual Input and paste the exact input.");
+                            }
+                            updateMessage("Analyzing...");
+                            result = analyzer.analyzeCode(code, input, finalInputSize);
+                        } finally {
+                            input.discard();
+                        }
+                    } else {
+                        result = analyzer.analyzeCode(code, finalInput);
+                    }
+                    String shownInput = analyzer.getGeneratedInput();
                     Platform.runLater(() -> {
-                        currentInput = finalInput;
-                        currentOutput = analyzer.getExecutionOutput();
+                        currentInput = shownInput;
+                        currentOutput = analyzer.getOutputCapture();
                     });
                     return result;
                 }
@@ -234,6 +288,12 @@ public class AnalysisController {
                 p50Latencies.add(result.getP50Latency());
                 p95Latencies.add(result.getP95Latency());
                 p99Latencies.add(result.getP99Latency());
+                peakLiveHeaps.add(result.getPeakLiveHeap());
+                variations.add(result.getCoefficientOfVariation());
+                retries.add(result.getRetries());
+                outliers.add(result.isOutlier());
+                extrapolated.add(false);
+                baselineTimes.add(Double.NaN);
                 resultPane.displayResults(result);
             });
 
@@ -264,60 +324,169 @@ public class AnalysisController {
                 return;
             }
 
+            SizeSchedule.Kind schedule = inputPane.getSchedule();
+            boolean linear = schedule == SizeSchedule.Kind.LINEAR;
             int minSize = Integer.parseInt(inputPane.getMinSizeText());
             int maxSize = Integer.parseInt(inputPane.getMaxSizeText());
-            int stepSize = Integer.parseInt(inputPane.getStepSizeText());
+            // Linear schedules step through the range; the others are given a number of sizes.
+            int stepSize = linear ? Integer.parseInt(inputPane.getStepSizeText()) : 1;
+            int points = linear ? 0 : Integer.parseInt(inputPane.getPointsText().trim());
+            String lanesText = inputPane.getParallelLanesText().trim();
+            int parallelLanes = lanesText.isEmpty() ? 1 : Integer.parseInt(lanesText);
+            String budgetText = inputPane.getSweepBudgetText().trim();
+            long budgetSeconds = budgetText.isEmpty() ? 0 : Long.parseLong(budgetText);
+            String retriesText = inputPane.getRetriesText().trim();
+            int retryBudget = retriesText.isEmpty() ? 0 : Integer.parseInt(retriesText);
+            String slicesText = inputPane.getSlicesText().trim();
+            int slices = slicesText.isEmpty() ? 1 : Integer.parseInt(slicesText);
 
             if (minSize <= 0 || maxSize <= 0 || stepSize <= 0) {
                 UIUtils.showError("All size values must be greater than 0.");
                 return;
             }
 
+            if (parallelLanes <= 0) {
+                UIUtils.showError("Parallel lanes must be at least 1.");
+                return;
+            }
+
+            if (budgetSeconds < 0) {
+                UIUtils.showError("The sweep budget cannot be negative.");
+                return;
+            }
+
+            if (retryBudget < 0) {
+                UIUtils.showError("Retries cannot be negative.");
+                return;
+            }
+
+            if (slices <= 0) {
+                UIUtils.showError("Slices must be at least 1.");
+                return;
+            }
+
+            if (slices > 1 && schedule == SizeSchedule.Kind.ADAPTIVE) {
+                UIUtils.showError("Interleaved slices need the sizes up front; use the Linear or Geometric schedule.");
+                return;
+            }
+
             if (minSize >= maxSize) {
                 UIUtils.showError("Maximum size must be greater than minimum size.");
                 return;
             }
 
-            if (maxSize > 100000) {
-                UIUtils.showError("Maximum size cannot exceed 100,000");
+            if (maxSize > InputGenerator.MAX_SIZE) {
+                UIUtils.showError(String.format("Maximum size cannot exceed %,d", InputGenerator.MAX_SIZE));
                 return;
             }
 
-            if (stepSize >= (maxSize - minSize)) {
+            if (linear && stepSize >= (maxSize - minSize)) {
                 UIUtils.showError("Step size must be smaller than the range between min and max size.");
                 return;
             }
 
+            if (!linear && points < 3) {
+                UIUtils.showError("Points must be at least 3.");
+                return;
+            }
+
+            List<Integer> plannedSizes = linear ? SizeSchedule.linear(minSize, maxSize, stepSize)
+                    : SizeSchedule.geometric(minSize, maxSize, points);
+
+            if (!applyInputShape()) {
+                return;
+            }
+
+            if (inputPane.isDistributionBand() && !analyzer.readsGeneratedArrays(code)) {
+                UIUtils.showError("Best / Average / Worst needs a program that reads int arrays; "
+                        + "its string or matrix input would be the same for every distribution.");
+                return;
+            }
+
+            ReferenceBaseline baseline = inputPane.getBaseline();
+            if (baseline != null && !ReferenceBaseline.canRead(analyzer.getInputSpec(code))) {
+                UIUtils.showError(String.format("The %s baseline reads a size and then that many integers, "
+                        + "but this program's input has another shape, so its time would mean nothing next to yours.%n%n"
+                        + "Set Baseline to None for this program.", baseline.getLabel()));
+                return;
+            }
+
             clearPreviousData();
             resultPane.setAnalyzing(true, "Analyzing...");
+            analyzer.setUseWorkerPool(true);
+            analyzer.setSweepBudgetMillis(budgetSeconds * 1000);
+            analyzer.setOutlierRetryBudget(retryBudget);
+
+            boolean isolateSizes = inputPane.isIsolateSizes();
+
+            List<AnalysisResult> baselineResults = new ArrayList<>();
+            // Filled after the sweep when the best/average/worst band is selected.
+            DistributionBand band = inputPane.isDistributionBand() ? new DistributionBand() : null;
 
             Task<List<AnalysisResult>> analysisTask = new Task<List<AnalysisResult>>() {
                 @Override
                 protected List<AnalysisResult> call() throws Exception {
-                    List<AnalysisResult> results = new ArrayList<>();
-                    for (int currentSize = minSize; currentSize <= maxSize; currentSize += stepSize) {
-                        if (isCancelled()) {
-                            break;
+                    List<Integer> sizes = new ArrayList<>();
+                    List<ProgramInput> inputs = new ArrayList<>();
+                    try {
+                        return sweep(sizes, inputs);
+                    } finally {
+                        inputs.forEach(ProgramInput::discard);
+                    }
+                }
+
+                private List<AnalysisResult> sweep(List<Integer> sizes, List<ProgramInput> inputs) throws Exception {
+                    List<AnalysisResult> results;
+                    if (schedule == SizeSchedule.Kind.ADAPTIVE) {
+                        updateMessage(String.format("Benchmarking up to %d sizes, refining where the curve bends...", points));
+                        SweepScheduler.Report report = analyzer.analyzeSweepAdaptive(code, minSize, maxSize, points,
+                                isolateSizes, parallelLanes,
+                                result -> Platform.runLater(() -> addToSeries(result)));
+                        reportSweep(report, budgetSeconds);
+                        results = report.getResults();
+                    } else {
+                        for (int currentSize : plannedSizes) {
+                            if (isCancelled()) {
+                                return new ArrayList<>();
+                            }
+                            updateMessage(String.format("Generating input for size: %d", currentSize));
+                            sizes.add(currentSize);
+                            inputs.add(analyzer.generateInput(code, currentSize));
+                        }
+
+                        if (slices > 1) {
+                            updateMessage(String.format("Benchmarking %d sizes in %d interleaved slices each...",
+                                    sizes.size(), slices));
+                            SweepScheduler.Report report = analyzer.analyzeSweepInterleaved(code, sizes, inputs,
+                                    isolateSizes, slices);
+                            results = report.getResults();
+                            reportSweep(report, budgetSeconds);
+                        } else if (parallelLanes > 1 || budgetSeconds > 0) {
+                            // A budget needs the sizes measured one at a time so each can be predicted.
+                            updateMessage(parallelLanes > 1
+                                    ? String.format("Benchmarking %d sizes on %d lanes...", sizes.size(), parallelLanes)
+                                    : String.format("Benchmarking %d sizes within %d s...", sizes.size(), budgetSeconds));
+                            SweepScheduler.Report report = analyzer.analyzeSweepParallel(code, sizes, inputs,
+                                    isolateSizes, parallelLanes,
+                                    result -> Platform.runLater(() -> addToSeries(result)));
+                            results = report.getResults();
+                            reportSweep(report, budgetSeconds);
+                        } else {
+                            updateMessage(String.format("Benchmarking %d sizes...", sizes.size()));
+                            results = analyzer.analyzeSweep(code, sizes, inputs, isolateSizes);
                         }
-                        final int finalSize = currentSize; 
-                        updateMessage(String.format("Analyzing size: %d", finalSize));
-                        String input = analyzer.generateInput(code, finalSize);
-                        AnalysisResult result = analyzer.analyzeCode(code, input);
-                        results.add(result);
-
-                        Platform.runLater(() -> {
-                            executionTimes.add(result.getExecutionTime());
-                            memoryUsages.add(result.getMemoryUsed());
-                            inputSizes.add(finalSize);
-                            throughputs.add(result.getThroughput());
-                            gcPauseTimes.add(result.getGcPauseTime());
-                            heapAllocationRates.add(result.getHeapAllocationRate());
-                            p50Latencies.add(result.getP50Latency());
-                            p95Latencies.add(result.getP95Latency());
-                            p99Latencies.add(result.getP99Latency());
-                        });
                     }
                     currentInput = analyzer.getGeneratedInput();
+
+                    if (baseline != null) {
+                        updateMessage(String.format("Benchmarking %s on the same inputs...", baseline.getLabel()));
+                        baselineResults.addAll(measureBaseline(baseline, code, results, sizes, inputs, isolateSizes));
+                    }
+                    if (band != null) {
+                        measureBand(band, code, results, isolateSizes, budgetSeconds,
+                                distribution -> updateMessage(String.format("Benchmarking the same sizes on %s input...",
+                                        distribution.getLabel())));
+                    }
                     return results;
                 }
             };
@@ -329,10 +498,29 @@ public class AnalysisController {
             analysisTask.setOnSucceeded(e -> {
                 resultPane.setAnalyzing(false, null);
                 List<AnalysisResult> results = analysisTask.getValue();
-                if (!results.isEmpty()) {
-                    AnalysisResult lastResult = results.get(results.size() - 1);
-                    currentOutput = analyzer.getExecutionOutput();
+                // Replaces what was streamed in with the re-measured, sorted results.
+                clearSeries();
+                results.forEach(this::addToSeries);
+                for (AnalysisResult baselineResult : baselineResults) {
+                    int index = inputSizes.indexOf(baselineResult.getInputSize());
+                    if (index >= 0) {
+                        baselineTimes.set(index, baselineResult.getExecutionTime());
+                    }
+                }
+                graphManager.setBaselineName(baseline == null ? null : baseline.getLabel());
+                graphManager.setBand(band == null || band.isEmpty() ? null : band);
+                reportOutliers(results);
+                // The summary shows the largest size that was actually measured.
+                AnalysisResult lastResult = null;
+                for (AnalysisResult result : results) {
+                    if (!result.isExtrapolated()) {
+                        lastResult = result;
+                    }
+                }
+                if (lastResult != null) {
+                    currentOutput = analyzer.getOutputCapture();
                     resultPane.displayResults(lastResult);
+                    showComplexity(results);
                 }
             });
 
@@ -349,13 +537,420 @@ public class AnalysisController {
             currentAnalysisThread.start();
 
         } catch (NumberFormatException e) {
-            UIUtils.showError("Please enter valid numbers for min size, max size, and step size.");
+            UIUtils.showError("Please enter valid numbers for min size, max size, step size, points, retries and slices.");
         } catch (Exception e) {
             UIUtils.showError(e.getMessage());
         }
     }
 
+    private void handleCompare() {
+        if (currentAnalysisTask != null && currentAnalysisTask.isRunning()) {
+            UIUtils.showError("An analysis is currently running. Please wait or clear to cancel it.");
+            return;
+        }
+
+        String code = inputPane.getCode();
+        if (code.isEmpty()) {
+            UIUtils.showError("Please enter the code to compare against.");
+            return;
+        }
+
+        if (!analyzer.hasMainMethod(code)) {
+            UIUtils.showError("No main method found! Please add a main method to your code.");
+            return;
+        }
+
+        if (!analyzer.supportsGeneratedInput(code)) {
+            UIUtils.showError("Comparing needs generated input, but no supported Scanner input pattern was found.\n\nAdd Scanner reads such as sc.nextInt(), sc.nextDouble(), or sc.nextLine().");
+            return;
+        }
+
+        comparisonWindow.show(code, defaultComparisonSizes());
+    }
+
+    // Three sizes spread over the input range when it is filled in, otherwise three decades.
+    private String defaultComparisonSizes() {
+        List<Integer> sizes = List.of(1000, 10000, 100000);
+        try {
+            int minSize = Integer.parseInt(inputPane.getMinSizeText().trim());
+            int maxSize = Integer.parseInt(inputPane.getMaxSizeText().trim());
+            if (minSize > 0 && minSize < maxSize && maxSize <= InputGenerator.MAX_SIZE) {
+                sizes = SizeSchedule.geometric(minSize, maxSize, 3);
+            }
+        } catch (NumberFormatException e) {
+            // Keep the decades.
+        }
+        List<String> texts = new ArrayList<>();
+        for (int size : sizes) {
+            texts.add(String.valueOf(size));
+        }
+        return String.join(", ", texts);
+    }
+
+    private void runComparison() {
+        String codeA = inputPane.getCode();
+        String codeB = comparisonWindow.getCodeB();
+        TreeSet<Integer> sizeSet = validateComparison(codeA, codeB, true);
+        if (sizeSet == null) {
+            return;
+        }
+        int rounds;
+        try {
+            rounds = Integer.parseInt(comparisonWindow.getRoundsText().trim());
+        } catch (NumberFormatException e) {
+            UIUtils.showError("Please enter a valid number of rounds.");
+            return;
+        }
+
+        if (rounds < ABComparison.MIN_ROUNDS) {
+            UIUtils.showError("Rounds must be at least " + ABComparison.MIN_ROUNDS + " for a confidence interval.");
+            return;
+        }
+
+        List<Integer> sizes = new ArrayList<>(sizeSet);
+        boolean isolateSizes = inputPane.isIsolateSizes();
+        if (!applyInputShape()) {
+            return;
+        }
+        analyzer.setUseWorkerPool(true);
+        comparisonWindow.setRunning(true, "Generating inputs...");
+
+        Task<ABComparison.Report> comparisonTask = new Task<ABComparison.Report>() {
+            @Override
+            protected ABComparison.Report call() throws Exception {
+                List<ProgramInput> inputs = new ArrayList<>();
+                try {
+                    for (int size : sizes) {
+                        updateMessage(String.format("Generating input for size: %d", size));
+                        inputs.add(analyzer.generateInput(codeA, size));
+                    }
+                    updateMessage(String.format("Running A and B %d times each on %d sizes, alternating...",
+                            rounds, sizes.size()));
+                    return analyzer.compare(codeA, codeB, sizes, inputs, isolateSizes, rounds);
+                } finally {
+                    inputs.forEach(ProgramInput::discard);
+                }
+            }
+        };
+
+        comparisonTask.messageProperty().addListener((obs, oldMsg, newMsg) -> {
+            comparisonWindow.setRunning(true, newMsg);
+        });
+
+        comparisonTask.setOnSucceeded(e -> {
+            comparisonWindow.setRunning(false, null);
+            comparisonWindow.showReport(comparisonTask.getValue());
+        });
+
+        comparisonTask.setOnFailed(e -> {
+            comparisonWindow.setRunning(false, null);
+            Throwable exception = comparisonTask.getException();
+            if (!(exception instanceof InterruptedException)) {
+                UIUtils.showError(exception.getMessage());
+            }
+        });
+
+        comparisonTask.setOnCancelled(e -> comparisonWindow.setRunning(false, null));
+
+        currentComparisonTask = comparisonTask;
+        currentAnalysisTask = comparisonTask;
+        currentAnalysisThread = new Thread(comparisonTask);
+        currentAnalysisThread.start();
+    }
+
+    private void runCrossover() {
+        String codeA = inputPane.getCode();
+        String codeB = comparisonWindow.getCodeB();
+        String inputType = comparisonWindow.getInputType();
+        TreeSet<Integer> sizeSet = validateComparison(codeA, codeB, inputType == null);
+        if (sizeSet == null) {
+            return;
+        }
+        if (sizeSet.size() < 2) {
+            UIUtils.showError("Enter at least two sizes; the crossover is searched between the smallest and the largest.");
+            return;
+        }
+
+        int minSize = sizeSet.first();
+        int maxSize = sizeSet.last();
+        if ("matrix".equals(inputType) && maxSize > InputGenerator.MAX_MATRIX_SIZE) {
+            UIUtils.showError(String.format("A matrix input is size × size, so its size cannot exceed %,d.",
+                    InputGenerator.MAX_MATRIX_SIZE));
+            return;
+        }
+        boolean isolateSizes = inputPane.isIsolateSizes();
+        if (!applyInputShape()) {
+            return;
+        }
+        analyzer.setUseWorkerPool(true);
+        comparisonWindow.setRunning(true, "Searching for the crossover...");
+
+        Task<CrossoverFinder.Result> crossoverTask = new Task<CrossoverFinder.Result>() {
+            @Override
+            protected CrossoverFinder.Result call() throws Exception {
+                updateMessage(String.format("Bracketing and bisecting the crossover between %,d and %,d...",
+                        minSize, maxSize));
+                return analyzer.findCrossover(codeA, codeB, inputType, minSize, maxSize, isolateSizes);
+            }
+        };
+
+        crossoverTask.messageProperty().addListener((obs, oldMsg, newMsg) -> {
+            comparisonWindow.setRunning(true, newMsg);
+        });
+
+        crossoverTask.setOnSucceeded(e -> {
+            comparisonWindow.setRunning(false, null);
+            comparisonWindow.showCrossover(crossoverTask.getValue());
+        });
+
+        crossoverTask.setOnFailed(e -> {
+            comparisonWindow.setRunning(false, null);
+            Throwable exception = crossoverTask.getException();
+            if (!(exception instanceof InterruptedException)) {
+                UIUtils.showError(exception.getMessage());
+            }
+        });
+
+        crossoverTask.setOnCancelled(e -> comparisonWindow.setRunning(false, null));
+
+        currentComparisonTask = crossoverTask;
+        currentAnalysisTask = crossoverTask;
+        currentAnalysisThread = new Thread(crossoverTask);
+        currentAnalysisThread.start();
+    }
+
+    // The sizes from the comparison window, or null after telling the user what is wrong with
+    // either version or the sizes.
+    private TreeSet<Integer> validateComparison(String codeA, String codeB, boolean inputFromCode) {
+        if (currentAnalysisTask != null && currentAnalysisTask.isRunning()) {
+            UIUtils.showError("An analysis is currently running. Please wait or clear to cancel it.");
+            return null;
+        }
+
+        if (codeA.isEmpty() || codeB.isEmpty()) {
+            UIUtils.showError("Both versions need code: version A in the editor, version B in the comparison window.");
+            return null;
+        }
+
+        if (!analyzer.hasMainMethod(codeA) || !analyzer.hasMainMethod(codeB)) {
+            UIUtils.showError("No main method found! Both versions need a main method.");
+            return null;
+        }
+
+        if (!analyzer.hasOutputStatement(codeA) || !analyzer.hasOutputStatement(codeB)) {
+            UIUtils.showError("Both versions need a print statement so their outputs can be checked against each other.");
+            return null;
+        }
+
+        if (!analyzer.readsStandardInput(codeA) || !analyzer.readsStandardInput(codeB)
+                || (inputFromCode && !analyzer.supportsGeneratedInput(codeA))) {
+            UIUtils.showError("Both versions must read their input from stdin, and version A with supported Scanner reads unless an input type is chosen.");
+            return null;
+        }
+
+        TreeSet<Integer> sizeSet = new TreeSet<>();
+        try {
+            for (String sizeText : comparisonWindow.getSizesText().trim().split("[,\\s]+")) {
+                if (!sizeText.isEmpty()) {
+                    sizeSet.add(Integer.parseInt(sizeText));
+                }
+            }
+        } catch (NumberFormatException e) {
+            UIUtils.showError("Please enter valid numbers for the sizes.");
+            return null;
+        }
+
+        if (sizeSet.isEmpty() || sizeSet.first() <= 0) {
+            UIUtils.showError("Enter at least one size, all greater than 0.");
+            return null;
+        }
+
+        if (sizeSet.last() > InputGenerator.MAX_SIZE) {
+            UIUtils.showError(String.format("Input size cannot exceed %,d", InputGenerator.MAX_SIZE));
+            return null;
+        }
+        return sizeSet;
+    }
+
+    private void reportOutliers(List<AnalysisResult> results) {
+        List<String> flagged = new ArrayList<>();
+        for (AnalysisResult result : results) {
+            if (result.isOutlier()) {
+                flagged.add(String.format("%d (CV %.1f%%, %d re-runs)", result.getInputSize(),
+                        result.getCoefficientOfVariation() * 100, result.getRetries()));
+            }
+        }
+        if (!flagged.isEmpty()) {
+            UIUtils.showAlert("Noisy Points",
+                    String.format("Sizes %s still look off after re-measuring and are flagged on the graphs.%n%n"
+                                    + "They are left out of the complexity fit; close other programs or raise Retries for cleaner numbers.",
+                            String.join(", ", flagged)));
+        }
+    }
+
+    // The baseline on the inputs the sweep measured; sizes the sweep generated itself, from
+    // adaptive refinement or budget downscaling, get a fresh input in the same format.
+    private List<AnalysisResult> measureBaseline(ReferenceBaseline baseline, String code, List<AnalysisResult> results,
+                                                 List<Integer> sizes, List<ProgramInput> inputs,
+                                                 boolean isolateSizes) throws Exception {
+        Map<Integer, ProgramInput> inputsBySize = new HashMap<>();
+        for (int i = 0; i < sizes.size(); i++) {
+            inputsBySize.put(sizes.get(i), inputs.get(i));
+        }
+        List<ProgramInput> generated = new ArrayList<>();
+        try {
+            List<Integer> measuredSizes = new ArrayList<>();
+            List<ProgramInput> measuredInputs = new ArrayList<>();
+            for (AnalysisResult result : results) {
+                if (!result.isExtrapolated()) {
+                    measuredSizes.add(result.getInputSize());
+                    measuredInputs.add(inputsBySize.computeIfAbsent(result.getInputSize(), size -> {
+                        ProgramInput input = analyzer.generateInput(code, size);
+                        generated.add(input);
+                        return input;
+                    }));
+                }
+            }
+            return analyzer.analyzeBaseline(baseline, measuredSizes, measuredInputs, isolateSizes);
+        } finally {
+            generated.forEach(ProgramInput::discard);
+        }
+    }
+
+    // Adds the sweep's measured sizes to the band as the average case, then benchmarks every
+    // other distribution at those sizes.
+    // The band gets a budget of its own, as large as the sweep's; the sweep has used its up.
+    private void measureBand(DistributionBand band, String code, List<AnalysisResult> results, boolean isolateSizes,
+                             long budgetSeconds, Consumer<ArrayDistribution> onDistribution) throws Exception {
+        band.addAll(ArrayDistribution.AVERAGE, results);
+        List<Integer> measuredSizes = new ArrayList<>();
+        for (AnalysisResult result : results) {
+            if (!result.isExtrapolated()) {
+                measuredSizes.add(result.getInputSize());
+            }
+        }
+        measuredSizes.sort(null);
+        List<ArrayDistribution> others = ArrayDistribution.bandCases();
+        others.remove(ArrayDistribution.AVERAGE);
+        SweepBudget budget = budgetSeconds > 0 ? new SweepBudget(budgetSeconds * 1000) : null;
+        analyzer.analyzeBand(code, measuredSizes, others, isolateSizes, budget, band, onDistribution);
+
+        List<String> skipped = new ArrayList<>();
+        for (ArrayDistribution distribution : others) {
+            for (int size : measuredSizes) {
+                if (Double.isNaN(band.getTime(size, distribution))) {
+                    skipped.add(distribution.getLabel() + " from " + size);
+                    break;
+                }
+            }
+        }
+        if (!skipped.isEmpty()) {
+            Platform.runLater(() -> UIUtils.showAlert("Best / Worst Band",
+                    String.format("%s were not measured: they would not have finished %s.%n%n"
+                                    + "The band at those sizes only covers the distributions that were.",
+                            String.join(", ", skipped),
+                            budget == null ? "in time" : String.format("within the %d s budget", budgetSeconds))));
+        }
+    }
+
+    // Hands the selected array and string types to the analyzer; the band's sweep uses its
+    // average case. False, after saying why, if the alphabet cannot be used.
+    private boolean applyInputShape() {
+        ArrayDistribution distribution = inputPane.getArrayDistribution();
+        try {
+            analyzer.setStringDistribution(inputPane.getStringDistribution(), inputPane.getAlphabetText());
+        } catch (IllegalArgumentException e) {
+            UIUtils.showError(e.getMessage());
+            return false;
+        }
+        analyzer.setArrayDistribution(distribution == null ? ArrayDistribution.AVERAGE : distribution);
+        return true;
+    }
+
+    // Warns about lane interference, drift over an interleaved sweep and sizes the budget left
+    // unmeasured.
+    private void reportSweep(SweepScheduler.Report report, long budgetSeconds) {
+        if (report instanceof InterleavedScheduler.Report interleaved && interleaved.isDriftDetected()) {
+            Platform.runLater(() -> UIUtils.showAlert("Drift Detected",
+                    String.format("Times drifted by %+.1f%% over the %.1f min sweep (%+.2f%% per minute, t = %.1f), "
+                                    + "e.g. from thermal throttling or background load.%n%n"
+                                    + "The interleaved order spread it over all sizes alike, and each slice was "
+                                    + "corrected to the middle of the sweep before averaging.",
+                            interleaved.getTotalDrift() * 100, interleaved.getSweepMinutes(),
+                            Math.expm1(interleaved.getDriftPerMinute()) * 100, interleaved.getDriftT())));
+        }
+        if (report.isInterferenceSuspected()) {
+            Platform.runLater(() -> UIUtils.showAlert("Parallel Interference",
+                    String.format("Parallel and serial re-runs of sizes %s differ by %.1f%% (median).%n%n"
+                                    + "Lanes are disturbing each other; rerun with fewer parallel lanes for trustworthy numbers.",
+                            report.getCheckedSizes(), report.getDivergence() * 100)));
+        }
+        List<Integer> extrapolatedSizes = new ArrayList<>();
+        for (AnalysisResult result : report.getResults()) {
+            if (result.isExtrapolated()) {
+                extrapolatedSizes.add(result.getInputSize());
+            }
+        }
+        if (!extrapolatedSizes.isEmpty()) {
+            Platform.runLater(() -> UIUtils.showAlert("Sweep Budget",
+                    String.format("Sizes %s would not have finished within the %d s budget and were "
+                                    + "extrapolated from the measured sizes instead of run.%n%n"
+                                    + "They are drawn dashed on the time and memory graphs.",
+                            extrapolatedSizes, budgetSeconds)));
+        }
+    }
+
+    // Time, allocation and live-heap fits over the sizes that were actually measured and not
+    // flagged as outliers.
+    private void showComplexity(List<AnalysisResult> results) {
+        List<Integer> sizes = new ArrayList<>();
+        List<Double> times = new ArrayList<>();
+        List<Double> allocations = new ArrayList<>();
+        List<Double> liveHeaps = new ArrayList<>();
+        for (AnalysisResult result : results) {
+            if (!result.isExtrapolated() && !result.isOutlier()) {
+                sizes.add(result.getInputSize());
+                times.add(result.getExecutionTime());
+                allocations.add(result.getMemoryUsed());
+                liveHeaps.add(result.getPeakLiveHeap());
+            }
+        }
+        ComplexityFitter fitter = new ComplexityFitter();
+        resultPane.displayComplexity(fitter.fit(sizes, times), fitter.fit(sizes, allocations),
+                fitter.fit(sizes, liveHeaps));
+    }
+
+    private void addToSeries(AnalysisResult result) {
+        executionTimes.add(result.getExecutionTime());
+        memoryUsages.add(result.getMemoryUsed());
+        inputSizes.add(result.getInputSize());
+        throughputs.add(result.getThroughput());
+        gcPauseTimes.add(result.getGcPauseTime());
+        heapAllocationRates.add(result.getHeapAllocationRate());
+        p50Latencies.add(result.getP50Latency());
+        p95Latencies.add(result.getP95Latency());
+        p99Latencies.add(result.getP99Latency());
+        peakLiveHeaps.add(result.getPeakLiveHeap());
+        variations.add(result.getCoefficientOfVariation());
+        retries.add(result.getRetries());
+        outliers.add(result.isOutlier());
+        extrapolated.add(result.isExtrapolated());
+        baselineTimes.add(Double.NaN);
+    }
+
+    public void shutdown() {
+        if (currentAnalysisTask != null && currentAnalysisTask.isRunning()) {
+            currentAnalysisTask.cancel(true);
+        }
+        analyzer.shutdown();
+    }
+
     private void clearPreviousData() {
+        clearSeries();
+        resultPane.displayComplexity(null, null, null);
+    }
+
+    private void clearSeries() {
         executionTimes.clear();
         memoryUsages.clear();
         inputSizes.clear();
@@ -365,5 +960,11 @@ public class AnalysisController {
         p50Latencies.clear();
         p95Latencies.clear();
         p99Latencies.clear();
+        peakLiveHeaps.clear();
+        variations.clear();
+        retries.clear();
+        outliers.clear();
+        extrapolated.clear();
+        baselineTimes.clear();
     }
 }
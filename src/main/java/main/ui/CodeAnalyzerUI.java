@@ -9,6 +9,7 @@ import javafx.scene.layout.Priority;
 import javafx.stage.Stage;
 
 public class CodeAnalyzerUI extends Application {
+    private AnalysisController analysisController;
 
     @Override
     public void start(Stage primaryStage) {
@@ -26,7 +27,7 @@ public class CodeAnalyzerUI extends Application {
         HBox.setHgrow(rightPane, Priority.ALWAYS);
 
         // AnalysisController wires up the UI actions and background logic
-        new AnalysisController(leftPane, rightPane);
+        analysisController = new AnalysisController(leftPane, rightPane);
 
         mainLayout.getChildren().addAll(leftPane, rightPane);
 
@@ -40,6 +41,13 @@ public class CodeAnalyzerUI extends Application {
         primaryStage.show();
     }
 
+    @Override
+    public void stop() {
+        if (analysisController != null) {
+            analysisController.shutdown();
+        }
+    }
+
     public static void main(String[] args) {
         launch(args);
     }
@@ -0,0 +1,296 @@
+package main.ui;
+
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.Scene;
+import javafx.scene.chart.LineChart;
+import javafx.scene.chart.NumberAxis;
+import javafx.scene.chart.XYChart;
+import javafx.scene.control.Button;
+import javafx.scene.control.ComboBox;
+import javafx.scene.control.Label;
+import javafx.scene.control.ScrollPane;
+import javafx.scene.control.TextArea;
+import javafx.scene.control.TextField;
+import javafx.scene.control.Tooltip;
+import javafx.scene.layout.GridPane;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.VBox;
+import javafx.stage.Modality;
+import javafx.stage.Stage;
+import javafx.util.StringConverter;
+import main.core.ABComparison;
+import main.core.CacheTopology;
+import main.core.CrossoverFinder;
+
+import java.util.List;
+
+// Takes the second version of a program and shows how it compares with the one in the editor.
+public class ComparisonWindow {
+    private static final String INPUT_FROM_CODE = "From version A's reads";
+
+    private Stage stage;
+    private TextArea codeBArea;
+    private TextField sizesField;
+    private TextField roundsField;
+    private ComboBox<String> inputTypeComboBox;
+    private Button runButton;
+    private Button crossoverButton;
+    private Label statusLabel;
+    private VBox reportBox;
+
+    private Runnable onRun;
+    private Runnable onFindCrossover;
+    private Runnable onClose;
+
+    public void setOnRun(Runnable onRun) { this.onRun = onRun; }
+    public void setOnFindCrossover(Runnable onFindCrossover) { this.onFindCrossover = onFindCrossover; }
+    public void setOnClose(Runnable onClose) { this.onClose = onClose; }
+
+    public String getCodeB() { return codeBArea.getText(); }
+    public String getSizesText() { return sizesField.getText(); }
+    public String getRoundsText() { return roundsField.getText(); }
+
+    // An InputGenerator.generateInputForType type, or null to generate from version A's reads.
+    public String getInputType() {
+        String type = inputTypeComboBox.getValue();
+        return type == null || INPUT_FROM_CODE.equals(type) ? null : type;
+    }
+
+    // Opens the window, or brings it back with the code typed so far; version B starts out
+    // as a copy of version A.
+    public void show(String codeA, String sizesText) {
+        if (stage == null) {
+            createStage(codeA, sizesText);
+        }
+        stage.show();
+        stage.toFront();
+    }
+
+    public void setRunning(boolean running, String message) {
+        runButton.setDisable(running);
+        crossoverButton.setDisable(running);
+        statusLabel.setText(message == null ? "" : message);
+    }
+
+    public void showReport(ABComparison.Report report) {
+        GridPane grid = new GridPane();
+        grid.setHgap(20);
+        grid.setVgap(8);
+        grid.getStyleClass().add("result-box");
+
+        grid.add(header("Size"), 0, 0);
+        ABComparison.Metric[] metrics = ABComparison.Metric.values();
+        for (int m = 0; m < metrics.length; m++) {
+            grid.add(header(metrics[m].getLabel() + " (A ÷ B)"), m + 1, 0);
+        }
+        int row = 1;
+        for (ABComparison.Point point : report.getPoints()) {
+            Label size = new Label(String.format("%,d", point.getInputSize()));
+            size.getStyleClass().add("text-field-label");
+            grid.add(size, 0, row);
+            for (int m = 0; m < metrics.length; m++) {
+                grid.add(ratioCell(point, metrics[m]), m + 1, row);
+            }
+            row++;
+        }
+
+        Label summary = new Label(String.format("%d rounds per version and size, 95%% t intervals on the per-round ratios. "
+                + "Above 1× means version B needs less.", report.getRounds()));
+        summary.setWrapText(true);
+        summary.getStyleClass().add("text-field-label");
+        reportBox.getChildren().setAll(summary, grid);
+        if (!report.isOutputsMatch()) {
+            Label mismatch = new Label(String.format("The two versions printed different output for sizes %s.",
+                    report.getMismatchedSizes()));
+            mismatch.setWrapText(true);
+            mismatch.setStyle("-fx-text-fill: #ff5252;");
+            reportBox.getChildren().add(mismatch);
+        }
+    }
+
+    public void showCrossover(CrossoverFinder.Result result) {
+        String first = result.getFasterBelow() == ABComparison.VERSION_A ? "A" : "B";
+        String second = first.equals("A") ? "B" : "A";
+        List<CrossoverFinder.Sample> samples = result.getSamples();
+        Label summary = new Label(result.isFound()
+                ? String.format("%s is faster below n ≈ %,.0f and %s above it; the crossover lies between %,.0f and %,.0f.%s",
+                        first, result.getCrossover(), second, result.getLower(), result.getUpper(),
+                        result.isMultipleCrossings() ? " The times cross more than once in this range; this is the first crossing." : "")
+                : String.format("No crossover between %,d and %,d: %s is faster throughout.",
+                        samples.get(0).getInputSize(), samples.get(samples.size() - 1).getInputSize(), first));
+        summary.setWrapText(true);
+        summary.setStyle("-fx-text-fill: #f0f0f0;");
+        reportBox.getChildren().setAll(summary, createCrossoverChart(result));
+    }
+
+    // Both versions' times against log size, with the crossover and its bounds as vertical lines.
+    private LineChart<Number, Number> createCrossoverChart(CrossoverFinder.Result result) {
+        NumberAxis xAxis = new NumberAxis();
+        xAxis.setLabel("Input size (log scale)");
+        xAxis.setForceZeroInRange(false);
+        xAxis.setTickLabelFormatter(new StringConverter<>() {
+            @Override
+            public String toString(Number value) {
+                return String.format("%,d", Math.round(Math.pow(10, value.doubleValue())));
+            }
+
+            @Override
+            public Number fromString(String text) {
+                return Math.log10(Double.parseDouble(text.replace(",", "")));
+            }
+        });
+        NumberAxis yAxis = new NumberAxis();
+        yAxis.setLabel("Time (ms)");
+        LineChart<Number, Number> chart = new LineChart<>(xAxis, yAxis);
+        chart.setPrefHeight(320);
+        chart.setAnimated(false);
+
+        XYChart.Series<Number, Number> seriesA = new XYChart.Series<>();
+        seriesA.setName("A");
+        XYChart.Series<Number, Number> seriesB = new XYChart.Series<>();
+        seriesB.setName("B");
+        double maxTime = 0;
+        for (CrossoverFinder.Sample sample : result.getSamples()) {
+            double x = Math.log10(sample.getInputSize());
+            seriesA.getData().add(new XYChart.Data<>(x, sample.getA().getExecutionTime()));
+            seriesB.getData().add(new XYChart.Data<>(x, sample.getB().getExecutionTime()));
+            maxTime = Math.max(maxTime, Math.max(sample.getA().getExecutionTime(), sample.getB().getExecutionTime()));
+        }
+        chart.getData().add(seriesA);
+        chart.getData().add(seriesB);
+        if (result.isFound()) {
+            addMarker(chart, String.format("Crossover ≈ %,.0f", result.getCrossover()), result.getCrossover(),
+                    maxTime, "-fx-stroke: #ff5252; -fx-stroke-width: 2px;");
+            addMarker(chart, "Lower bound", result.getLower(), maxTime,
+                    "-fx-stroke: #8b949e; -fx-stroke-dash-array: 4 4;");
+            addMarker(chart, "Upper bound", result.getUpper(), maxTime,
+                    "-fx-stroke: #8b949e; -fx-stroke-dash-array: 4 4;");
+        }
+        return chart;
+    }
+
+    private static void addMarker(LineChart<Number, Number> chart, String name, double size, double height,
+                                  String style) {
+        XYChart.Series<Number, Number> marker = new XYChart.Series<>();
+        marker.setName(name);
+        marker.getData().add(new XYChart.Data<>(Math.log10(size), 0));
+        marker.getData().add(new XYChart.Data<>(Math.log10(size), height));
+        chart.getData().add(marker);
+        marker.getNode().setStyle(style);
+        for (XYChart.Data<Number, Number> point : marker.getData()) {
+            point.getNode().setVisible(false);
+        }
+    }
+
+    private void createStage(String codeA, String sizesText) {
+        stage = new Stage();
+        stage.setTitle("Compare Versions");
+        stage.initModality(Modality.NONE);
+        UIUtils.setStageIcon(stage);
+        stage.setOnHidden(e -> { if (onClose != null) onClose.run(); });
+
+        Label titleLabel = new Label("Compare Versions");
+        titleLabel.getStyleClass().add("title-label");
+
+        Label codeLabel = new Label("Version B (version A is the code in the editor):");
+        codeLabel.getStyleClass().add("text-field-label");
+        codeBArea = new TextArea(codeA);
+        codeBArea.getStyleClass().add("code-input");
+        codeBArea.setPrefRowCount(16);
+        VBox.setVgrow(codeBArea, Priority.ALWAYS);
+
+        Label sizesLabel = new Label("Sizes:");
+        sizesLabel.getStyleClass().add("text-field-label");
+        sizesField = new TextField(sizesText);
+        sizesField.getStyleClass().add("text-field-dark");
+        sizesField.setPrefWidth(220);
+        sizesField.setTooltip(new Tooltip("Comma-separated input sizes; both versions get the same generated input for each"));
+
+        Label roundsLabel = new Label("Rounds:");
+        roundsLabel.getStyleClass().add("text-field-label");
+        roundsField = new TextField(String.valueOf(ABComparison.DEFAULT_ROUNDS));
+        roundsField.getStyleClass().add("text-field-dark");
+        roundsField.setPrefWidth(60);
+        roundsField.setTooltip(new Tooltip("Runs of each version per size, alternating A and B; at least "
+                + ABComparison.MIN_ROUNDS));
+
+        runButton = new Button("▶ Compare");
+        runButton.getStyleClass().add("analyze-button");
+        runButton.setOnAction(e -> { if (onRun != null) onRun.run(); });
+
+        HBox controls = new HBox(10, sizesLabel, sizesField, roundsLabel, roundsField, runButton);
+        controls.setAlignment(Pos.CENTER_LEFT);
+
+        Label inputTypeLabel = new Label("Input:");
+        inputTypeLabel.getStyleClass().add("text-field-label");
+        inputTypeComboBox = new ComboBox<>();
+        inputTypeComboBox.getItems().addAll(INPUT_FROM_CODE, "array:random", "array:sorted",
+                "array:nearly-sorted", "string", "matrix");
+        inputTypeComboBox.setValue(INPUT_FROM_CODE);
+        inputTypeComboBox.getStyleClass().add("combo-box-dark");
+
+        crossoverButton = new Button("⤫ Find Crossover");
+        crossoverButton.getStyleClass().add("clear-button");
+        crossoverButton.setTooltip(new Tooltip("Search between the smallest and largest size for where the two versions' times cross"));
+        crossoverButton.setOnAction(e -> { if (onFindCrossover != null) onFindCrossover.run(); });
+
+        HBox crossoverControls = new HBox(10, inputTypeLabel, inputTypeComboBox, crossoverButton);
+        crossoverControls.setAlignment(Pos.CENTER_LEFT);
+
+        statusLabel = new Label();
+        statusLabel.getStyleClass().add("analyzing-label");
+        statusLabel.setStyle("-fx-font-size: 13px;");
+
+        reportBox = new VBox(10);
+        ScrollPane reportScroll = new ScrollPane(reportBox);
+        reportScroll.setFitToWidth(true);
+        reportScroll.setStyle("-fx-background-color: transparent; -fx-background: #0d1117;");
+        reportScroll.setPrefHeight(300);
+
+        Button closeButton = new Button("Close");
+        closeButton.getStyleClass().add("close-button");
+        closeButton.setOnAction(e -> stage.close());
+
+        VBox content = new VBox(10, titleLabel, codeLabel, codeBArea, controls, crossoverControls, statusLabel,
+                reportScroll, closeButton);
+        content.setPadding(new Insets(20));
+
+        Scene scene = new Scene(content, 900, 860);
+        if (getClass().getResource("/styles.css") != null) {
+            scene.getStylesheets().add(getClass().getResource("/styles.css").toExternalForm());
+        }
+        stage.setScene(scene);
+    }
+
+    private static Label header(String text) {
+        Label label = new Label(text);
+        label.getStyleClass().add("result-header");
+        return label;
+    }
+
+    // Means of both versions, the ratio with its interval and the verdict, coloured by verdict.
+    private static VBox ratioCell(ABComparison.Point point, ABComparison.Metric metric) {
+        ABComparison.Ratio ratio = point.getRatio(metric);
+        ABComparison.Verdict verdict = ratio.getVerdict();
+        if (verdict == ABComparison.Verdict.NOT_MEASURED) {
+            Label label = new Label(verdict.getLabel());
+            label.getStyleClass().add("text-field-label");
+            return new VBox(label);
+        }
+        Label means = new Label(format(metric, point.getMeanA(metric)) + " → " + format(metric, point.getMeanB(metric)));
+        means.getStyleClass().add("text-field-label");
+        Label value = new Label(String.format("%.2f× [%.2f–%.2f]", ratio.getRatio(), ratio.getLower(), ratio.getUpper()));
+        value.setStyle("-fx-text-fill: #f0f0f0; -fx-font-weight: bold;");
+        Label verdictLabel = new Label(verdict.getLabel());
+        verdictLabel.setStyle("-fx-text-fill: " + (verdict == ABComparison.Verdict.BETTER ? "#3fb950"
+                : verdict == ABComparison.Verdict.WORSE ? "#ff5252" : "#8b949e") + ";");
+        return new VBox(2, means, value, verdictLabel);
+    }
+
+    private static String format(ABComparison.Metric metric, double value) {
+        return metric == ABComparison.Metric.ALLOCATION ? CacheTopology.formatBytes(value)
+                : String.format("%.3f ms", value);
+    }
+}
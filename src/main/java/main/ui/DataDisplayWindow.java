@@ -5,11 +5,17 @@ import javafx.scene.Scene;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
 import javafx.scene.control.TextArea;
+import javafx.scene.layout.HBox;
 import javafx.scene.layout.VBox;
 import javafx.stage.Modality;
 import javafx.stage.Stage;
+import main.core.OutputCapture;
+
+import java.io.IOException;
 
 public class DataDisplayWindow {
+    private static final int PAGE_BYTES = 64 * 1024;
+
     private Stage stage;
     private String windowTitle;
 
@@ -23,6 +29,71 @@ public class DataDisplayWindow {
             return;
         }
 
+        TextArea dataArea = createDataArea(data);
+        show(dataArea);
+    }
+
+    // Shows captured output one page at a time, reading pages from the spilled file so the
+    // whole output never has to be held as one string.
+    public void showOutput(OutputCapture capture) {
+        if (capture == null || capture.getByteCount() == 0) {
+            UIUtils.showAlert("No Data", "No data available for " + windowTitle + ". Please run the analysis first.");
+            return;
+        }
+
+        Label summaryLabel = new Label(String.format("%,d bytes, %,d lines%nSHA-256: %s",
+                capture.getByteCount(), capture.getLineCount(), capture.getSha256()));
+        summaryLabel.setStyle("-fx-text-fill: #b0b0b0; -fx-font-size: 11px;");
+
+        if (capture.getByteCount() <= PAGE_BYTES) {
+            show(summaryLabel, createDataArea(capture.getText()));
+            return;
+        }
+
+        long pageCount = (capture.getByteCount() + PAGE_BYTES - 1) / PAGE_BYTES;
+        long[] page = {0};
+        TextArea dataArea = createDataArea("");
+        Label pageLabel = new Label();
+        pageLabel.setStyle("-fx-text-fill: #f0f0f0;");
+        Button previousButton = new Button("Previous");
+        Button nextButton = new Button("Next");
+
+        Runnable loadPage = () -> {
+            try {
+                dataArea.setText(capture.readPage(page[0] * PAGE_BYTES, PAGE_BYTES));
+            } catch (IOException e) {
+                // Fall back to what is still in memory.
+                dataArea.setText(capture.getText());
+            }
+            pageLabel.setText(String.format("Page %d of %d", page[0] + 1, pageCount));
+            previousButton.setDisable(page[0] == 0);
+            nextButton.setDisable(page[0] >= pageCount - 1);
+        };
+        previousButton.setOnAction(e -> {
+            page[0]--;
+            loadPage.run();
+        });
+        nextButton.setOnAction(e -> {
+            page[0]++;
+            loadPage.run();
+        });
+        loadPage.run();
+
+        HBox pager = new HBox(10, previousButton, pageLabel, nextButton);
+        show(summaryLabel, dataArea, pager);
+    }
+
+    private TextArea createDataArea(String data) {
+        TextArea dataArea = new TextArea(data);
+        dataArea.setEditable(false);
+        dataArea.setWrapText(true);
+        dataArea.setPrefRowCount(20);
+        dataArea.getStyleClass().add("data-area");
+        dataArea.setStyle("-fx-control-inner-background: #2b2b2b; -fx-text-fill: #ffffff; -fx-font-family: 'Consolas', monospace; -fx-font-size: 13px;");
+        return dataArea;
+    }
+
+    private void show(javafx.scene.Node... body) {
         if (stage == null) {
             stage = new Stage();
             stage.setTitle(windowTitle);
@@ -38,18 +109,13 @@ public class DataDisplayWindow {
         titleLabel.getStyleClass().add("title-label");
         titleLabel.setStyle("-fx-text-fill: #f0f0f0;");
 
-        TextArea dataArea = new TextArea(data);
-        dataArea.setEditable(false);
-        dataArea.setWrapText(true);
-        dataArea.setPrefRowCount(20);
-        dataArea.getStyleClass().add("data-area");
-        dataArea.setStyle("-fx-control-inner-background: #2b2b2b; -fx-text-fill: #ffffff; -fx-font-family: 'Consolas', monospace; -fx-font-size: 13px;");
-
         Button closeButton = new Button("Close");
         closeButton.getStyleClass().add("close-button");
         closeButton.setOnAction(e -> stage.close());
 
-        content.getChildren().addAll(titleLabel, dataArea, closeButton);
+        content.getChildren().add(titleLabel);
+        content.getChildren().addAll(body);
+        content.getChildren().add(closeButton);
 
         Scene scene = new Scene(content, 400, 500);
         try {
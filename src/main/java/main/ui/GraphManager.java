@@ -19,6 +19,9 @@ import javafx.util.Duration;
 import javafx.geometry.Point2D;
 import javafx.beans.property.ObjectProperty;
 import javafx.beans.property.SimpleObjectProperty;
+import main.core.ComplexityFitter;
+import main.core.DistributionBand;
+import main.core.KneeDetector;
 
 import java.io.File;
 import java.io.PrintWriter;
@@ -35,7 +38,30 @@ public class GraphManager {
     private final List<Double> p50Latencies;
     private final List<Double> p95Latencies;
     private final List<Double> p99Latencies;
-
+    private final List<Double> peakLiveHeaps;
+    // Per-point noise: CV of the iteration times, re-runs made, and whether still suspect.
+    private final List<Double> variations;
+    private final List<Integer> retries;
+    private final List<Boolean> outliers;
+    // True for sizes predicted from the others instead of measured.
+    private final List<Boolean> extrapolated;
+    // Time of the JDK baseline at each size, NaN where it was not run, and its name if one was.
+    private final List<Double> baselineTimes;
+    private String baselineName;
+    // Fastest and slowest array distribution per size, if the sweep measured several.
+    private DistributionBand band;
+
+    private static final String EXTRAPOLATED_SERIES = "Extrapolated";
+    private static final String FIT_SERIES_PREFIX = "Fit: ";
+    private static final int FIT_CURVE_POINTS = 60;
+    private static final String KNEE_SERIES_PREFIX = "Knee: ";
+    private static final String OUTLIER_NOTE = "Outlier";
+    private static final String BASELINE_SERIES_PREFIX = "JDK: ";
+    private static final String BAND_WORST_SERIES = "Worst case";
+    private static final String BAND_BEST_SERIES = "Best case";
+
+    private final ComplexityFitter complexityFitter = new ComplexityFitter();
+    private final KneeDetector kneeDetector = new KneeDetector();
     private static final String CHART_LINE_COLOR = "#2196f3";
     private static final String CHART_BACKGROUND = "#ffffff";
     private static final String AXIS_COLOR = "#757575";
@@ -68,7 +94,9 @@ public class GraphManager {
 
     public GraphManager(List<Double> executionTimes, List<Double> memoryUsages, List<Integer> inputSizes,
                         List<Double> throughputs, List<Double> gcPauseTimes, List<Double> heapAllocationRates,
-                        List<Double> p50Latencies, List<Double> p95Latencies, List<Double> p99Latencies) {
+                        List<Double> p50Latencies, List<Double> p95Latencies, List<Double> p99Latencies,
+                        List<Double> peakLiveHeaps, List<Double> variations, List<Integer> retries,
+                        List<Boolean> outliers, List<Boolean> extrapolated, List<Double> baselineTimes) {
         this.executionTimes = executionTimes;
         this.memoryUsages = memoryUsages;
         this.inputSizes = inputSizes;
@@ -78,6 +106,20 @@ public class GraphManager {
         this.p50Latencies = p50Latencies;
         this.p95Latencies = p95Latencies;
         this.p99Latencies = p99Latencies;
+        this.peakLiveHeaps = peakLiveHeaps;
+        this.variations = variations;
+        this.retries = retries;
+        this.outliers = outliers;
+        this.extrapolated = extrapolated;
+        this.baselineTimes = baselineTimes;
+    }
+
+    public void setBaselineName(String baselineName) {
+        this.baselineName = baselineName;
+    }
+
+    public void setBand(DistributionBand band) {
+        this.band = band;
     }
 
     private void clearPreviousData() {
@@ -90,6 +132,12 @@ public class GraphManager {
         p50Latencies.clear();
         p95Latencies.clear();
         p99Latencies.clear();
+        peakLiveHeaps.clear();
+        variations.clear();
+        retries.clear();
+        outliers.clear();
+        extrapolated.clear();
+        baselineTimes.clear();
     }
 
     public void showTimeGraph() {
@@ -99,8 +147,15 @@ public class GraphManager {
 
         NumberAxis xAxis = new NumberAxis("Input Size", 0,
                 getMaxValue(inputSizes), calculateTickUnit(getMaxValue(inputSizes)));
+        List<Double> plottedTimes = new ArrayList<>(executionTimes);
+        plottedTimes.addAll(baselineTimes);
+        if (band != null) {
+            for (int size : band.getSizes()) {
+                plottedTimes.add(band.getWorst(size).getTime());
+            }
+        }
         NumberAxis yAxis = new NumberAxis("Execution Time (ms)", 0,
-                getMaxValue(executionTimes), calculateTickUnit(getMaxValue(executionTimes)));
+                getMaxValue(plottedTimes), calculateTickUnit(getMaxValue(plottedTimes)));
 
         AreaChart<Number, Number> chart = createAreaChart(xAxis, yAxis, "Execution Time vs Input Size");
         chart.getStyleClass().add("embedded-time-chart");
@@ -112,7 +167,29 @@ public class GraphManager {
 
         addProgressiveDataPoints(series, executionTimes);
 
-        showGraph(chart, series, "Execution Time Graph");
+        List<XYChart.Series<Number, Number>> seriesList = new ArrayList<>(withExtrapolated(chart, series, executionTimes));
+        List<ComplexityFitter.Fit> fits = fitMeasured(executionTimes);
+        Node fitPanel = null;
+        if (!fits.isEmpty()) {
+            seriesList.add(createFitSeries(fits.get(0)));
+            chart.setLegendVisible(true);
+            fitPanel = createFitPanel(fits, "ms");
+        }
+        XYChart.Series<Number, Number> baselineSeries = createBaselineSeries();
+        if (baselineSeries != null) {
+            seriesList.add(baselineSeries);
+            chart.setLegendVisible(true);
+        }
+        if (band != null) {
+            // First, so the measured line is drawn over the band.
+            seriesList.addAll(0, List.of(createBandSeries(BAND_WORST_SERIES, true),
+                    createBandSeries(BAND_BEST_SERIES, false)));
+            chart.setLegendVisible(true);
+        }
+        List<KneeDetector.Knee> knees = detectKnees(executionTimes);
+        seriesList.addAll(createKneeSeries(chart, knees, executionTimes));
+        showGraph(chart, seriesList, "Execution Time Graph",
+                stack(fitPanel, createBandPanel(), createBaselinePanel(), createKneePanel(knees, "Time")));
     }
 
     public void showMemoryGraph() {
@@ -135,7 +212,10 @@ public class GraphManager {
 
         addProgressiveDataPoints(series, memoryUsages);
 
-        showGraph(chart, series, "Memory Usage Graph");
+        List<XYChart.Series<Number, Number>> seriesList = new ArrayList<>(withExtrapolated(chart, series, memoryUsages));
+        List<KneeDetector.Knee> knees = detectKnees(memoryUsages);
+        seriesList.addAll(createKneeSeries(chart, knees, memoryUsages));
+        showGraph(chart, seriesList, "Memory Usage Graph", createKneePanel(knees, "Allocation"));
     }
 
     public void showThroughputGraph() {
@@ -272,6 +352,9 @@ public class GraphManager {
 
     private void addEmbeddedDataPoints(XYChart.Series<Number, Number> series, List<Double> values) {
         for (int i = 0; i < values.size(); i++) {
+            if (isExtrapolated(i)) {
+                continue;
+            }
             series.getData().add(new XYChart.Data<>(i + 1, values.get(i)));
         }
     }
@@ -295,13 +378,392 @@ public class GraphManager {
     private void addProgressiveDataPoints(XYChart.Series<Number, Number> series, List<Double> values) {
         List<DataPoint> dataPoints = new ArrayList<>();
         for (int i = 0; i < inputSizes.size(); i++) {
-            dataPoints.add(new DataPoint(inputSizes.get(i), values.get(i)));
+            if (!isExtrapolated(i) && !Double.isNaN(values.get(i))) {
+                dataPoints.add(new DataPoint(inputSizes.get(i), values.get(i)));
+            }
+        }
+        dataPoints.sort(Comparator.comparingInt(dp -> dp.inputSize));
+
+        for (DataPoint dp : dataPoints) {
+            series.getData().add(new XYChart.Data<>(dp.inputSize, dp.value, outlierNote(dp.inputSize)));
+        }
+    }
+
+    private boolean isExtrapolated(int index) {
+        return index < extrapolated.size() && extrapolated.get(index);
+    }
+
+    private boolean isOutlier(int index) {
+        return index < outliers.size() && outliers.get(index);
+    }
+
+    // Tooltip line for a flagged size, kept as the point's extra value; null for the rest.
+    private String outlierNote(int inputSize) {
+        for (int i = 0; i < inputSizes.size(); i++) {
+            if (inputSizes.get(i) == inputSize && isOutlier(i)) {
+                return String.format("%s: CV %.1f%%, %d re-runs, still off", OUTLIER_NOTE,
+                        variations.get(i) * 100, retries.get(i));
+            }
+        }
+        return null;
+    }
+
+    // Adds a second series for the extrapolated sizes, starting at the last measured point so
+    // the two lines join up. Just the measured series when nothing was extrapolated.
+    private List<XYChart.Series<Number, Number>> withExtrapolated(AreaChart<Number, Number> chart,
+                                                                  XYChart.Series<Number, Number> measured,
+                                                                  List<Double> values) {
+        List<DataPoint> dataPoints = new ArrayList<>();
+        for (int i = 0; i < inputSizes.size(); i++) {
+            if (isExtrapolated(i) && !Double.isNaN(values.get(i))) {
+                dataPoints.add(new DataPoint(inputSizes.get(i), values.get(i)));
+            }
+        }
+        if (dataPoints.isEmpty()) {
+            return Collections.singletonList(measured);
         }
         dataPoints.sort(Comparator.comparingInt(dp -> dp.inputSize));
 
+        XYChart.Series<Number, Number> series = new XYChart.Series<>();
+        series.setName(EXTRAPOLATED_SERIES);
+        if (!measured.getData().isEmpty()) {
+            XYChart.Data<Number, Number> last = measured.getData().get(measured.getData().size() - 1);
+            // Marked so its symbol can be hidden; the measured series already draws it.
+            series.getData().add(new XYChart.Data<>(last.getXValue(), last.getYValue(), EXTRAPOLATED_SERIES));
+        }
         for (DataPoint dp : dataPoints) {
             series.getData().add(new XYChart.Data<>(dp.inputSize, dp.value));
         }
+        chart.setLegendVisible(true);
+        return Arrays.asList(measured, series);
+    }
+
+    // Complexity fits over the measured sizes that are not outliers, best first.
+    private List<ComplexityFitter.Fit> fitMeasured(List<Double> values) {
+        List<Integer> sizes = new ArrayList<>();
+        List<Double> measured = new ArrayList<>();
+        for (int i = 0; i < inputSizes.size(); i++) {
+            if (!isExtrapolated(i) && !isOutlier(i)) {
+                sizes.add(inputSizes.get(i));
+                measured.add(values.get(i));
+            }
+        }
+        return complexityFitter.fitAll(sizes, measured);
+    }
+
+    // Knees in the per-element cost over the same sizes as the fits, with the live heap as
+    // working set.
+    private List<KneeDetector.Knee> detectKnees(List<Double> values) {
+        List<Integer> sizes = new ArrayList<>();
+        List<Double> measured = new ArrayList<>();
+        List<Double> liveHeaps = new ArrayList<>();
+        for (int i = 0; i < inputSizes.size(); i++) {
+            if (!isExtrapolated(i) && !isOutlier(i)) {
+                sizes.add(inputSizes.get(i));
+                measured.add(values.get(i));
+                liveHeaps.add(i < peakLiveHeaps.size() ? peakLiveHeaps.get(i) : Double.NaN);
+            }
+        }
+        return kneeDetector.detect(sizes, measured, liveHeaps);
+    }
+
+    // A vertical line from the axis to the largest value at each knee.
+    private List<XYChart.Series<Number, Number>> createKneeSeries(AreaChart<Number, Number> chart,
+                                                                  List<KneeDetector.Knee> knees, List<Double> values) {
+        if (!knees.isEmpty()) {
+            chart.setLegendVisible(true);
+        }
+        double top = getMaxValue(values) / 1.1;
+        List<XYChart.Series<Number, Number>> seriesList = new ArrayList<>();
+        for (KneeDetector.Knee knee : knees) {
+            XYChart.Series<Number, Number> series = new XYChart.Series<>();
+            series.setName(KNEE_SERIES_PREFIX + (knee.getCache() != null ? knee.getCache().getName()
+                    : String.format("n ≈ %.0f", knee.getSize())));
+            series.getData().add(new XYChart.Data<>(knee.getSize(), 0));
+            series.getData().add(new XYChart.Data<>(knee.getSize(), top));
+            seriesList.add(series);
+        }
+        return seriesList;
+    }
+
+    private VBox createKneePanel(List<KneeDetector.Knee> knees, String metric) {
+        if (knees.isEmpty()) {
+            return null;
+        }
+        VBox panel = new VBox(5, new Label(metric + " per element knees:"));
+        for (KneeDetector.Knee knee : knees) {
+            Label label = new Label(knee.getDescription());
+            label.setWrapText(true);
+            label.setMaxWidth(220);
+            panel.getChildren().add(label);
+        }
+        for (Node node : panel.getChildren()) {
+            node.setStyle("-fx-text-fill: white;");
+        }
+        return panel;
+    }
+
+    // The baseline's times at the sizes it ran, smallest first, or null without a baseline.
+    private XYChart.Series<Number, Number> createBaselineSeries() {
+        List<Integer> indices = baselineIndices();
+        if (baselineName == null || indices.isEmpty()) {
+            return null;
+        }
+        XYChart.Series<Number, Number> series = new XYChart.Series<>();
+        series.setName(BASELINE_SERIES_PREFIX + baselineName);
+        for (int i : indices) {
+            series.getData().add(new XYChart.Data<>(inputSizes.get(i), baselineTimes.get(i)));
+        }
+        return series;
+    }
+
+    // How many times the baseline's time the program took at each size the baseline ran.
+    private VBox createBaselinePanel() {
+        List<Integer> indices = baselineIndices();
+        if (baselineName == null || indices.isEmpty()) {
+            return null;
+        }
+        VBox rows = new VBox(3);
+        for (int i : indices) {
+            double ratio = executionTimes.get(i) / baselineTimes.get(i);
+            rows.getChildren().add(new Label(ratio >= 1
+                    ? String.format("n = %,d: %.2f× slower", inputSizes.get(i), ratio)
+                    : String.format("n = %,d: %.2f× faster", inputSizes.get(i), 1 / ratio)));
+        }
+        Label title = new Label("Compared with JDK " + baselineName + ":");
+        title.setWrapText(true);
+        title.setMaxWidth(220);
+        for (Node node : rows.getChildren()) {
+            node.setStyle("-fx-text-fill: white;");
+        }
+        title.setStyle("-fx-text-fill: white;");
+        ScrollPane scroll = new ScrollPane(rows);
+        scroll.setFitToWidth(true);
+        scroll.setMaxHeight(180);
+        scroll.setStyle("-fx-background: transparent; -fx-background-color: transparent;");
+        return new VBox(5, title, scroll);
+    }
+
+    // The slowest or fastest distribution's time at each size, named in each point's extra value.
+    private XYChart.Series<Number, Number> createBandSeries(String name, boolean worst) {
+        XYChart.Series<Number, Number> series = new XYChart.Series<>();
+        series.setName(name);
+        for (int size : band.getSizes()) {
+            DistributionBand.Case bound = worst ? band.getWorst(size) : band.getBest(size);
+            XYChart.Data<Number, Number> data = new XYChart.Data<>(size, bound.getTime());
+            data.setExtraValue(bound.getDistribution().getLabel());
+            series.getData().add(data);
+        }
+        return series;
+    }
+
+    // Which distribution was fastest and which slowest at each size.
+    private VBox createBandPanel() {
+        if (band == null) {
+            return null;
+        }
+        VBox rows = new VBox(3);
+        for (int size : band.getSizes()) {
+            DistributionBand.Case best = band.getBest(size);
+            DistributionBand.Case worst = band.getWorst(size);
+            Label row = new Label(String.format("n = %,d: %s %s ms … %s %s ms", size,
+                    best.getDistribution().getLabel(), decimalFormat.format(best.getTime()),
+                    worst.getDistribution().getLabel(), decimalFormat.format(worst.getTime())));
+            row.setWrapText(true);
+            row.setMaxWidth(220);
+            rows.getChildren().add(row);
+        }
+        Label title = new Label("Best and worst distribution:");
+        for (Node node : rows.getChildren()) {
+            node.setStyle("-fx-text-fill: white;");
+        }
+        title.setStyle("-fx-text-fill: white;");
+        ScrollPane scroll = new ScrollPane(rows);
+        scroll.setFitToWidth(true);
+        scroll.setMaxHeight(180);
+        scroll.setStyle("-fx-background: transparent; -fx-background-color: transparent;");
+        return new VBox(5, title, scroll);
+    }
+
+    private List<Integer> baselineIndices() {
+        List<Integer> indices = new ArrayList<>();
+        for (int i = 0; i < baselineTimes.size() && i < executionTimes.size(); i++) {
+            if (!Double.isNaN(baselineTimes.get(i)) && baselineTimes.get(i) > 0) {
+                indices.add(i);
+            }
+        }
+        indices.sort(Comparator.comparingInt(inputSizes::get));
+        return indices;
+    }
+
+    // The non-null panels one above the other, or null if there are none.
+    private Node stack(Node... panels) {
+        VBox box = new VBox(10);
+        for (Node panel : panels) {
+            if (panel != null) {
+                if (!box.getChildren().isEmpty()) {
+                    box.getChildren().add(new Separator());
+                }
+                box.getChildren().add(panel);
+            }
+        }
+        return box.getChildren().isEmpty() ? null : box;
+    }
+
+    // The fitted curve sampled evenly across every size on the graph, extrapolated ones included.
+    private XYChart.Series<Number, Number> createFitSeries(ComplexityFitter.Fit fit) {
+        int minSize = Collections.min(inputSizes);
+        int maxSize = Collections.max(inputSizes);
+        XYChart.Series<Number, Number> series = new XYChart.Series<>();
+        series.setName(FIT_SERIES_PREFIX + fit.getNotation());
+        for (int i = 0; i < FIT_CURVE_POINTS; i++) {
+            double n = minSize + (maxSize - minSize) * i / (double) (FIT_CURVE_POINTS - 1);
+            series.getData().add(new XYChart.Data<>(n, fit.predict(n)));
+        }
+        return series;
+    }
+
+    private VBox createFitPanel(List<ComplexityFitter.Fit> fits, String unit) {
+        ComplexityFitter.Fit best = fits.get(0);
+        Label title = new Label("Complexity fit:");
+        Label model = new Label(best.getNotation());
+        Label formula = new Label("t(n) = " + best.getFormula() + " " + unit);
+        formula.setWrapText(true);
+        formula.setMaxWidth(220);
+        Label rSquared = new Label(String.format("R² = %.4f", best.getRSquared()));
+
+        VBox panel = new VBox(5, title, model, formula, rSquared);
+        // How much worse the runners-up are; a gap under ~2 means they are about as plausible.
+        for (ComplexityFitter.Fit fit : fits.subList(1, Math.min(3, fits.size()))) {
+            panel.getChildren().add(new Label(String.format("%s: ΔAICc %.1f", fit.getNotation(),
+                    fit.getAicc() - best.getAicc())));
+        }
+
+        TextField sizeField = new TextField();
+        sizeField.setPromptText("n");
+        sizeField.setPrefWidth(90);
+        Label prediction = new Label();
+        prediction.setWrapText(true);
+        prediction.setMaxWidth(220);
+        Button predictButton = new Button("Predict");
+        predictButton.setOnAction(e -> {
+            try {
+                double n = Double.parseDouble(sizeField.getText().trim());
+                if (n <= 0) {
+                    throw new NumberFormatException();
+                }
+                prediction.setText(String.format("t(%s) ≈ %s %s", decimalFormat.format(n),
+                        decimalFormat.format(best.predict(n)), unit));
+            } catch (NumberFormatException ex) {
+                prediction.setText("Enter a positive size");
+            }
+        });
+        panel.getChildren().addAll(new HBox(5, sizeField, predictButton), prediction);
+
+        for (Node node : panel.getChildren()) {
+            if (node instanceof Label) {
+                node.setStyle("-fx-text-fill: white;");
+            }
+        }
+        return panel;
+    }
+
+    // Dashed, unfilled line and faded symbols, so predicted sizes do not pass for measured ones;
+    // fitted curves are plain lines, knees dotted vertical ones, the JDK baseline a grey ghost,
+    // the distribution band a lightly shaded orange worst case over a green best case, and
+    // outliers red symbols.
+    private void styleOverlays(AreaChart<Number, Number> chart) {
+        for (XYChart.Series<Number, Number> series : chart.getData()) {
+            if (series.getNode() == null || series.getName() == null) {
+                continue;
+            }
+            if (series.getName().startsWith(FIT_SERIES_PREFIX)) {
+                Node fill = series.getNode().lookup(".chart-series-area-fill");
+                if (fill != null) {
+                    fill.setStyle("-fx-fill: transparent;");
+                }
+                for (XYChart.Data<Number, Number> data : series.getData()) {
+                    if (data.getNode() != null) {
+                        data.getNode().setVisible(false);
+                    }
+                }
+                continue;
+            }
+            if (series.getName().startsWith(BASELINE_SERIES_PREFIX)) {
+                Node line = series.getNode().lookup(".chart-series-area-line");
+                if (line != null) {
+                    line.setStyle("-fx-stroke: #9e9e9e; -fx-stroke-dash-array: 4 4; -fx-opacity: 0.7;");
+                }
+                Node fill = series.getNode().lookup(".chart-series-area-fill");
+                if (fill != null) {
+                    fill.setStyle("-fx-fill: transparent;");
+                }
+                for (XYChart.Data<Number, Number> data : series.getData()) {
+                    if (data.getNode() != null) {
+                        data.getNode().setStyle("-fx-background-color: #9e9e9e, #9e9e9e;");
+                        data.getNode().setOpacity(0.5);
+                    }
+                }
+                continue;
+            }
+            if (BAND_WORST_SERIES.equals(series.getName()) || BAND_BEST_SERIES.equals(series.getName())) {
+                String color = BAND_WORST_SERIES.equals(series.getName()) ? "#ff9800" : "#66bb6a";
+                Node line = series.getNode().lookup(".chart-series-area-line");
+                if (line != null) {
+                    line.setStyle("-fx-stroke: " + color + "; -fx-stroke-width: 1.5;");
+                }
+                Node fill = series.getNode().lookup(".chart-series-area-fill");
+                if (fill != null) {
+                    fill.setStyle(BAND_WORST_SERIES.equals(series.getName())
+                            ? "-fx-fill: rgba(255, 152, 0, 0.18);" : "-fx-fill: transparent;");
+                }
+                for (XYChart.Data<Number, Number> data : series.getData()) {
+                    if (data.getNode() != null) {
+                        data.getNode().setStyle("-fx-background-color: " + color + ", " + color + ";");
+                        data.getNode().setOpacity(0.7);
+                    }
+                }
+                continue;
+            }
+            if (series.getName().startsWith(KNEE_SERIES_PREFIX)) {
+                Node line = series.getNode().lookup(".chart-series-area-line");
+                if (line != null) {
+                    line.setStyle("-fx-stroke-dash-array: 2 6; -fx-stroke-width: 1.5;");
+                }
+                Node fill = series.getNode().lookup(".chart-series-area-fill");
+                if (fill != null) {
+                    fill.setStyle("-fx-fill: transparent;");
+                }
+                for (XYChart.Data<Number, Number> data : series.getData()) {
+                    if (data.getNode() != null) {
+                        data.getNode().setVisible(false);
+                    }
+                }
+                continue;
+            }
+            if (!EXTRAPOLATED_SERIES.equals(series.getName())) {
+                for (XYChart.Data<Number, Number> data : series.getData()) {
+                    if (data.getNode() != null && data.getExtraValue() != null) {
+                        data.getNode().setStyle("-fx-background-color: #ff5252, #ff5252;");
+                    }
+                }
+                continue;
+            }
+            Node line = series.getNode().lookup(".chart-series-area-line");
+            if (line != null) {
+                line.setStyle("-fx-stroke-dash-array: 8 6;");
+            }
+            Node fill = series.getNode().lookup(".chart-series-area-fill");
+            if (fill != null) {
+                fill.setStyle("-fx-fill: transparent;");
+            }
+            for (XYChart.Data<Number, Number> data : series.getData()) {
+                if (data.getNode() != null) {
+                    data.getNode().setOpacity(0.6);
+                    data.getNode().setVisible(data.getExtraValue() == null);
+                }
+            }
+        }
     }
 
     private double interpolateValue(double x1, double y1, double x2, double y2, double x) {
@@ -334,12 +796,22 @@ public class GraphManager {
     }
 
     private void showGraph(AreaChart<Number, Number> AreaChart, List<XYChart.Series<Number, Number>> seriesList, String title) {
+        showGraph(AreaChart, seriesList, title, null);
+    }
+
+    // extraControls, if any, goes below the standard controls.
+    private void showGraph(AreaChart<Number, Number> AreaChart, List<XYChart.Series<Number, Number>> seriesList,
+                           String title, Node extraControls) {
         AreaChart.getData().clear();
         AreaChart.getData().addAll(seriesList);
+        styleOverlays(AreaChart);
 
         // Add interactive features
         addDataPointInteraction(AreaChart);
         VBox controlPanel = createControlPanel(AreaChart);
+        if (extraControls != null) {
+            controlPanel.getChildren().addAll(new Separator(), extraControls);
+        }
 
         // Add zoom functionality
         addZoomCapability(AreaChart);
@@ -358,11 +830,19 @@ public class GraphManager {
                     Tooltip tooltip = new Tooltip();
                     tooltip.setShowDelay(Duration.millis(100));
 
+                    boolean predicted = EXTRAPOLATED_SERIES.equals(series.getName());
                     node.setOnMouseEntered(event -> {
+                        String note = "";
+                        if (predicted) {
+                            note = String.format("%nExtrapolated, not measured");
+                        } else if (data.getExtraValue() != null) {
+                            note = String.format("%n%s", data.getExtraValue());
+                        }
                         String tooltipText = String.format(
-                                "Input Size: %d%nValue: %s",
+                                "Input Size: %d%nValue: %s%s",
                                 data.getXValue().intValue(),
-                                decimalFormat.format(data.getYValue())
+                                decimalFormat.format(data.getYValue()),
+                                note
                         );
                         tooltip.setText(tooltipText);
                         Tooltip.install(node, tooltip);
@@ -606,6 +1086,7 @@ public class GraphManager {
     private double getMaxValue(List<? extends Number> list) {
         return list.stream()
                 .mapToDouble(Number::doubleValue)
+                .filter(value -> !Double.isNaN(value))
                 .max()
                 .orElse(100.0) * 1.1;
     }
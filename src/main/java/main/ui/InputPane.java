@@ -4,6 +4,11 @@ import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.control.*;
 import javafx.scene.layout.*;
+import main.core.ArrayDistribution;
+import main.core.OutlierScreen;
+import main.core.ReferenceBaseline;
+import main.core.SizeSchedule;
+import main.core.StringDistribution;
 
 public class InputPane extends VBox {
     private CodeEditorPane codeEditorPane;
@@ -15,11 +20,21 @@ public class InputPane extends VBox {
     private ToggleButton hardcodedInputBtn;
     
     private ComboBox<String> arrayTypeComboBox;
+    private ComboBox<StringDistribution> stringTypeComboBox;
+    private TextField alphabetField;
     
     private TextField inputSizeField;
     private TextField minSizeField;
     private TextField maxSizeField;
     private TextField stepSizeField;
+    private CheckBox isolateSizesCheckBox;
+    private TextField parallelLanesField;
+    private TextField sweepBudgetField;
+    private ComboBox<SizeSchedule.Kind> scheduleComboBox;
+    private TextField pointsField;
+    private TextField retriesField;
+    private TextField slicesField;
+    private ComboBox<String> baselineComboBox;
     
     private TextArea manualInputArea;
     
@@ -28,6 +43,7 @@ public class InputPane extends VBox {
 
     private Runnable onAnalyze;
     private Runnable onClear;
+    private Runnable onCompare;
 
     public InputPane() {
         super(20);
@@ -104,14 +120,44 @@ public class InputPane extends VBox {
         arrayTypeLabel.getStyleClass().add("section-label-header");
         
         arrayTypeComboBox = new ComboBox<>();
-        arrayTypeComboBox.getItems().addAll("Random", "Sorted", "Nearly Sorted");
-        arrayTypeComboBox.setValue("Random");
-        arrayTypeComboBox.setTooltip(new Tooltip("Select the characteristics of the generated array data"));
+        for (ArrayDistribution distribution : ArrayDistribution.values()) {
+            arrayTypeComboBox.getItems().add(distribution.getLabel());
+        }
+        arrayTypeComboBox.getItems().add(ArrayDistribution.BAND_LABEL);
+        arrayTypeComboBox.setValue(ArrayDistribution.RANDOM.getLabel());
+        arrayTypeComboBox.setTooltip(new Tooltip("Select the characteristics of the generated array data. "
+                + ArrayDistribution.BAND_LABEL + " sweeps Random (Full Range), then every other distribution at the "
+                + "same sizes, and shades the fastest to slowest on the time graph"));
         arrayTypeComboBox.getStyleClass().add("combo-box-dark");
         arrayTypeComboBox.setMaxWidth(Double.MAX_VALUE);
         
         VBox arrayTypeBox = new VBox(5, arrayTypeLabel, arrayTypeComboBox);
 
+        // String Type, for programs that read a line
+        Label stringTypeLabel = new Label("STRING TYPE");
+        stringTypeLabel.getStyleClass().add("section-label-header");
+
+        stringTypeComboBox = new ComboBox<>();
+        stringTypeComboBox.getItems().addAll(StringDistribution.values());
+        stringTypeComboBox.setValue(StringDistribution.WORDS);
+        stringTypeComboBox.setTooltip(new Tooltip("Text generated for programs that read a line: common words, random letters, or the periodic, Fibonacci, DNA-like, long common prefix and naive matching worst case inputs that stress string algorithms"));
+        stringTypeComboBox.getStyleClass().add("combo-box-dark");
+        stringTypeComboBox.setMaxWidth(Double.MAX_VALUE);
+        HBox.setHgrow(stringTypeComboBox, Priority.ALWAYS);
+
+        alphabetField = new TextField();
+        alphabetField.setTooltip(new Tooltip("Characters the text is drawn from; leave empty for the type's default"));
+        alphabetField.getStyleClass().add("text-field-dark");
+        alphabetField.setPrefWidth(110);
+        stringTypeComboBox.setOnAction(e -> {
+            StringDistribution distribution = stringTypeComboBox.getValue();
+            alphabetField.setPromptText(distribution.getDefaultAlphabet());
+            alphabetField.setDisable(distribution == StringDistribution.WORDS);
+        });
+        alphabetField.setDisable(true);
+
+        VBox stringTypeBox = new VBox(5, stringTypeLabel, new HBox(8, stringTypeComboBox, alphabetField));
+
         // Input Size
         Label sizeLabel = new Label("INPUT SIZE");
         sizeLabel.getStyleClass().add("section-label-header");
@@ -141,6 +187,65 @@ public class InputPane extends VBox {
         stepSizeField.setTooltip(new Tooltip("Increment amount between input sizes in the range"));
         stepSizeField.getStyleClass().add("text-field-dark");
 
+        Label parallelLanesLabel = new Label("Parallel:");
+        parallelLanesLabel.getStyleClass().add("text-field-label");
+        parallelLanesField = new TextField("1");
+        parallelLanesField.setTooltip(new Tooltip("Number of sizes benchmarked at once, each on its own CPU cores"));
+        parallelLanesField.getStyleClass().add("text-field-dark");
+
+        Label sweepBudgetLabel = new Label("Budget (s):");
+        sweepBudgetLabel.getStyleClass().add("text-field-label");
+        // Empty by default so Linear and Geometric sweeps stay in one JMH run; a budget needs a
+        // JVM per size to stop it in time.
+        sweepBudgetField = new TextField();
+        sweepBudgetField.setPromptText("none");
+        sweepBudgetField.setTooltip(new Tooltip("Time limit for the whole sweep; sizes that would not finish in time are extrapolated. Leave empty for no limit"));
+        sweepBudgetField.getStyleClass().add("text-field-dark");
+
+        Label scheduleLabel = new Label("Schedule:");
+        scheduleLabel.getStyleClass().add("text-field-label");
+        scheduleComboBox = new ComboBox<>();
+        scheduleComboBox.getItems().addAll(SizeSchedule.Kind.values());
+        scheduleComboBox.setValue(SizeSchedule.Kind.LINEAR);
+        scheduleComboBox.setTooltip(new Tooltip("Linear steps by Step Size; Geometric spaces Points sizes evenly on a log scale; Adaptive starts coarse and adds sizes where the curve bends, up to Points sizes"));
+        scheduleComboBox.getStyleClass().add("combo-box-dark");
+
+        Label pointsLabel = new Label("Points:");
+        pointsLabel.getStyleClass().add("text-field-label");
+        pointsField = new TextField("12");
+        pointsField.setTooltip(new Tooltip("Number of sizes to measure with the Geometric and Adaptive schedules"));
+        pointsField.getStyleClass().add("text-field-dark");
+        pointsField.setDisable(true);
+
+        Label retriesLabel = new Label("Retries:");
+        retriesLabel.getStyleClass().add("text-field-label");
+        retriesField = new TextField(String.valueOf(OutlierScreen.DEFAULT_RETRY_BUDGET));
+        retriesField.setTooltip(new Tooltip("Re-runs allowed per sweep for noisy or out-of-line sizes; those still suspect afterwards are flagged on the graphs"));
+        retriesField.getStyleClass().add("text-field-dark");
+
+        Label slicesLabel = new Label("Slices:");
+        slicesLabel.getStyleClass().add("text-field-label");
+        slicesField = new TextField("1");
+        slicesField.setTooltip(new Tooltip("Above 1, each size is measured in this many shorter runs, interleaved across sizes in random order so drift over the sweep cancels out and can be detected. Linear and Geometric schedules only"));
+        slicesField.getStyleClass().add("text-field-dark");
+
+        Label baselineLabel = new Label("Baseline:");
+        baselineLabel.getStyleClass().add("text-field-label");
+        baselineComboBox = new ComboBox<>();
+        baselineComboBox.getItems().add("None");
+        for (ReferenceBaseline baseline : ReferenceBaseline.values()) {
+            baselineComboBox.getItems().add(baseline.getLabel());
+        }
+        baselineComboBox.setValue("None");
+        baselineComboBox.setTooltip(new Tooltip("JDK implementation benchmarked on the same inputs after the sweep and drawn as a ghost line on the time graph, for programs that read a size and then that many integers; other programs are refused"));
+        baselineComboBox.getStyleClass().add("combo-box-dark");
+
+        scheduleComboBox.setOnAction(e -> {
+            boolean linear = scheduleComboBox.getValue() == SizeSchedule.Kind.LINEAR;
+            stepSizeField.setDisable(!linear);
+            pointsField.setDisable(linear);
+        });
+
         GridPane rangeInputGrid = new GridPane();
         rangeInputGrid.setHgap(10);
         rangeInputGrid.setVgap(10);
@@ -150,8 +255,26 @@ public class InputPane extends VBox {
         rangeInputGrid.add(maxSizeField, 3, 0);
         rangeInputGrid.add(stepSizeLabel, 0, 1);
         rangeInputGrid.add(stepSizeField, 1, 1);
-
-        rangeInputBox = new VBox(5, rangeInputGrid);
+        rangeInputGrid.add(parallelLanesLabel, 2, 1);
+        rangeInputGrid.add(parallelLanesField, 3, 1);
+        rangeInputGrid.add(sweepBudgetLabel, 0, 2);
+        rangeInputGrid.add(sweepBudgetField, 1, 2);
+        rangeInputGrid.add(scheduleLabel, 2, 2);
+        rangeInputGrid.add(scheduleComboBox, 3, 2);
+        rangeInputGrid.add(pointsLabel, 0, 3);
+        rangeInputGrid.add(pointsField, 1, 3);
+        rangeInputGrid.add(retriesLabel, 2, 3);
+        rangeInputGrid.add(retriesField, 3, 3);
+        rangeInputGrid.add(slicesLabel, 0, 4);
+        rangeInputGrid.add(slicesField, 1, 4);
+        rangeInputGrid.add(baselineLabel, 2, 4);
+        rangeInputGrid.add(baselineComboBox, 3, 4);
+
+        isolateSizesCheckBox = new CheckBox("Fork each size");
+        isolateSizesCheckBox.setTooltip(new Tooltip("Benchmark every input size in its own JVM fork (slower, fully isolated)"));
+        isolateSizesCheckBox.getStyleClass().add("text-field-label");
+
+        rangeInputBox = new VBox(10, rangeInputGrid, isolateSizesCheckBox);
         rangeInputBox.setVisible(false);
         rangeInputBox.setManaged(false);
 
@@ -195,12 +318,17 @@ public class InputPane extends VBox {
         clearButton.getStyleClass().add("clear-button");
         clearButton.setOnAction(e -> { if (onClear != null) onClear.run(); });
 
+        Button compareButton = new Button("⚖ Compare");
+        compareButton.setTooltip(new Tooltip("Benchmark this code against a second version on the same inputs"));
+        compareButton.getStyleClass().add("clear-button");
+        compareButton.setOnAction(e -> { if (onCompare != null) onCompare.run(); });
+
         Button userManualButton = new Button("❓ FAQ");
         userManualButton.setTooltip(new Tooltip("Open the FAQ"));
         userManualButton.getStyleClass().add("user-manual-button");
         userManualButton.setOnAction(e -> showUserManual());
 
-        HBox buttonBox = new HBox(15, analyzeButton, clearButton);
+        HBox buttonBox = new HBox(15, analyzeButton, clearButton, compareButton);
         buttonBox.setAlignment(Pos.CENTER_LEFT);
         
         Region spacer = new Region();
@@ -212,7 +340,7 @@ public class InputPane extends VBox {
         VBox contentBox = new VBox(15, 
                 inputModeLabel, inputTypeBox, 
                 dataSourceLabel, singleInputBox, 
-                arrayTypeBox, 
+                arrayTypeBox, stringTypeBox,
                 rangeInputBox, manualInputArea, inputSizeBox);
 
         getChildren().addAll(
@@ -275,6 +403,7 @@ public class InputPane extends VBox {
 
     public void setOnAnalyze(Runnable onAnalyze) { this.onAnalyze = onAnalyze; }
     public void setOnClear(Runnable onClear) { this.onClear = onClear; }
+    public void setOnCompare(Runnable onCompare) { this.onCompare = onCompare; }
 
     public String getCode() { return codeEditorPane.getCodeInputArea().getText(); }
     public void clearCode() { codeEditorPane.getCodeInputArea().clear(); }
@@ -287,9 +416,22 @@ public class InputPane extends VBox {
     public String getInputSizeText() { return inputSizeField.getText(); }
     public void clearInputSize() { inputSizeField.clear(); }
 
-    public String getArrayType() { return arrayTypeComboBox.getValue(); }
+    // Null when the best/average/worst band is selected.
+    public ArrayDistribution getArrayDistribution() { return ArrayDistribution.fromLabel(arrayTypeComboBox.getValue()); }
+    public boolean isDistributionBand() { return ArrayDistribution.BAND_LABEL.equals(arrayTypeComboBox.getValue()); }
+    public StringDistribution getStringDistribution() { return stringTypeComboBox.getValue(); }
+    public String getAlphabetText() { return alphabetField.getText(); }
 
     public String getMinSizeText() { return minSizeField.getText(); }
     public String getMaxSizeText() { return maxSizeField.getText(); }
     public String getStepSizeText() { return stepSizeField.getText(); }
+    public boolean isIsolateSizes() { return isolateSizesCheckBox.isSelected(); }
+    public String getParallelLanesText() { return parallelLanesField.getText(); }
+    public String getSweepBudgetText() { return sweepBudgetField.getText(); }
+    public SizeSchedule.Kind getSchedule() { return scheduleComboBox.getValue(); }
+    public String getPointsText() { return pointsField.getText(); }
+    public String getRetriesText() { return retriesField.getText(); }
+    public String getSlicesText() { return slicesField.getText(); }
+    // Null when no baseline is selected.
+    public ReferenceBaseline getBaseline() { return ReferenceBaseline.fromLabel(baselineComboBox.getValue()); }
 }
@@ -6,6 +6,7 @@ import javafx.scene.Node;
 import javafx.scene.control.*;
 import javafx.scene.layout.*;
 import main.core.AnalysisResult;
+import main.core.ComplexityFitter;
 import javafx.animation.Animation;
 import javafx.animation.ScaleTransition;
 import javafx.util.Duration;
@@ -28,6 +29,11 @@ public class ResultPane extends VBox {
     private double lastP50Latency = 0.0;
     private double lastP95Latency = 0.0;
     private double lastP99Latency = 0.0;
+    private double lastPrecision = Double.NaN;
+    private double lastPeakLiveHeap = Double.NaN;
+    private ComplexityFitter.Fit timeFit;
+    private ComplexityFitter.Fit allocationFit;
+    private ComplexityFitter.Fit liveHeapFit;
 
     private Runnable onShowInputData;
     private Runnable onShowOutputData;
@@ -138,6 +144,17 @@ public class ResultPane extends VBox {
         lastP50Latency = result.getP50Latency();
         lastP95Latency = result.getP95Latency();
         lastP99Latency = result.getP99Latency();
+        lastPrecision = result.getPrecision();
+        lastPeakLiveHeap = result.getPeakLiveHeap();
+        updateDisplays();
+    }
+
+    // Fits over a range sweep; any of them may be null when it could not be fitted.
+    public void displayComplexity(ComplexityFitter.Fit timeFit, ComplexityFitter.Fit allocationFit,
+                                  ComplexityFitter.Fit liveHeapFit) {
+        this.timeFit = timeFit;
+        this.allocationFit = allocationFit;
+        this.liveHeapFit = liveHeapFit;
         updateDisplays();
     }
 
@@ -150,6 +167,11 @@ public class ResultPane extends VBox {
         lastP50Latency = 0.0;
         lastP95Latency = 0.0;
         lastP99Latency = 0.0;
+        lastPrecision = Double.NaN;
+        lastPeakLiveHeap = Double.NaN;
+        timeFit = null;
+        allocationFit = null;
+        liveHeapFit = null;
         updateDisplays();
     }
 
@@ -180,7 +202,8 @@ public class ResultPane extends VBox {
         
         HBox timeBottomRow = new HBox();
         timeBottomRow.setAlignment(Pos.CENTER_LEFT);
-        Label timeSub = new Label("Average Execution Time");
+        Label timeSub = new Label(Double.isNaN(lastPrecision) ? "Average Execution Time"
+                : String.format("Average Execution Time (\u00b1%.1f%%, 95%% CI)", lastPrecision * 100));
         timeSub.getStyleClass().add("result-sub");
         Region timeSpacer = new Region();
         HBox.setHgrow(timeSpacer, Priority.ALWAYS);
@@ -216,7 +239,10 @@ public class ResultPane extends VBox {
         
         HBox memoryBottomRow = new HBox();
         memoryBottomRow.setAlignment(Pos.CENTER_LEFT);
-        Label memorySub = new Label("Average Memory Used");
+        // Allocation per call is not what the program holds; the live heap says that.
+        Label memorySub = new Label(Double.isNaN(lastPeakLiveHeap) ? "Allocated Per Call"
+                : String.format("Allocated Per Call · Peak Live %s %s", formatMemoryNumber(lastPeakLiveHeap),
+                        formatMemoryUnit()));
         memorySub.getStyleClass().add("result-sub");
         Region memorySpacer = new Region();
         HBox.setHgrow(memorySpacer, Priority.ALWAYS);
@@ -399,12 +425,46 @@ public class ResultPane extends VBox {
         grid.add(gcBox, 1, 1);
         grid.add(heapBox, 0, 2);
         grid.add(latencyBox, 1, 2);
+        if (timeFit != null || allocationFit != null || liveHeapFit != null) {
+            grid.add(createComplexityBox(), 0, 3, 2, 1);
+        }
 
         resultArea.getChildren().add(grid);
     }
 
 
 
+    private VBox createComplexityBox() {
+        VBox complexityBox = new VBox(10);
+        complexityBox.getStyleClass().add("result-box");
+
+        Label complexityHeader = new Label("EMPIRICAL COMPLEXITY");
+        complexityHeader.getStyleClass().add("result-header");
+
+        HBox fitsBox = new HBox(30);
+        fitsBox.setAlignment(Pos.BASELINE_LEFT);
+        fitsBox.getChildren().addAll(createFitColumn("Time", timeFit),
+                createFitColumn("Allocation", allocationFit),
+                createFitColumn("Live Heap", liveHeapFit));
+
+        Label complexitySub = new Label("Best fit over the measured sizes (AICc)");
+        complexitySub.getStyleClass().add("result-sub");
+
+        complexityBox.getChildren().addAll(complexityHeader, fitsBox, complexitySub);
+        return complexityBox;
+    }
+
+    private VBox createFitColumn(String name, ComplexityFitter.Fit fit) {
+        Label nameLabel = new Label(name);
+        nameLabel.getStyleClass().add("result-sub");
+        Label notation = new Label(fit == null ? "—" : fit.getNotation());
+        notation.getStyleClass().add("result-value");
+        notation.setStyle("-fx-font-size: 18px;");
+        Label rSquared = new Label(fit == null ? "not enough data" : String.format("R² %.3f", fit.getRSquared()));
+        rSquared.getStyleClass().add("result-unit");
+        return new VBox(2, nameLabel, notation, rSquared);
+    }
+
     private String formatTimeNumber(double timeInMs) {
         String unit = timeUnitComboBox.getValue();
         switch (unit) {
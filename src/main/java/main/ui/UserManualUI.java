@@ -46,7 +46,7 @@ public class UserManualUI {
                 ""),
             createFAQItem("What does Input Range do?",
                 "Input Range repeats the analysis from Min Size to Max Size using the Step Size. The result cards show the last completed size, while the graph buttons plot every measured size.\n\n" +
-                "The app does not automatically prove Big-O complexity. Use the graphs to visually compare how execution time, memory, throughput, GC, and latency change as input grows.",
+                "The app does not prove Big-O complexity. The execution time graph overlays the best-fitting class (O(1) up to O(2ⁿ), or a free power law) with its R² and lets you predict the time at a larger n; treat it as an estimate from the measured sizes. Use the other graphs to compare how memory, throughput, GC, and latency change as input grows.",
                 ""),
             createFAQItem("Which data source should I choose?",
                 "- Manual Input: You provide the exact stdin text. This is best for debugging, edge cases, and custom input formats.\n" +
@@ -74,7 +74,7 @@ public class UserManualUI {
                 "For reliable random analysis, write Scanner reads in a simple order: size first, then the generated values. For anything more specific, paste the exact input in Manual Input.",
                 ""),
             createFAQItem("Array input format",
-                "For a single generated array, Random Input writes the array size first, followed by the array values. The values may be Random, Sorted, or Nearly Sorted depending on the Array Type selector.",
+                "For a single generated array, Random Input writes the array size first, followed by the array values. The Array Type selector picks the values: random, sorted, reverse sorted, or shapes that are hard for sorts and hash maps, such as few unique values, a median-of-3 quicksort killer or colliding hash keys. With Input Range, Best / Average / Worst benchmarks all of them at each size and shades the time graph between the fastest and the slowest.",
                 "public static void main(String[] args) {\n" +
                 "    Scanner sc = new Scanner(System.in);\n" +
                 "    int size = sc.nextInt();\n" +
@@ -135,7 +135,7 @@ public class UserManualUI {
                 "    for (int i = 0; i < m; i++) second[i] = sc.nextInt();\n" +
                 "}"),
             createFAQItem("String input format",
-                "For code that only reads a line with nextLine(), Random Input generates a space-separated sentence of common words. For the explicit string generator path, it may generate one continuous lowercase string.\n\n" +
+                "For code that only reads a line with nextLine(), Random Input generates what the String Type selector asks for: by default a space-separated sentence of common words. The other types write one continuous string of the input size, such as random letters, a periodic aaa…ab, a Fibonacci word or DNA-like text, optionally over your own alphabet. Naive Matching Worst Case adds the pattern on a second line, for code that reads the text and then the pattern.\n\n" +
                 "If your code needs spaces, use nextLine(). If your code reads one token with next(), Manual Input is usually safer.",
                 "public static void main(String[] args) {\n" +
                 "    Scanner sc = new Scanner(System.in);\n" +
@@ -189,7 +189,7 @@ public class UserManualUI {
                 "Each benchmark invocation reloads the same generated or manual input into System.in before calling your main method.",
                 ""),
             createFAQItem("Are there size, timeout, and memory limits?",
-                "Single Random Input and Input Range both reject sizes above 100,000. Matrix generation in the main random path is capped internally at 100 by 100.\n\n" +
+                "Single Random Input and Input Range both reject sizes above 100,000,000. Generated input is streamed to a temp file rather than built in memory, so large sizes cost disk space, not analyzer heap. Matrix generation in the main random path is capped internally at 100 by 100.\n\n" +
                 "The initial verification run has a 10-second timeout and uses a JVM heap limit of 512MB (-Xmx512m). JMH benchmarking can still take longer because it runs warmup and measurement iterations.",
                 ""),
             createFAQItem("Why are graphs only available for Input Range?",
@@ -0,0 +1,82 @@
+package org.example;
+
+import junit.framework.TestCase;
+import main.core.ABComparison;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+public class ABComparisonTest extends TestCase {
+
+    private final List<Integer> sizes = Arrays.asList(1000, 10000, 100000);
+
+    // Version B takes `speedup` times less time than A and allocates the same; every run is
+    // off by up to 5% noise, and both versions of a round share a slowdown that grows with
+    // the round.
+    private ABComparison.Report compare(double speedup, List<int[]> order) throws Exception {
+        Random noise = new Random(11);
+        return new ABComparison(6, new Random(5)).run(sizes, (version, index, round) -> {
+            order.add(new int[]{version, index, round});
+            int size = sizes.get(index);
+            double time = size * 0.001 * (1 + 0.2 * round) * (1 + 0.05 * (noise.nextDouble() - 0.5))
+                    / (version == ABComparison.VERSION_B ? speedup : 1);
+            return TestResults.timed(size, time, size * 4.0, time / 10);
+        });
+    }
+
+    public void testFasterVersionIsSignificant() throws Exception {
+        List<int[]> order = new ArrayList<>();
+        ABComparison.Report report = compare(2.0, order);
+        assertEquals(6 * 3 * 2, order.size());
+        for (int i = 0; i < order.size(); i += 2) {
+            // A and B of the same size and round run back to back.
+            assertEquals(order.get(i)[1], order.get(i + 1)[1]);
+            assertEquals(order.get(i)[2], order.get(i + 1)[2]);
+            assertEquals(1, order.get(i)[0] + order.get(i + 1)[0]);
+        }
+        for (ABComparison.Point point : report.getPoints()) {
+            ABComparison.Ratio time = point.getRatio(ABComparison.Metric.TIME);
+            assertEquals(2.0, time.getRatio(), 0.1);
+            assertTrue(time.getLower() <= time.getRatio() && time.getRatio() <= time.getUpper());
+            assertEquals(ABComparison.Verdict.BETTER, time.getVerdict());
+            assertEquals(ABComparison.Verdict.BETTER, point.getRatio(ABComparison.Metric.P99).getVerdict());
+            assertEquals(ABComparison.Verdict.NO_DIFFERENCE,
+                    point.getRatio(ABComparison.Metric.ALLOCATION).getVerdict());
+        }
+    }
+
+    public void testSameVersionIsNotSignificant() throws Exception {
+        ABComparison.Report report = compare(1.0, new ArrayList<>());
+        for (ABComparison.Point point : report.getPoints()) {
+            ABComparison.Ratio time = point.getRatio(ABComparison.Metric.TIME);
+            assertEquals(ABComparison.Verdict.NO_DIFFERENCE, time.getVerdict());
+            assertEquals(1.0, time.getRatio(), 0.05);
+        }
+        assertTrue(report.isOutputsMatch());
+    }
+
+    // A and B drawn from the same distribution: over many seeds, about 5% of the verdicts may
+    // call a difference, at the fewest rounds and at the default.
+    public void testFalsePositiveRateIsNominal() throws Exception {
+        for (int rounds : new int[]{ABComparison.MIN_ROUNDS, ABComparison.DEFAULT_ROUNDS}) {
+            int verdicts = 0;
+            int significant = 0;
+            for (int seed = 0; seed < 300; seed++) {
+                Random noise = new Random(seed);
+                ABComparison.Report report = new ABComparison(rounds, new Random(seed)).run(sizes,
+                        (version, index, round) -> TestResults.timed(sizes.get(index),
+                                sizes.get(index) * 0.001 * (1 + 0.03 * noise.nextGaussian())));
+                for (ABComparison.Point point : report.getPoints()) {
+                    verdicts++;
+                    if (point.getRatio(ABComparison.Metric.TIME).getVerdict() != ABComparison.Verdict.NO_DIFFERENCE) {
+                        significant++;
+                    }
+                }
+            }
+            double rate = (double) significant / verdicts;
+            assertTrue(rounds + " rounds: " + rate, rate > 0.02 && rate < 0.08);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package org.example;
+
+import junit.framework.TestCase;
+import main.core.AnalysisResult;
+import main.core.ArrayDistribution;
+import main.core.DistributionBand;
+import main.core.InputGenerator;
+import main.core.ProgramInput;
+
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+
+public class ArrayDistributionTest extends TestCase {
+
+    private static int[] values(ArrayDistribution distribution, int size) throws Exception {
+        ProgramInput input = new InputGenerator().generateInputForType("array:" + distribution.getKey(), size);
+        try {
+            String[] lines = Files.readString(input.getFile()).split("\n");
+            assertEquals(String.valueOf(size), lines[0]);
+            return Arrays.stream(lines[1].trim().split(" ")).mapToInt(Integer::parseInt).toArray();
+        } finally {
+            input.discard();
+        }
+    }
+
+    private static boolean isPermutation(int[] values) {
+        int[] sorted = values.clone();
+        Arrays.sort(sorted);
+        for (int i = 0; i < sorted.length; i++) {
+            if (sorted[i] != i) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public void testDistributionsHaveTheirShape() throws Exception {
+        for (ArrayDistribution distribution : ArrayDistribution.values()) {
+            assertEquals(distribution.getLabel(), 1000, values(distribution, 1000).length);
+        }
+        assertEquals("[4, 3, 2, 1, 0]", Arrays.toString(values(ArrayDistribution.REVERSE_SORTED, 5)));
+        assertEquals("[0, 1, 2, 2, 1, 0]", Arrays.toString(values(ArrayDistribution.ORGAN_PIPE, 6)));
+        assertEquals("[1, 1, 1]", Arrays.toString(values(ArrayDistribution.ALL_EQUAL, 3)));
+        assertEquals("[0, 1, 2, 0, 1, 2, 0, 1, 2]", Arrays.toString(values(ArrayDistribution.SAWTOOTH, 9)));
+        assertTrue(Arrays.stream(values(ArrayDistribution.FEW_UNIQUE, 1000)).distinct().count() <= 8);
+
+        // Musser's sequence for n = 8 is 1 5 3 7 2 4 6 8.
+        assertEquals("[0, 4, 2, 6, 1, 3, 5, 7]", Arrays.toString(values(ArrayDistribution.MEDIAN_OF_3_KILLER, 8)));
+        for (int size = 1; size <= 40; size++) {
+            assertTrue("n = " + size, isPermutation(values(ArrayDistribution.MEDIAN_OF_3_KILLER, size)));
+        }
+
+        // HashMap.hash xors the top half in; every key must land in bucket 0.
+        for (int key : values(ArrayDistribution.HASH_COLLISIONS, 1000)) {
+            assertEquals(0, (key ^ key >>> 16) & 0xFFFF);
+        }
+        assertEquals(1000, Arrays.stream(values(ArrayDistribution.HASH_COLLISIONS, 1000)).distinct().count());
+
+        int[] zipfian = values(ArrayDistribution.ZIPFIAN, 10_000);
+        int[] counts = new int[10_000];
+        for (int value : zipfian) {
+            assertTrue(value >= 0 && value < 10_000);
+            counts[value]++;
+        }
+        assertTrue(counts[0] > counts[1] && counts[1] > counts[9] && counts[9] > counts[999]);
+
+        int[] fullRange = values(ArrayDistribution.RANDOM_FULL_RANGE, 1000);
+        assertTrue(Arrays.stream(fullRange).anyMatch(value -> value < 0)
+                && Arrays.stream(fullRange).anyMatch(value -> value > 1_000_000));
+    }
+
+    public void testBandKeepsFastestAndSlowestPerSize() {
+        DistributionBand band = new DistributionBand();
+        band.addAll(ArrayDistribution.AVERAGE, List.of(
+                new AnalysisResult(2.0, 0, 100, 0, 0, 0, 0, 0, 0),
+                AnalysisResult.extrapolated(200, 4.0, 0)));
+        band.add(ArrayDistribution.SORTED, 100, 1.0);
+        band.add(ArrayDistribution.MEDIAN_OF_3_KILLER, 100, 9.0);
+        band.add(ArrayDistribution.SORTED, 200, 1.5);
+
+        // 200 only has one distribution measured; the extrapolated average does not count.
+        assertEquals(List.of(100), band.getSizes());
+        assertEquals(ArrayDistribution.SORTED, band.getBest(100).getDistribution());
+        assertEquals(ArrayDistribution.MEDIAN_OF_3_KILLER, band.getWorst(100).getDistribution());
+        assertEquals(9.0, band.getWorst(100).getTime());
+        assertTrue(Double.isNaN(band.getTime(200, ArrayDistribution.AVERAGE)));
+        assertFalse(band.isEmpty());
+        assertTrue(ArrayDistribution.bandCases().contains(ArrayDistribution.AVERAGE));
+        assertFalse(ArrayDistribution.bandCases().contains(ArrayDistribution.RANDOM));
+    }
+
+    // Only int arrays take the distribution; a band over anything else would be noise.
+    public void testOnlyArraySpecsTakeADistribution() {
+        InputGenerator generator = new InputGenerator();
+        String sort = "import java.util.Scanner; public class S { public static void main(String[] a) { "
+                + "Scanner sc = new Scanner(System.in); int n = sc.nextInt(); int[] x = new int[n]; "
+                + "for (int i = 0; i < n; i++) x[i] = sc.nextInt(); } }";
+        String words = "import java.util.Scanner; public class W { public static void main(String[] a) { "
+                + "String line = new Scanner(System.in).nextLine(); } }";
+        String matrix = "import java.util.Scanner; public class M { public static void main(String[] a) { "
+                + "Scanner sc = new Scanner(System.in); int[][] matrix = new int[sc.nextInt()][sc.nextInt()]; } }";
+        assertTrue(InputGenerator.isArraySpec(generator.specFor(sort, "sorted")));
+        assertFalse(InputGenerator.isArraySpec(generator.specFor(words, "sorted")));
+        assertFalse(InputGenerator.isArraySpec(generator.specFor(matrix, "sorted")));
+        assertFalse(InputGenerator.isArraySpec("rows:0:2:sorted"));
+        assertTrue(InputGenerator.isArraySpec("array:sorted"));
+    }
+}
@@ -0,0 +1,77 @@
+package org.example;
+
+import junit.framework.TestCase;
+import main.core.CodeCompiler;
+import main.core.CompilationCache;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class CodeCompilerTest extends TestCase {
+
+    public void testCompilesToClassBytesInMemory() throws Exception {
+        String code =
+            "public class Hello {\n" +
+            "    static class Inner {}\n" +
+            "    public static void main(String[] args) {\n" +
+            "        System.out.println(new Inner());\n" +
+            "    }\n" +
+            "}\n";
+
+        CodeCompiler compiler = new CodeCompiler();
+        CodeCompiler.CompilationResult result = compiler.compile("Hello", code);
+
+        assertTrue(result.isSuccess());
+        assertTrue(result.getClassBytes().containsKey("Hello"));
+        assertTrue(result.getClassBytes().containsKey("Hello$Inner"));
+
+        File dir = compiler.writeClasses(result);
+        try {
+            assertTrue(new File(dir, "Hello.class").isFile());
+            assertFalse(new File(dir, "Hello.java").exists());
+        } finally {
+            compiler.deleteDirectory(dir);
+        }
+    }
+
+    public void testReportsStructuredDiagnostics() throws Exception {
+        String code =
+            "public class Broken {\n" +
+            "    public static void main(String[] args) {\n" +
+            "        int x = \"text\";\n" +
+            "    }\n" +
+            "}\n";
+
+        CodeCompiler.CompilationResult result = new CodeCompiler().compile("Broken", code);
+
+        assertFalse(result.isSuccess());
+        assertTrue(result.getClassBytes().isEmpty());
+        assertFalse(result.getDiagnostics().isEmpty());
+        CodeCompiler.CompilationDiagnostic diagnostic = result.getDiagnostics().get(0);
+        assertEquals("error", diagnostic.getKind());
+        assertEquals(3, diagnostic.getLine());
+        assertTrue(diagnostic.getColumn() > 0);
+    }
+
+    public void testCacheReusesClassDirectoryForSameSource() throws Exception {
+        String code = "public class Cached { public static void main(String[] a) { System.out.println(1); } }";
+        CodeCompiler compiler = new CodeCompiler();
+        Path cacheDir = Files.createTempDirectory("compile_cache_test");
+        CompilationCache cache = new CompilationCache(compiler, cacheDir, 1024 * 1024, 1024 * 1024);
+        try {
+            File first;
+            try (CompilationCache.Lease lease = cache.acquire("Cached", code)) {
+                first = lease.getClassDirectory();
+                assertTrue(new File(first, "Cached.class").isFile());
+            }
+            try (CompilationCache.Lease lease = cache.acquire("Cached", code + "  \r\n")) {
+                assertEquals(first, lease.getClassDirectory());
+            }
+            assertEquals(1, cache.getMisses());
+            assertEquals(1, cache.getHits());
+        } finally {
+            compiler.deleteDirectory(cacheDir.toFile());
+        }
+    }
+}
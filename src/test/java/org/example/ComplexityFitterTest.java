@@ -0,0 +1,83 @@
+package org.example;
+
+import junit.framework.TestCase;
+import main.core.ComplexityFitter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.DoubleUnaryOperator;
+
+public class ComplexityFitterTest extends TestCase {
+
+    private final ComplexityFitter fitter = new ComplexityFitter();
+    private final List<Integer> sizes = new ArrayList<>();
+    private final List<Double> times = new ArrayList<>();
+
+    // Timings for 1000..20000 with 2% multiplicative noise.
+    private void sweep(DoubleUnaryOperator cost) {
+        Random random = new Random(42);
+        for (int n = 1000; n <= 20000; n += 1000) {
+            sizes.add(n);
+            times.add(cost.applyAsDouble(n) * (1 + 0.02 * random.nextGaussian()));
+        }
+    }
+
+    public void testPicksQuadratic() {
+        sweep(n -> 0.05 + 2e-8 * n * n);
+        ComplexityFitter.Fit fit = fitter.fit(sizes, times);
+        assertEquals(ComplexityFitter.Model.QUADRATIC, fit.getModel());
+        assertTrue(fit.getRSquared() > 0.99);
+        assertEquals(0.05 + 2e-8 * 40000.0 * 40000.0, fit.predict(40000), 0.1 * fit.predict(40000));
+    }
+
+    public void testPicksLinearithmicOverPowerLaw() {
+        sweep(n -> 1e-5 * n * Math.log(n));
+        assertEquals(ComplexityFitter.Model.LINEARITHMIC, fitter.fit(sizes, times).getModel());
+    }
+
+    public void testPicksConstant() {
+        sweep(n -> 0.3);
+        assertEquals(ComplexityFitter.Model.CONSTANT, fitter.fit(sizes, times).getModel());
+    }
+
+    public void testFreePowerLawRecoversExponent() {
+        sweep(n -> 1e-4 * Math.pow(n, 1.5));
+        ComplexityFitter.Fit fit = fitter.fit(sizes, times);
+        assertEquals(ComplexityFitter.Model.POWER_LAW, fit.getModel());
+        assertEquals(1.5, fit.getExponent(), 0.05);
+    }
+
+    public void testExponentialStaysFinite() {
+        for (int n = 20; n <= 30; n++) {
+            sizes.add(n);
+            times.add(1e-6 * Math.pow(2, n));
+        }
+        ComplexityFitter.Fit fit = fitter.fit(sizes, times);
+        assertEquals(ComplexityFitter.Model.EXPONENTIAL, fit.getModel());
+        assertEquals(1e-6 * Math.pow(2, 32), fit.predict(32), 1e-3 * fit.predict(32));
+    }
+
+    // Four sizes leave the three-parameter power law out, so it cannot win just by passing
+    // through the noise.
+    public void testShortLinearSweepStaysLinear() {
+        for (int seed = 0; seed < 50; seed++) {
+            Random random = new Random(seed);
+            sizes.clear();
+            times.clear();
+            for (int n = 1000; n <= 64000; n *= 4) {
+                sizes.add(n);
+                times.add(1e-3 * n * (1 + 0.03 * random.nextGaussian()));
+            }
+            assertEquals("seed " + seed, ComplexityFitter.Model.LINEAR, fitter.fit(sizes, times).getModel());
+        }
+    }
+
+    public void testNeedsFourPoints() {
+        for (int n = 10; n <= 30; n += 10) {
+            sizes.add(n);
+            times.add(n / 10.0);
+        }
+        assertNull(fitter.fit(sizes, times));
+    }
+}
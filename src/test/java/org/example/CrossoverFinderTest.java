@@ -0,0 +1,34 @@
+package org.example;
+
+import junit.framework.TestCase;
+import main.core.ABComparison;
+import main.core.CrossoverFinder;
+
+import java.util.Random;
+
+public class CrossoverFinderTest extends TestCase {
+
+    // A is quadratic and B linear, with 1% noise; they cross at n = 1000.
+    public void testQuadraticAndLinearCrossAtTheirIntersection() throws Exception {
+        Random noise = new Random(9);
+        CrossoverFinder.Result result = new CrossoverFinder().find(10, 100000, (version, size) -> {
+            double time = version == ABComparison.VERSION_A ? 1e-6 * size * size : 1e-3 * size;
+            return TestResults.timed(size, time * (1 + 0.01 * noise.nextGaussian()));
+        });
+        assertTrue(result.isFound());
+        assertEquals(1000, result.getCrossover(), 50);
+        assertTrue(result.getLower() <= result.getCrossover() && result.getCrossover() <= result.getUpper());
+        assertTrue(result.getUpper() / result.getLower() < 1.5);
+        assertEquals(ABComparison.VERSION_A, result.getFasterBelow());
+        assertFalse(result.isMultipleCrossings());
+        assertTrue(result.getSamples().size() > CrossoverFinder.BRACKET_POINTS);
+    }
+
+    public void testNoCrossoverInRange() throws Exception {
+        CrossoverFinder.Result result = new CrossoverFinder().find(10, 100000, (version, size) ->
+                TestResults.timed(size, (version == ABComparison.VERSION_A ? 2e-3 : 1e-3) * size));
+        assertFalse(result.isFound());
+        assertEquals(ABComparison.VERSION_B, result.getFasterBelow());
+        assertEquals(CrossoverFinder.BRACKET_POINTS, result.getSamples().size());
+    }
+}
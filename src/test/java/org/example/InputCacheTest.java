@@ -0,0 +1,138 @@
+package org.example;
+
+import junit.framework.TestCase;
+import main.core.InputCache;
+import main.core.InputGenerator;
+import main.core.MappedInputStream;
+import main.core.ProgramInput;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+public class InputCacheTest extends TestCase {
+    private Path directory;
+
+    @Override
+    protected void setUp() throws Exception {
+        directory = Files.createTempDirectory("input_cache_test");
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted((a, b) -> b.compareTo(a)).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    private static InputGenerator generator(InputCache cache, long seed) {
+        InputGenerator generator = new InputGenerator(seed);
+        generator.setCache(cache);
+        return generator;
+    }
+
+    private long entries() throws Exception {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.toString().endsWith(".in")).count();
+        }
+    }
+
+    public void testSameSpecSizeAndSeedIsGeneratedOnce() throws Exception {
+        InputCache cache = new InputCache(directory, InputCache.DEFAULT_MAX_BYTES);
+        InputGenerator generator = generator(cache, InputGenerator.DEFAULT_SEED);
+
+        ProgramInput first = generator.generateInputForType("array:random", 1000);
+        String firstText = Files.readString(first.getFile());
+        first.discard();
+        ProgramInput second = generator(cache, InputGenerator.DEFAULT_SEED).generateInputForType("array:random", 1000);
+        try {
+            assertEquals(firstText, Files.readString(second.getFile()));
+            assertEquals(1, cache.getMisses());
+            assertEquals(1, cache.getHits());
+            assertEquals(1, entries());
+        } finally {
+            second.discard();
+        }
+
+        ProgramInput otherSeed = generator(cache, 7).generateInputForType("array:random", 1000);
+        try {
+            assertFalse(firstText.equals(Files.readString(otherSeed.getFile())));
+            assertEquals(2, entries());
+        } finally {
+            otherSeed.discard();
+        }
+    }
+
+    // Each size is about 3.9 KB; a 9 KB cap keeps the two most recently used.
+    public void testEvictsLeastRecentlyUsedButNotInputsInUse() throws Exception {
+        InputCache cache = new InputCache(directory, 9_000);
+        InputGenerator generator = generator(cache, InputGenerator.DEFAULT_SEED);
+
+        ProgramInput held = generator.generateInputForType("array:sorted", 1000);
+        String heldText = Files.readString(held.getFile());
+        generator.generateInputForType("array:sorted", 1001).discard();
+        Thread.sleep(20);
+        generator.generateInputForType("array:sorted", 1000).discard();
+        Thread.sleep(20);
+        generator.generateInputForType("array:sorted", 1002).discard();
+
+        assertEquals(2, entries());
+        assertEquals(heldText, Files.readString(held.getFile()));
+        held.discard();
+
+        int misses = cache.getMisses();
+        generator.generateInputForType("array:sorted", 1000).discard();
+        assertEquals(misses, cache.getMisses());
+    }
+
+    public void testConcurrentAnalysesShareOneEntry() throws Exception {
+        InputCache cache = new InputCache(directory, InputCache.DEFAULT_MAX_BYTES);
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<String>> texts = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                texts.add(pool.submit(() -> {
+                    ProgramInput input = generator(cache, InputGenerator.DEFAULT_SEED)
+                            .generateInputForType("string", 5000);
+                    try {
+                        return Files.readString(input.getFile());
+                    } finally {
+                        input.discard();
+                    }
+                }));
+            }
+            for (Future<String> text : texts) {
+                assertEquals(texts.get(0).get(), text.get());
+            }
+        } finally {
+            pool.shutdown();
+        }
+        assertEquals(1, entries());
+        assertEquals(8, cache.getHits() + cache.getMisses());
+    }
+
+    public void testMappedStreamRewindsToTheMark() throws Exception {
+        Path file = directory.resolve("mapped.txt");
+        Files.writeString(file, "3\n1 2 3\n");
+        MappedInputStream in = MappedInputStream.open(file);
+        assertEquals('3', in.read());
+        byte[] rest = new byte[16];
+        assertEquals(7, in.read(rest, 0, rest.length));
+        assertEquals(-1, in.read());
+        in.reset();
+        assertEquals(8, in.available());
+        assertEquals(2, in.skip(2));
+        in.mark(0);
+        assertEquals('1', in.read());
+        in.reset();
+        assertEquals('1', in.read());
+        assertEquals('3', in.duplicate().read());
+        assertEquals(-1, MappedInputStream.empty().read());
+    }
+}
@@ -0,0 +1,102 @@
+package org.example;
+
+import junit.framework.TestCase;
+import main.core.InputGenerator;
+import main.core.InputWriter;
+import main.core.ProgramInput;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.channels.Channels;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+public class InputGeneratorTest extends TestCase {
+
+    // A buffer smaller than one token makes every append cross a drain.
+    public void testWriterFormatsLikeStringBuilder() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        InputWriter out = new InputWriter(Channels.newChannel(bytes), 3);
+        out.append(0).append(' ').append(-42).append(" ").append(Long.MIN_VALUE).append('\n')
+                .append(1234567890123L).append(" ").append(12.5).append("\n");
+        out.close();
+
+        String expected = new StringBuilder().append(0).append(' ').append(-42).append(" ").append(Long.MIN_VALUE)
+                .append('\n').append(1234567890123L).append(" ").append(12.5).append("\n").toString();
+        assertEquals(expected, bytes.toString());
+        assertEquals(expected.length(), out.getByteCount());
+        assertEquals('\n', out.getLastByte());
+    }
+
+    public void testGeneratedArraysStreamToAFile() throws Exception {
+        InputGenerator generator = new InputGenerator();
+        ProgramInput sorted = generator.generateInputForType("array:sorted", 5);
+        ProgramInput nearlySorted = generator.generateInputForType("array:nearly-sorted", 1000);
+        try {
+            assertEquals("5\n0 1 2 3 4 \n", Files.readString(sorted.getFile()));
+            assertEquals(Files.size(sorted.getFile()), sorted.getLength());
+            assertTrue(sorted.endsWithNewline());
+
+            // Nearly sorted is a permutation of 0..n-1 with values only slightly out of place.
+            String[] lines = Files.readString(nearlySorted.getFile()).split("\n");
+            assertEquals("1000", lines[0]);
+            int[] values = Arrays.stream(lines[1].trim().split(" ")).mapToInt(Integer::parseInt).toArray();
+            int displaced = 0;
+            for (int i = 0; i < values.length; i++) {
+                assertTrue(Math.abs(values[i] - i) < 20);
+                if (values[i] != i) {
+                    displaced++;
+                }
+            }
+            assertTrue(displaced > 0 && displaced < values.length / 2);
+            Arrays.sort(values);
+            for (int i = 0; i < values.length; i++) {
+                assertEquals(i, values[i]);
+            }
+        } finally {
+            sorted.discard();
+            nearlySorted.discard();
+        }
+        assertFalse(Files.exists(sorted.getFile()));
+    }
+
+    // Several chunks, formatted in parallel, still come out the same on every run.
+    public void testChunkedInputsAreIdenticalAcrossRuns() throws Exception {
+        for (String spec : new String[]{"array:nearly-sorted", "matrix", "string"}) {
+            int size = spec.equals("matrix") ? 700 : 300_000;
+            ProgramInput first = new InputGenerator().generateInputForType(spec, size);
+            ProgramInput second = new InputGenerator().generateInputForType(spec, size);
+            ProgramInput otherSeed = new InputGenerator(7).generateInputForType(spec, size);
+            try {
+                assertEquals(-1, Files.mismatch(first.getFile(), second.getFile()));
+                assertTrue(Files.mismatch(first.getFile(), otherSeed.getFile()) >= 0);
+                assertEquals(Files.size(first.getFile()), first.getLength());
+                assertTrue(first.endsWithNewline());
+            } finally {
+                first.discard();
+                second.discard();
+                otherSeed.discard();
+            }
+        }
+
+        ProgramInput nearlySorted = new InputGenerator().generateInputForType("array:nearly-sorted", 300_000);
+        try {
+            String[] lines = Files.readString(nearlySorted.getFile()).split("\n");
+            int[] values = Arrays.stream(lines[1].trim().split(" ")).mapToInt(Integer::parseInt).toArray();
+            Arrays.sort(values);
+            for (int i = 0; i < values.length; i++) {
+                assertEquals(i, values[i]);
+            }
+        } finally {
+            nearlySorted.discard();
+        }
+    }
+
+    public void testMatrixSideIsCapped() {
+        try {
+            new InputGenerator().generateInputForType("matrix", InputGenerator.MAX_MATRIX_SIZE + 1);
+            fail();
+        } catch (IllegalArgumentException expected) {
+            // Refused before a single cell is written.
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package org.example;
+
+import junit.framework.TestCase;
+import main.core.AnalysisResult;
+import main.core.InterleavedScheduler;
+import main.core.SizeSchedule;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+public class InterleavedSchedulerTest extends TestCase {
+
+    private final List<Integer> sizes = SizeSchedule.geometric(100, 10000, 5);
+
+    // Each slice takes about 5 ms; its time is linear in the size, times (1 + growth per
+    // second of sweep so far).
+    private InterleavedScheduler.Report sweep(double growthPerSecond, List<Integer> order) throws Exception {
+        long start = System.nanoTime();
+        return new InterleavedScheduler(4, new Random(3)).run(sizes, (index, slice) -> {
+            order.add(index);
+            Thread.sleep(5);
+            double seconds = (System.nanoTime() - start) / 1e9;
+            double time = sizes.get(index) * 0.001 * (1 + growthPerSecond * seconds);
+            return TestResults.timed(sizes.get(index), time);
+        }, null);
+    }
+
+    public void testEveryRoundRunsEverySizeOnce() throws Exception {
+        List<Integer> order = new ArrayList<>();
+        InterleavedScheduler.Report report = sweep(0, order);
+        assertEquals(20, report.getSlices());
+        for (int round = 0; round < 4; round++) {
+            Set<Integer> seen = new HashSet<>(order.subList(round * 5, round * 5 + 5));
+            assertEquals(5, seen.size());
+        }
+        assertFalse(order.subList(0, 5).equals(order.subList(5, 10)) && order.subList(5, 10).equals(order.subList(10, 15)));
+        assertFalse(report.isDriftDetected());
+    }
+
+    public void testDriftIsDetectedAndDoesNotFakeGrowth() throws Exception {
+        InterleavedScheduler.Report report = sweep(5.0, new ArrayList<>());
+        assertTrue(report.isDriftDetected());
+        assertTrue(report.getTotalDrift() > 0.2);
+        // Time per element stays flat: drift lands on every size alike.
+        List<AnalysisResult> results = report.getResults();
+        double first = results.get(0).getExecutionTime() / sizes.get(0);
+        for (AnalysisResult result : results) {
+            assertEquals(first, result.getExecutionTime() / result.getInputSize(), 0.1 * first);
+        }
+    }
+}
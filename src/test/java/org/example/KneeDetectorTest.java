@@ -0,0 +1,52 @@
+package org.example;
+
+import junit.framework.TestCase;
+import main.core.CacheTopology;
+import main.core.KneeDetector;
+import main.core.SizeSchedule;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+public class KneeDetectorTest extends TestCase {
+
+    private final List<Integer> sizes = new ArrayList<>();
+    private final List<Double> times = new ArrayList<>();
+    private final List<Double> liveHeaps = new ArrayList<>();
+
+    // An int array swept over 24 log-spaced sizes with 2% noise; the cost per element goes up
+    // by `l1Step` past 48 KiB and by `l2Step` past 2 MiB.
+    private void sweep(double l1Step, double l2Step) {
+        Random random = new Random(7);
+        for (int n : SizeSchedule.geometric(1000, 4000000, 24)) {
+            double bytes = 4.0 * n;
+            double perElement = 1e-6 * (bytes > 48 * 1024 ? l1Step : 1) * (bytes > 2048 * 1024 ? l2Step : 1);
+            sizes.add(n);
+            times.add(n * perElement * (1 + 0.02 * random.nextGaussian()));
+            liveHeaps.add(bytes);
+        }
+    }
+
+    private final KneeDetector detector = new KneeDetector(Arrays.asList(
+            new CacheTopology.Level("L1d", 48 * 1024),
+            new CacheTopology.Level("L2", 2048 * 1024),
+            new CacheTopology.Level("L3", 105 * 1024 * 1024)));
+
+    public void testFindsCacheSteps() {
+        sweep(1.5, 2.5);
+        List<KneeDetector.Knee> knees = detector.detect(sizes, times, liveHeaps);
+        assertEquals(2, knees.size());
+        assertEquals(1.5, knees.get(0).getChange(), 0.15);
+        assertEquals(2.5, knees.get(1).getChange(), 0.25);
+        assertEquals("L1d", knees.get(0).getCache().getName());
+        assertEquals("L2", knees.get(1).getCache().getName());
+        assertTrue(knees.get(1).getLowerSize() <= 512 * 1024 && knees.get(1).getUpperSize() > 512 * 1024);
+    }
+
+    public void testSmoothCurveHasNoKnees() {
+        sweep(1, 1);
+        assertTrue(detector.detect(sizes, times, liveHeaps).isEmpty());
+    }
+}
@@ -0,0 +1,52 @@
+package org.example;
+
+import junit.framework.TestCase;
+import main.core.AnalysisResult;
+import main.core.OutlierScreen;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class OutlierScreenTest extends TestCase {
+
+    // A linear sweep of 1000..10000 with one size slowed down by `factor`.
+    private static List<AnalysisResult> sweep(int spikedIndex, double factor) {
+        List<AnalysisResult> results = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            int size = (i + 1) * 1000;
+            results.add(TestResults.timed(size, size * 0.001 * (i == spikedIndex ? factor : 1)));
+        }
+        return results;
+    }
+
+    public void testTransientSpikeIsReplaced() throws Exception {
+        List<AnalysisResult> results = sweep(4, 3.0);
+        int[] calls = {0};
+        List<AnalysisResult> screened = new OutlierScreen(4).screen(results, index -> {
+            calls[0]++;
+            return TestResults.timed(results.get(index).getInputSize(), results.get(index).getInputSize() * 0.001);
+        });
+        assertEquals(1, calls[0]);
+        assertEquals(5.0, screened.get(4).getExecutionTime(), 1e-9);
+        assertEquals(1, screened.get(4).getRetries());
+        assertFalse(screened.get(4).isOutlier());
+        assertEquals(0, screened.get(3).getRetries());
+    }
+
+    public void testReproducibleJumpIsConfirmed() throws Exception {
+        List<AnalysisResult> results = sweep(4, 3.0);
+        List<AnalysisResult> screened = new OutlierScreen(4).screen(results, results::get);
+        assertEquals(1, screened.get(4).getRetries());
+        assertFalse(screened.get(4).isOutlier());
+    }
+
+    public void testWithoutRetriesSuspectsAreFlagged() throws Exception {
+        List<AnalysisResult> screened = new OutlierScreen(0).screen(sweep(4, 3.0), index -> {
+            throw new AssertionError("no retries allowed");
+        });
+        assertTrue(screened.get(4).isOutlier());
+        for (int i = 0; i < screened.size(); i++) {
+            assertEquals(i == 4, screened.get(i).isOutlier());
+        }
+    }
+}
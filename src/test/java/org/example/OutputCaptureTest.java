@@ -0,0 +1,68 @@
+package org.example;
+
+import junit.framework.TestCase;
+import main.core.OutputCapture;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+
+public class OutputCaptureTest extends TestCase {
+
+    private static String lines(int from, int to) {
+        StringBuilder text = new StringBuilder();
+        for (int i = from; i < to; i++) {
+            text.append("line ").append(i).append('\n');
+        }
+        return text.toString();
+    }
+
+    public void testKeepsHeadAndTailOfLongOutput() throws Exception {
+        String text = lines(0, 1000);
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        OutputCapture capture = new OutputCapture(32, 16);
+        // Uneven writes exercise the ring wrapping.
+        for (int i = 0; i < bytes.length; i += 7) {
+            capture.write(bytes, i, Math.min(7, bytes.length - i));
+        }
+
+        assertEquals(bytes.length, capture.getByteCount());
+        assertEquals(1000, capture.getLineCount());
+        assertEquals(HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes)), capture.getSha256());
+        assertTrue(capture.isTruncated());
+        assertTrue(capture.getText().startsWith(text.substring(0, 32)));
+        assertTrue(capture.getText().endsWith(text.substring(text.length() - 16)));
+        assertTrue(capture.getText().contains("bytes omitted"));
+        assertNull(capture.spill());
+    }
+
+    public void testAdoptsOverflowingFileForPaging() throws Exception {
+        Path file = Files.createTempFile("capture_test", ".out");
+        String text = lines(0, 50000);
+        Files.write(file, text.getBytes(StandardCharsets.UTF_8));
+
+        OutputCapture capture = OutputCapture.fromFile(file);
+        try {
+            assertTrue(capture.isTruncated());
+            assertFalse(Files.exists(file));
+            assertEquals(text.substring(100000, 100040), capture.readPage(100000, 40));
+        } finally {
+            capture.discard();
+        }
+    }
+
+    public void testShortOutputSpillsOnlyWhenAsked() throws Exception {
+        OutputCapture capture = new OutputCapture();
+        capture.write("done".getBytes(StandardCharsets.UTF_8));
+
+        assertFalse(capture.isTruncated());
+        assertEquals("done", capture.getText());
+        assertEquals(1, capture.getLineCount());
+        Path spilled = capture.spill();
+        assertEquals("done", new String(Files.readAllBytes(spilled), StandardCharsets.UTF_8));
+        capture.discard();
+        assertFalse(Files.exists(spilled));
+    }
+}
@@ -0,0 +1,74 @@
+package org.example;
+
+import junit.framework.TestCase;
+import main.core.CodeCompiler;
+import main.core.ReferenceBaseline;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+public class ReferenceBaselineTest extends TestCase {
+
+    private static String run(ReferenceBaseline baseline, String input) throws Exception {
+        CodeCompiler.CompilationResult result = new CodeCompiler().compile(baseline.getClassName(),
+                baseline.getSource());
+        assertTrue(result.formatDiagnostics(), result.isSuccess());
+        Map<String, byte[]> classBytes = result.getClassBytes();
+        ClassLoader loader = new ClassLoader(ReferenceBaselineTest.class.getClassLoader()) {
+            @Override
+            protected Class<?> findClass(String name) throws ClassNotFoundException {
+                byte[] bytes = classBytes.get(name);
+                if (bytes == null) {
+                    throw new ClassNotFoundException(name);
+                }
+                return defineClass(name, bytes, 0, bytes.length);
+            }
+        };
+
+        InputStream in = System.in;
+        PrintStream out = System.out;
+        ByteArrayOutputStream captured = new ByteArrayOutputStream();
+        try {
+            System.setIn(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)));
+            System.setOut(new PrintStream(captured, true, StandardCharsets.UTF_8));
+            loader.loadClass(baseline.getClassName()).getMethod("main", String[].class)
+                    .invoke(null, (Object) new String[0]);
+        } finally {
+            System.setIn(in);
+            System.setOut(out);
+        }
+        return captured.toString(StandardCharsets.UTF_8).trim();
+    }
+
+    public void testEveryBaselineReadsGeneratedArrayInput() throws Exception {
+        for (ReferenceBaseline baseline : ReferenceBaseline.values()) {
+            String output = run(baseline, "5\n3 1 2\n5 4\n");
+            Long.parseLong(output);
+            assertSame(baseline, ReferenceBaseline.fromLabel(baseline.getLabel()));
+        }
+        // Both sorts fold the same sorted values into the checksum.
+        assertEquals(run(ReferenceBaseline.ARRAYS_SORT, "5 3 1 2 5 4"),
+                run(ReferenceBaseline.COLLECTIONS_SORT, "5 3 1 2 5 4"));
+        assertEquals(String.valueOf((((1L * 31 + 2) * 31 + 3) * 31 + 4) * 31 + 5),
+                run(ReferenceBaseline.ARRAYS_SORT, "5 3 1 2 5 4"));
+        assertNull(ReferenceBaseline.fromLabel("None"));
+    }
+
+    public void testShortInputLeavesNothingToDo() throws Exception {
+        assertEquals("0", run(ReferenceBaseline.ARRAYS_SORT, ""));
+        assertEquals("2", run(ReferenceBaseline.HASH_MAP, "4 7"));
+    }
+
+    public void testOnlySizeThenIntsCanBeRead() {
+        assertTrue(ReferenceBaseline.canRead("rows:2:0:random"));
+        assertTrue(ReferenceBaseline.canRead("arrays:sorted"));
+        assertFalse(ReferenceBaseline.canRead("rows:2:1:random"));
+        assertFalse(ReferenceBaseline.canRead("matrices"));
+        assertFalse(ReferenceBaseline.canRead("words"));
+        assertFalse(ReferenceBaseline.canRead("string:dna:ACGT"));
+    }
+}
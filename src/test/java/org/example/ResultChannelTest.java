@@ -0,0 +1,105 @@
+package org.example;
+
+import junit.framework.TestCase;
+import main.core.BenchmarkRecord;
+import main.core.ResultChannel;
+import org.openjdk.jmh.util.ListStatistics;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class ResultChannelTest extends TestCase {
+
+    private static BenchmarkRecord sampleRecord() {
+        Map<String, String> params = new LinkedHashMap<>();
+        params.put("inputFilePath", "/tmp/in.txt");
+        Map<String, BenchmarkRecord.Score> secondaries = new LinkedHashMap<>();
+        secondaries.put("gc.alloc.rate.norm", new BenchmarkRecord.Score("gc.alloc.rate.norm", 512, 3.5, "B/op", 3));
+        Map<String, List<Double>> secondaryIterations = new LinkedHashMap<>();
+        secondaryIterations.put("gc.alloc.rate.norm", Arrays.asList(510.0, 512.0, 514.0));
+        List<double[]> histogram = new ArrayList<>();
+        histogram.add(new double[]{0.5, 10});
+        histogram.add(new double[]{1.5, 2});
+        return new BenchmarkRecord(2, "SampleTime", params,
+                new BenchmarkRecord.Score("executeCode", 0.7, Double.NaN, "ms/op", 12),
+                secondaries, Arrays.asList(0.6, 0.7, 0.8), secondaryIterations, histogram);
+    }
+
+    public void testRecordsSurviveRoundTrip() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ResultChannel.Writer writer = new ResultChannel.Writer(bytes);
+        writer.writeRecord(sampleRecord());
+        writer.writeEnd();
+
+        ResultChannel.Reader reader = new ResultChannel.Reader(new ByteArrayInputStream(bytes.toByteArray()));
+        ResultChannel.Frame frame = reader.next();
+        assertEquals(ResultChannel.TAG_RECORD, frame.getTag());
+        BenchmarkRecord record = frame.getRecord();
+        assertEquals(2, record.getInputIndex());
+        assertEquals("SampleTime", record.getMode());
+        assertEquals("/tmp/in.txt", record.getParams().get("inputFilePath"));
+        assertTrue(Double.isNaN(record.getPrimary().error));
+        assertEquals(3.5, record.getSecondaries().get("gc.alloc.rate.norm").error, 0.0);
+        assertEquals(Arrays.asList(0.6, 0.7, 0.8), record.getIterationScores());
+        assertEquals(Arrays.asList(510.0, 512.0, 514.0), record.getSecondaryIterationScores().get("gc.alloc.rate.norm"));
+        assertEquals(2, record.getHistogram().size());
+        assertEquals(10.0, record.getHistogram().get(0)[1], 0.0);
+
+        assertEquals(ResultChannel.TAG_END, reader.next().getTag());
+        assertNull(reader.next());
+    }
+
+    public void testSkipsUnknownFramesAndRejectsNewerVersions() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(ResultChannel.MAGIC);
+        out.writeShort(ResultChannel.VERSION);
+        out.writeByte(42);
+        out.writeInt(3);
+        out.write(new byte[]{1, 2, 3});
+        out.writeByte(ResultChannel.TAG_END);
+        out.writeInt(0);
+
+        ResultChannel.Reader reader = new ResultChannel.Reader(new ByteArrayInputStream(bytes.toByteArray()));
+        assertEquals(ResultChannel.TAG_END, reader.next().getTag());
+
+        bytes.reset();
+        out.writeInt(ResultChannel.MAGIC);
+        out.writeShort(ResultChannel.VERSION + 1);
+        try {
+            new ResultChannel.Reader(new ByteArrayInputStream(bytes.toByteArray())).next();
+            fail("expected the newer version to be rejected");
+        } catch (IOException e) {
+            assertTrue(e.getMessage().contains("version"));
+        }
+    }
+
+    public void testPercentilesMatchJmhStatistics() {
+        double[] samples = {3, 1, 4, 1, 5, 9, 2, 6, 5, 3, 5, 8, 9, 7, 9};
+        ListStatistics statistics = new ListStatistics();
+        Map<Double, Long> counts = new java.util.TreeMap<>();
+        for (double sample : samples) {
+            statistics.addValue(sample);
+            counts.merge(sample, 1L, Long::sum);
+        }
+        List<double[]> histogram = new ArrayList<>();
+        for (Map.Entry<Double, Long> bin : counts.entrySet()) {
+            histogram.add(new double[]{bin.getKey(), bin.getValue()});
+        }
+        BenchmarkRecord record = new BenchmarkRecord(0, "SampleTime", Collections.emptyMap(),
+                new BenchmarkRecord.Score("executeCode", 0, 0, "ms/op", samples.length),
+                Collections.emptyMap(), Collections.emptyList(), Collections.emptyMap(), histogram);
+
+        for (double percentile : new double[]{0, 10, 50, 90, 95, 99, 100}) {
+            assertEquals(statistics.getPercentile(percentile), record.percentile(percentile), 1e-9);
+        }
+    }
+}
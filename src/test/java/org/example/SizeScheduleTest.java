@@ -0,0 +1,37 @@
+package org.example;
+
+import junit.framework.TestCase;
+import main.core.SizeSchedule;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class SizeScheduleTest extends TestCase {
+
+    public void testGeometricIsLogSpaced() {
+        List<Integer> sizes = SizeSchedule.geometric(10, 100000, 5);
+        assertEquals(Arrays.asList(10, 100, 1000, 10000, 100000), sizes);
+        // A range with fewer integers than points just has every one of them.
+        assertEquals(Arrays.asList(1, 2, 3), SizeSchedule.geometric(1, 3, 10));
+    }
+
+    public void testRefinesWhereTheSlopeBends() {
+        // Linear up to 1000, quadratic after it.
+        List<Integer> sizes = new ArrayList<>();
+        List<Double> times = new ArrayList<>();
+        for (int size : SizeSchedule.geometric(10, 100000, 5)) {
+            sizes.add(size);
+            times.add(size <= 1000 ? size * 1.0 : size * (size / 1000.0));
+        }
+        List<Integer> next = SizeSchedule.refine(sizes, times, 2);
+        assertEquals(2, next.size());
+        for (int size : next) {
+            assertTrue("expected refinement around the bend, got " + size, size > 100 && size < 10000);
+        }
+    }
+
+    public void testStopsWhenGapsAreTooSmall() {
+        assertTrue(SizeSchedule.refine(Arrays.asList(1, 2, 3), Arrays.asList(1.0, 2.0, 3.0), 5).isEmpty());
+    }
+}
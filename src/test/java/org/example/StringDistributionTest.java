@@ -0,0 +1,78 @@
+package org.example;
+
+import junit.framework.TestCase;
+import main.core.InputGenerator;
+import main.core.ProgramInput;
+import main.core.StringDistribution;
+
+import java.nio.file.Files;
+
+public class StringDistributionTest extends TestCase {
+
+    private static String[] lines(StringDistribution distribution, String alphabet, int size) throws Exception {
+        ProgramInput input = new InputGenerator().generateInputForType(distribution.spec(alphabet), size);
+        try {
+            return Files.readString(input.getFile()).split("\n");
+        } finally {
+            input.discard();
+        }
+    }
+
+    // Over 200,000 characters the chunks and the integer ⌊kφ⌋ both get exercised.
+    public void testFibonacciWordMatchesItsRecurrence() throws Exception {
+        StringBuilder previous = new StringBuilder("x");
+        StringBuilder current = new StringBuilder("xy");
+        while (current.length() < 200_000) {
+            StringBuilder next = new StringBuilder(current).append(previous);
+            previous = current;
+            current = next;
+        }
+        String text = lines(StringDistribution.FIBONACCI, "xy", 200_000)[0];
+        assertEquals(current.substring(0, 200_000), text);
+    }
+
+    public void testStructuredStrings() throws Exception {
+        assertEquals("aaaab", lines(StringDistribution.PERIODIC, "", 5)[0]);
+        assertEquals("0001", lines(StringDistribution.PERIODIC, "01", 4)[0]);
+
+        String dna = lines(StringDistribution.DNA, null, 10_000)[0];
+        assertEquals(10_000, dna.length());
+        assertTrue(dna.chars().allMatch(c -> "ACGT".indexOf(c) >= 0));
+        assertEquals(4, dna.chars().distinct().count());
+
+        String[] pair = lines(StringDistribution.NAIVE_MATCHING_WORST_CASE, "", 10_000);
+        assertEquals("a".repeat(10_000), pair[0]);
+        assertEquals("a".repeat(99) + "b", pair[1]);
+
+        String[] words = lines(StringDistribution.COMMON_PREFIX, "pq", 10_000)[0].split(" ");
+        assertTrue(words.length > 50);
+        // √10,000 characters a word, the last cut short where the size runs out.
+        for (int i = 0; i < words.length - 1; i++) {
+            assertEquals(100, words[i].length());
+            assertEquals(words[0].substring(0, 96), words[i].substring(0, 96));
+            assertTrue(words[i].chars().allMatch(c -> c == 'p' || c == 'q'));
+        }
+        assertTrue(words[0].startsWith(words[words.length - 1]));
+
+        // The plain "string" type is still random lowercase letters.
+        ProgramInput plain = new InputGenerator().generateInputForType("string", 1000);
+        try {
+            assertTrue(Files.readString(plain.getFile()).matches("[a-z]{1000}\n"));
+        } finally {
+            plain.discard();
+        }
+    }
+
+    public void testAlphabetIsValidated() {
+        assertEquals("words", StringDistribution.WORDS.spec("ignored"));
+        assertEquals("string:dna:ACGT", StringDistribution.DNA.spec(" "));
+        for (String alphabet : new String[]{"aaa", "a b", "a:b", "aé"}) {
+            try {
+                StringDistribution.RANDOM.spec(alphabet);
+                fail(alphabet);
+            } catch (IllegalArgumentException expected) {
+                // Rejected before anything is generated.
+            }
+        }
+    }
+}
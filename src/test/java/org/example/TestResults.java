@@ -0,0 +1,19 @@
+package org.example;
+
+import main.core.AnalysisResult;
+
+// Measured results as the scheduler and comparison tests fake them: a time at a size, 1%
+// precision and a CV of 0.02.
+final class TestResults {
+
+    private TestResults() {
+    }
+
+    static AnalysisResult timed(int size, double time) {
+        return timed(size, time, 0, 0);
+    }
+
+    static AnalysisResult timed(int size, double time, double memoryUsed, double p99Latency) {
+        return new AnalysisResult(time, memoryUsed, size, 0, 0, 0, 0, 0, p99Latency, 0.01, 0, 0, 0.02);
+    }
+}